@@ -0,0 +1,1164 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class BatchLU {
+
+    // ----------------------------------------------------------
+    // Resolución de muchos sistemas chicos independientes (n = 2..8)
+    // A_p x_p = b_p, p = 0..count-1, sin crear objetos por sistema.
+    //
+    // Almacenamiento "structure of arrays": el mismo elemento de todos los
+    // sistemas está contiguo,
+    //   A_p(i,j) = a[(i * n + j) * count + p]
+    //   b_p(i)   = b[i * count + p]
+    //   x_p(i)   = x[i * count + p]
+    // así que los bucles internos recorren p (muchos sistemas a la vez) con
+    // accesos consecutivos, que el JIT vectoriza, en lugar de saltar entre
+    // las filas de un double[][] por cada sistema.
+    //
+    // Mismo método que LUProgram.LUdecomp: pivoteo parcial escalado
+    // (criterio |a(i,k)/s(i)| máximo), eliminación y sustitución. b se
+    // elimina junto con A, así que no hace falta vector de orden.
+    //  - n = 1..6: núcleos desenrollados, cada sistema en registros.
+    //  - n >= 7: eliminación por columnas con el bucle interno sobre p
+    //    (VectorOps.multiplySubtract). Con 7 x 7 y 8 x 8 los núcleos
+    //    desenrollados ya no entran en los registros (y el de 8 queda
+    //    cerca del límite de tamaño de método que compila el JIT); medidos,
+    //    no eran más rápidos que la versión por columnas.
+    //
+    // Los sistemas se procesan por bloques de CHUNK; cada tarea del
+    // ForkJoinPool resuelve varios bloques seguidos con el mismo espacio de
+    // trabajo. 'a' y 'b' se usan como espacio de trabajo (al terminar su
+    // contenido no está definido) y 'x' guarda las soluciones.
+    //
+    //  - er[p]: 0 = OK, -1 = sistema p mal condicionado (x_p queda en NaN)
+    // ----------------------------------------------------------
+
+    // Sistemas por bloque (los bucles sobre p de un bloque entran en caché)
+    static final int CHUNK = 256;
+
+    // Tareas por hilo del pool (para repartir bien la carga)
+    static final int TASKS_PER_THREAD = 4;
+
+    // ----------------------------------------------------------
+    // SUB solve(n, count, a, b, x, er, tol)
+    //
+    // Reparte los bloques en el pool común.
+    // ----------------------------------------------------------
+    public static void solve(int n, int count, double[] a, double[] b, double[] x, int[] er, double tol) {
+        solve(n, count, a, b, x, er, tol, ForkJoinPool.commonPool());
+    }
+
+    // ----------------------------------------------------------
+    // SUB solve(n, count, a, b, x, er, tol, pool)
+    //
+    // pool == null -> todo en el hilo que llama.
+    // ----------------------------------------------------------
+    public static void solve(int n, int count, double[] a, double[] b, double[] x, int[] er, double tol,
+                             ForkJoinPool pool) {
+        if (n < 1 || count < 0) {
+            throw new IllegalArgumentException("Tamaño de lote inválido: n = " + n + ", count = " + count);
+        }
+        long elements = (long) n * n * count;
+        if (a.length < elements || b.length < (long) n * count || x.length < (long) n * count || er.length < count) {
+            throw new IllegalArgumentException("Los arreglos son demasiado cortos para " + count
+                    + " sistemas de " + n + " x " + n);
+        }
+
+        if (pool == null || count <= CHUNK) {
+            solveBlocks(n, count, a, b, x, er, tol, 0, count);
+        } else {
+            // Bloques por tarea: unas TASKS_PER_THREAD tareas por hilo
+            long tasks = (long) pool.getParallelism() * TASKS_PER_THREAD;
+            int blocks = (int) Math.max(1, ((count + CHUNK - 1) / CHUNK) / tasks);
+            pool.invoke(new BatchTask(n, count, a, b, x, er, tol, blocks * CHUNK, 0, count));
+        }
+    }
+
+    // ----------------------------------------------------------
+    // SUB pack(systems, rhs, a, b)
+    //
+    // Copia count = systems.length sistemas (cada uno n x n y su b) al
+    // formato por lotes.
+    // ----------------------------------------------------------
+    public static void pack(double[][][] systems, double[][] rhs, double[] a, double[] b) {
+        int count = systems.length;
+        for (int p = 0; p < count; p++) {
+            double[][] m = systems[p];
+            int n = m.length;
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    a[(i * n + j) * count + p] = m[i][j];
+                }
+                b[i * count + p] = rhs[p][i];
+            }
+        }
+    }
+
+    // Sistemas from..to-1, por bloques de CHUNK, con un solo espacio de trabajo
+    static void solveBlocks(int n, int count, double[] a, double[] b, double[] x, int[] er, double tol,
+                            int from, int to) {
+        int size = Math.min(CHUNK, to - from);
+        double[] big = n >= 7 ? new double[size] : null;
+        int[] piv = n >= 7 ? new int[size] : null;
+        for (int p0 = from; p0 < to; p0 += CHUNK) {
+            solveRange(n, count, a, b, x, er, tol, p0, Math.min(p0 + CHUNK, to), big, piv);
+        }
+    }
+
+    // Sistemas p0..p1-1 según el tamaño (big y piv: trabajo de solveColumns)
+    static void solveRange(int n, int count, double[] a, double[] b, double[] x, int[] er, double tol,
+                           int p0, int p1, double[] big, int[] piv) {
+        switch (n) {
+            case 1:
+                solve1(count, a, b, x, er, tol, p0, p1);
+                break;
+            case 2:
+                solve2(count, a, b, x, er, tol, p0, p1);
+                break;
+            case 3:
+                solve3(count, a, b, x, er, tol, p0, p1);
+                break;
+            case 4:
+                solve4(count, a, b, x, er, tol, p0, p1);
+                break;
+            case 5:
+                solve5(count, a, b, x, er, tol, p0, p1);
+                break;
+            case 6:
+                solve6(count, a, b, x, er, tol, p0, p1);
+                break;
+            default:
+                solveColumns(n, count, a, b, x, er, tol, p0, p1, big, piv);
+                break;
+        }
+    }
+
+    // ----------------------------------------------------------
+    // Tarea fork/join: divide el rango de sistemas por la mitad (en
+    // múltiplos de CHUNK) hasta que queda a lo sumo 'grain'.
+    // ----------------------------------------------------------
+    @SuppressWarnings("serial")
+    private static class BatchTask extends RecursiveAction {
+        final int n, count;
+        final double[] a, b, x;
+        final int[] er;
+        final double tol;
+        final int grain;
+        final int from, to;
+
+        BatchTask(int n, int count, double[] a, double[] b, double[] x, int[] er, double tol, int grain,
+                  int from, int to) {
+            this.n = n;
+            this.count = count;
+            this.a = a;
+            this.b = b;
+            this.x = x;
+            this.er = er;
+            this.tol = tol;
+            this.grain = grain;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                solveBlocks(n, count, a, b, x, er, tol, from, to);
+                return;
+            }
+            int blocks = (to - from + CHUNK - 1) / CHUNK;
+            int mid = from + (blocks / 2) * CHUNK;
+            invokeAll(new BatchTask(n, count, a, b, x, er, tol, grain, from, mid),
+                    new BatchTask(n, count, a, b, x, er, tol, grain, mid, to));
+        }
+    }
+
+    // ==========================
+    // Núcleos desenrollados
+    // ==========================
+
+    private static void solve1(int c, double[] a, double[] b, double[] x, int[] er, double tol, int p0, int p1) {
+        for (int p = p0; p < p1; p++) {
+            double a00 = a[p];
+            // Con n = 1 la escala es |a00| y la razón |a00| / s vale 1 (o 0/0, inf/inf)
+            if (!(a00 != 0.0 && Double.isFinite(a00) && 1.0 >= tol)) {
+                fail(1, c, x, er, p);
+                continue;
+            }
+            er[p] = 0;
+            x[p] = b[p] / a00;
+        }
+    }
+
+    private static void solve2(int c, double[] a, double[] b, double[] x, int[] er, double tol, int p0, int p1) {
+        for (int p = p0; p < p1; p++) {
+            double a00 = a[p], a01 = a[c + p];
+            double a10 = a[2 * c + p], a11 = a[3 * c + p];
+            double b0 = b[p], b1 = b[c + p];
+            double s0 = Math.max(Math.abs(a00), Math.abs(a01));
+            double s1 = Math.max(Math.abs(a10), Math.abs(a11));
+
+            // Pivote de la columna 0
+            if (Math.abs(a10) / s1 > Math.abs(a00) / s0) {
+                double t = a00; a00 = a10; a10 = t;
+                t = a01; a01 = a11; a11 = t;
+                t = b0; b0 = b1; b1 = t;
+                t = s0; s0 = s1; s1 = t;
+            }
+            if (!(Math.abs(a00) / s0 >= tol)) {
+                fail(2, c, x, er, p);
+                continue;
+            }
+            double l10 = a10 / a00;
+            a11 -= l10 * a01;
+            b1 -= l10 * b0;
+            if (!(Math.abs(a11) / s1 >= tol)) {
+                fail(2, c, x, er, p);
+                continue;
+            }
+
+            er[p] = 0;
+            double x1 = b1 / a11;
+            x[c + p] = x1;
+            x[p] = (b0 - a01 * x1) / a00;
+        }
+    }
+
+    private static void solve3(int c, double[] a, double[] b, double[] x, int[] er, double tol, int p0, int p1) {
+        for (int p = p0; p < p1; p++) {
+            double a00 = a[p], a01 = a[c + p], a02 = a[2 * c + p];
+            double a10 = a[3 * c + p], a11 = a[4 * c + p], a12 = a[5 * c + p];
+            double a20 = a[6 * c + p], a21 = a[7 * c + p], a22 = a[8 * c + p];
+            double b0 = b[p], b1 = b[c + p], b2 = b[2 * c + p];
+            double s0 = Math.max(Math.abs(a00), Math.max(Math.abs(a01), Math.abs(a02)));
+            double s1 = Math.max(Math.abs(a10), Math.max(Math.abs(a11), Math.abs(a12)));
+            double s2 = Math.max(Math.abs(a20), Math.max(Math.abs(a21), Math.abs(a22)));
+
+            // Pivote de la columna 0 (el primero de los máximos, como Pivot)
+            double r0 = Math.abs(a00) / s0;
+            double r1 = Math.abs(a10) / s1;
+            double r2 = Math.abs(a20) / s2;
+            if (r2 > Math.max(r0, r1)) {
+                double t = a00; a00 = a20; a20 = t;
+                t = a01; a01 = a21; a21 = t;
+                t = a02; a02 = a22; a22 = t;
+                t = b0; b0 = b2; b2 = t;
+                t = s0; s0 = s2; s2 = t;
+            } else if (r1 > r0) {
+                double t = a00; a00 = a10; a10 = t;
+                t = a01; a01 = a11; a11 = t;
+                t = a02; a02 = a12; a12 = t;
+                t = b0; b0 = b1; b1 = t;
+                t = s0; s0 = s1; s1 = t;
+            }
+            if (!(Math.abs(a00) / s0 >= tol)) {
+                fail(3, c, x, er, p);
+                continue;
+            }
+            double l10 = a10 / a00;
+            a11 -= l10 * a01;
+            a12 -= l10 * a02;
+            b1 -= l10 * b0;
+            double l20 = a20 / a00;
+            a21 -= l20 * a01;
+            a22 -= l20 * a02;
+            b2 -= l20 * b0;
+
+            // Pivote de la columna 1
+            if (Math.abs(a21) / s2 > Math.abs(a11) / s1) {
+                double t = a11; a11 = a21; a21 = t;
+                t = a12; a12 = a22; a22 = t;
+                t = b1; b1 = b2; b2 = t;
+                t = s1; s1 = s2; s2 = t;
+            }
+            if (!(Math.abs(a11) / s1 >= tol)) {
+                fail(3, c, x, er, p);
+                continue;
+            }
+            double l21 = a21 / a11;
+            a22 -= l21 * a12;
+            b2 -= l21 * b1;
+            if (!(Math.abs(a22) / s2 >= tol)) {
+                fail(3, c, x, er, p);
+                continue;
+            }
+
+            er[p] = 0;
+            double x2 = b2 / a22;
+            double x1 = (b1 - a12 * x2) / a11;
+            x[2 * c + p] = x2;
+            x[c + p] = x1;
+            x[p] = (b0 - a01 * x1 - a02 * x2) / a00;
+        }
+    }
+
+    private static void solve4(int c, double[] a, double[] b, double[] x, int[] er, double tol, int p0, int p1) {
+        for (int p = p0; p < p1; p++) {
+            double a00 = a[p], a01 = a[c + p], a02 = a[2 * c + p], a03 = a[3 * c + p];
+            double a10 = a[4 * c + p], a11 = a[5 * c + p], a12 = a[6 * c + p], a13 = a[7 * c + p];
+            double a20 = a[8 * c + p], a21 = a[9 * c + p], a22 = a[10 * c + p], a23 = a[11 * c + p];
+            double a30 = a[12 * c + p], a31 = a[13 * c + p], a32 = a[14 * c + p], a33 = a[15 * c + p];
+            double b0 = b[p], b1 = b[c + p], b2 = b[2 * c + p], b3 = b[3 * c + p];
+            double s0 = Math.max(Math.max(Math.abs(a00), Math.abs(a01)), Math.max(Math.abs(a02), Math.abs(a03)));
+            double s1 = Math.max(Math.max(Math.abs(a10), Math.abs(a11)), Math.max(Math.abs(a12), Math.abs(a13)));
+            double s2 = Math.max(Math.max(Math.abs(a20), Math.abs(a21)), Math.max(Math.abs(a22), Math.abs(a23)));
+            double s3 = Math.max(Math.max(Math.abs(a30), Math.abs(a31)), Math.max(Math.abs(a32), Math.abs(a33)));
+
+            // Pivote de la columna 0
+            int piv = 0;
+            double big = Math.abs(a00) / s0;
+            double r = Math.abs(a10) / s1;
+            if (r > big) {
+                big = r;
+                piv = 1;
+            }
+            r = Math.abs(a20) / s2;
+            if (r > big) {
+                big = r;
+                piv = 2;
+            }
+            r = Math.abs(a30) / s3;
+            if (r > big) {
+                big = r;
+                piv = 3;
+            }
+            if (piv == 1) {
+                double t = a00; a00 = a10; a10 = t;
+                t = a01; a01 = a11; a11 = t;
+                t = a02; a02 = a12; a12 = t;
+                t = a03; a03 = a13; a13 = t;
+                t = b0; b0 = b1; b1 = t;
+                t = s0; s0 = s1; s1 = t;
+            } else if (piv == 2) {
+                double t = a00; a00 = a20; a20 = t;
+                t = a01; a01 = a21; a21 = t;
+                t = a02; a02 = a22; a22 = t;
+                t = a03; a03 = a23; a23 = t;
+                t = b0; b0 = b2; b2 = t;
+                t = s0; s0 = s2; s2 = t;
+            } else if (piv == 3) {
+                double t = a00; a00 = a30; a30 = t;
+                t = a01; a01 = a31; a31 = t;
+                t = a02; a02 = a32; a32 = t;
+                t = a03; a03 = a33; a33 = t;
+                t = b0; b0 = b3; b3 = t;
+                t = s0; s0 = s3; s3 = t;
+            }
+            if (!(big >= tol)) {
+                fail(4, c, x, er, p);
+                continue;
+            }
+            double l = a10 / a00;
+            a11 -= l * a01;
+            a12 -= l * a02;
+            a13 -= l * a03;
+            b1 -= l * b0;
+            l = a20 / a00;
+            a21 -= l * a01;
+            a22 -= l * a02;
+            a23 -= l * a03;
+            b2 -= l * b0;
+            l = a30 / a00;
+            a31 -= l * a01;
+            a32 -= l * a02;
+            a33 -= l * a03;
+            b3 -= l * b0;
+
+            // Pivote de la columna 1 (la columna 0 ya no hace falta)
+            piv = 1;
+            big = Math.abs(a11) / s1;
+            r = Math.abs(a21) / s2;
+            if (r > big) {
+                big = r;
+                piv = 2;
+            }
+            r = Math.abs(a31) / s3;
+            if (r > big) {
+                big = r;
+                piv = 3;
+            }
+            if (piv == 2) {
+                double t = a11; a11 = a21; a21 = t;
+                t = a12; a12 = a22; a22 = t;
+                t = a13; a13 = a23; a23 = t;
+                t = b1; b1 = b2; b2 = t;
+                t = s1; s1 = s2; s2 = t;
+            } else if (piv == 3) {
+                double t = a11; a11 = a31; a31 = t;
+                t = a12; a12 = a32; a32 = t;
+                t = a13; a13 = a33; a33 = t;
+                t = b1; b1 = b3; b3 = t;
+                t = s1; s1 = s3; s3 = t;
+            }
+            if (!(big >= tol)) {
+                fail(4, c, x, er, p);
+                continue;
+            }
+            l = a21 / a11;
+            a22 -= l * a12;
+            a23 -= l * a13;
+            b2 -= l * b1;
+            l = a31 / a11;
+            a32 -= l * a12;
+            a33 -= l * a13;
+            b3 -= l * b1;
+
+            // Pivote de la columna 2
+            if (Math.abs(a32) / s3 > Math.abs(a22) / s2) {
+                double t = a22; a22 = a32; a32 = t;
+                t = a23; a23 = a33; a33 = t;
+                t = b2; b2 = b3; b3 = t;
+                t = s2; s2 = s3; s3 = t;
+            }
+            if (!(Math.abs(a22) / s2 >= tol)) {
+                fail(4, c, x, er, p);
+                continue;
+            }
+            l = a32 / a22;
+            a33 -= l * a23;
+            b3 -= l * b2;
+            if (!(Math.abs(a33) / s3 >= tol)) {
+                fail(4, c, x, er, p);
+                continue;
+            }
+
+            er[p] = 0;
+            double x3 = b3 / a33;
+            double x2 = (b2 - a23 * x3) / a22;
+            double x1 = (b1 - a12 * x2 - a13 * x3) / a11;
+            x[3 * c + p] = x3;
+            x[2 * c + p] = x2;
+            x[c + p] = x1;
+            x[p] = (b0 - a01 * x1 - a02 * x2 - a03 * x3) / a00;
+        }
+    }
+
+    private static void solve5(int c, double[] a, double[] b, double[] x, int[] er, double tol, int p0, int p1) {
+        for (int p = p0; p < p1; p++) {
+            double a00 = a[p], a01 = a[c + p], a02 = a[2 * c + p], a03 = a[3 * c + p], a04 = a[4 * c + p];
+            double a10 = a[5 * c + p], a11 = a[6 * c + p], a12 = a[7 * c + p], a13 = a[8 * c + p], a14 = a[9 * c + p];
+            double a20 = a[10 * c + p], a21 = a[11 * c + p], a22 = a[12 * c + p], a23 = a[13 * c + p],
+                    a24 = a[14 * c + p];
+            double a30 = a[15 * c + p], a31 = a[16 * c + p], a32 = a[17 * c + p], a33 = a[18 * c + p],
+                    a34 = a[19 * c + p];
+            double a40 = a[20 * c + p], a41 = a[21 * c + p], a42 = a[22 * c + p], a43 = a[23 * c + p],
+                    a44 = a[24 * c + p];
+            double b0 = b[p], b1 = b[c + p], b2 = b[2 * c + p], b3 = b[3 * c + p], b4 = b[4 * c + p];
+            double s0 = Math.max(Math.max(Math.max(Math.abs(a00), Math.abs(a01)),
+                    Math.max(Math.abs(a02), Math.abs(a03))), Math.abs(a04));
+            double s1 = Math.max(Math.max(Math.max(Math.abs(a10), Math.abs(a11)),
+                    Math.max(Math.abs(a12), Math.abs(a13))), Math.abs(a14));
+            double s2 = Math.max(Math.max(Math.max(Math.abs(a20), Math.abs(a21)),
+                    Math.max(Math.abs(a22), Math.abs(a23))), Math.abs(a24));
+            double s3 = Math.max(Math.max(Math.max(Math.abs(a30), Math.abs(a31)),
+                    Math.max(Math.abs(a32), Math.abs(a33))), Math.abs(a34));
+            double s4 = Math.max(Math.max(Math.max(Math.abs(a40), Math.abs(a41)),
+                    Math.max(Math.abs(a42), Math.abs(a43))), Math.abs(a44));
+
+            // Pivote de la columna 0
+            int piv = 0;
+            double big = Math.abs(a00) / s0;
+            double r = Math.abs(a10) / s1;
+            if (r > big) {
+                big = r;
+                piv = 1;
+            }
+            r = Math.abs(a20) / s2;
+            if (r > big) {
+                big = r;
+                piv = 2;
+            }
+            r = Math.abs(a30) / s3;
+            if (r > big) {
+                big = r;
+                piv = 3;
+            }
+            r = Math.abs(a40) / s4;
+            if (r > big) {
+                big = r;
+                piv = 4;
+            }
+            if (piv == 1) {
+                double t = a00; a00 = a10; a10 = t;
+                t = a01; a01 = a11; a11 = t;
+                t = a02; a02 = a12; a12 = t;
+                t = a03; a03 = a13; a13 = t;
+                t = a04; a04 = a14; a14 = t;
+                t = b0; b0 = b1; b1 = t;
+                t = s0; s0 = s1; s1 = t;
+            } else if (piv == 2) {
+                double t = a00; a00 = a20; a20 = t;
+                t = a01; a01 = a21; a21 = t;
+                t = a02; a02 = a22; a22 = t;
+                t = a03; a03 = a23; a23 = t;
+                t = a04; a04 = a24; a24 = t;
+                t = b0; b0 = b2; b2 = t;
+                t = s0; s0 = s2; s2 = t;
+            } else if (piv == 3) {
+                double t = a00; a00 = a30; a30 = t;
+                t = a01; a01 = a31; a31 = t;
+                t = a02; a02 = a32; a32 = t;
+                t = a03; a03 = a33; a33 = t;
+                t = a04; a04 = a34; a34 = t;
+                t = b0; b0 = b3; b3 = t;
+                t = s0; s0 = s3; s3 = t;
+            } else if (piv == 4) {
+                double t = a00; a00 = a40; a40 = t;
+                t = a01; a01 = a41; a41 = t;
+                t = a02; a02 = a42; a42 = t;
+                t = a03; a03 = a43; a43 = t;
+                t = a04; a04 = a44; a44 = t;
+                t = b0; b0 = b4; b4 = t;
+                t = s0; s0 = s4; s4 = t;
+            }
+            if (!(big >= tol)) {
+                fail(5, c, x, er, p);
+                continue;
+            }
+            double l = a10 / a00;
+            a11 -= l * a01;
+            a12 -= l * a02;
+            a13 -= l * a03;
+            a14 -= l * a04;
+            b1 -= l * b0;
+            l = a20 / a00;
+            a21 -= l * a01;
+            a22 -= l * a02;
+            a23 -= l * a03;
+            a24 -= l * a04;
+            b2 -= l * b0;
+            l = a30 / a00;
+            a31 -= l * a01;
+            a32 -= l * a02;
+            a33 -= l * a03;
+            a34 -= l * a04;
+            b3 -= l * b0;
+            l = a40 / a00;
+            a41 -= l * a01;
+            a42 -= l * a02;
+            a43 -= l * a03;
+            a44 -= l * a04;
+            b4 -= l * b0;
+
+            // Pivote de la columna 1 (la columna 0 ya no hace falta)
+            piv = 1;
+            big = Math.abs(a11) / s1;
+            r = Math.abs(a21) / s2;
+            if (r > big) {
+                big = r;
+                piv = 2;
+            }
+            r = Math.abs(a31) / s3;
+            if (r > big) {
+                big = r;
+                piv = 3;
+            }
+            r = Math.abs(a41) / s4;
+            if (r > big) {
+                big = r;
+                piv = 4;
+            }
+            if (piv == 2) {
+                double t = a11; a11 = a21; a21 = t;
+                t = a12; a12 = a22; a22 = t;
+                t = a13; a13 = a23; a23 = t;
+                t = a14; a14 = a24; a24 = t;
+                t = b1; b1 = b2; b2 = t;
+                t = s1; s1 = s2; s2 = t;
+            } else if (piv == 3) {
+                double t = a11; a11 = a31; a31 = t;
+                t = a12; a12 = a32; a32 = t;
+                t = a13; a13 = a33; a33 = t;
+                t = a14; a14 = a34; a34 = t;
+                t = b1; b1 = b3; b3 = t;
+                t = s1; s1 = s3; s3 = t;
+            } else if (piv == 4) {
+                double t = a11; a11 = a41; a41 = t;
+                t = a12; a12 = a42; a42 = t;
+                t = a13; a13 = a43; a43 = t;
+                t = a14; a14 = a44; a44 = t;
+                t = b1; b1 = b4; b4 = t;
+                t = s1; s1 = s4; s4 = t;
+            }
+            if (!(big >= tol)) {
+                fail(5, c, x, er, p);
+                continue;
+            }
+            l = a21 / a11;
+            a22 -= l * a12;
+            a23 -= l * a13;
+            a24 -= l * a14;
+            b2 -= l * b1;
+            l = a31 / a11;
+            a32 -= l * a12;
+            a33 -= l * a13;
+            a34 -= l * a14;
+            b3 -= l * b1;
+            l = a41 / a11;
+            a42 -= l * a12;
+            a43 -= l * a13;
+            a44 -= l * a14;
+            b4 -= l * b1;
+
+            // Pivote de la columna 2
+            piv = 2;
+            big = Math.abs(a22) / s2;
+            r = Math.abs(a32) / s3;
+            if (r > big) {
+                big = r;
+                piv = 3;
+            }
+            r = Math.abs(a42) / s4;
+            if (r > big) {
+                big = r;
+                piv = 4;
+            }
+            if (piv == 3) {
+                double t = a22; a22 = a32; a32 = t;
+                t = a23; a23 = a33; a33 = t;
+                t = a24; a24 = a34; a34 = t;
+                t = b2; b2 = b3; b3 = t;
+                t = s2; s2 = s3; s3 = t;
+            } else if (piv == 4) {
+                double t = a22; a22 = a42; a42 = t;
+                t = a23; a23 = a43; a43 = t;
+                t = a24; a24 = a44; a44 = t;
+                t = b2; b2 = b4; b4 = t;
+                t = s2; s2 = s4; s4 = t;
+            }
+            if (!(big >= tol)) {
+                fail(5, c, x, er, p);
+                continue;
+            }
+            l = a32 / a22;
+            a33 -= l * a23;
+            a34 -= l * a24;
+            b3 -= l * b2;
+            l = a42 / a22;
+            a43 -= l * a23;
+            a44 -= l * a24;
+            b4 -= l * b2;
+
+            // Pivote de la columna 3
+            if (Math.abs(a43) / s4 > Math.abs(a33) / s3) {
+                double t = a33; a33 = a43; a43 = t;
+                t = a34; a34 = a44; a44 = t;
+                t = b3; b3 = b4; b4 = t;
+                t = s3; s3 = s4; s4 = t;
+            }
+            if (!(Math.abs(a33) / s3 >= tol)) {
+                fail(5, c, x, er, p);
+                continue;
+            }
+            l = a43 / a33;
+            a44 -= l * a34;
+            b4 -= l * b3;
+            if (!(Math.abs(a44) / s4 >= tol)) {
+                fail(5, c, x, er, p);
+                continue;
+            }
+
+            er[p] = 0;
+            double x4 = b4 / a44;
+            double x3 = (b3 - a34 * x4) / a33;
+            double x2 = (b2 - a23 * x3 - a24 * x4) / a22;
+            double x1 = (b1 - a12 * x2 - a13 * x3 - a14 * x4) / a11;
+            x[4 * c + p] = x4;
+            x[3 * c + p] = x3;
+            x[2 * c + p] = x2;
+            x[c + p] = x1;
+            x[p] = (b0 - a01 * x1 - a02 * x2 - a03 * x3 - a04 * x4) / a00;
+        }
+    }
+
+    private static void solve6(int c, double[] a, double[] b, double[] x, int[] er, double tol, int p0, int p1) {
+        for (int p = p0; p < p1; p++) {
+            double a00 = a[p], a01 = a[c + p], a02 = a[2 * c + p], a03 = a[3 * c + p], a04 = a[4 * c + p],
+                    a05 = a[5 * c + p];
+            double a10 = a[6 * c + p], a11 = a[7 * c + p], a12 = a[8 * c + p], a13 = a[9 * c + p],
+                    a14 = a[10 * c + p], a15 = a[11 * c + p];
+            double a20 = a[12 * c + p], a21 = a[13 * c + p], a22 = a[14 * c + p], a23 = a[15 * c + p],
+                    a24 = a[16 * c + p], a25 = a[17 * c + p];
+            double a30 = a[18 * c + p], a31 = a[19 * c + p], a32 = a[20 * c + p], a33 = a[21 * c + p],
+                    a34 = a[22 * c + p], a35 = a[23 * c + p];
+            double a40 = a[24 * c + p], a41 = a[25 * c + p], a42 = a[26 * c + p], a43 = a[27 * c + p],
+                    a44 = a[28 * c + p], a45 = a[29 * c + p];
+            double a50 = a[30 * c + p], a51 = a[31 * c + p], a52 = a[32 * c + p], a53 = a[33 * c + p],
+                    a54 = a[34 * c + p], a55 = a[35 * c + p];
+            double b0 = b[p], b1 = b[c + p], b2 = b[2 * c + p], b3 = b[3 * c + p], b4 = b[4 * c + p], b5 = b[5 * c + p];
+            double s0 = Math.max(Math.max(Math.max(Math.abs(a00), Math.abs(a01)),
+                    Math.max(Math.abs(a02), Math.abs(a03))), Math.max(Math.abs(a04), Math.abs(a05)));
+            double s1 = Math.max(Math.max(Math.max(Math.abs(a10), Math.abs(a11)),
+                    Math.max(Math.abs(a12), Math.abs(a13))), Math.max(Math.abs(a14), Math.abs(a15)));
+            double s2 = Math.max(Math.max(Math.max(Math.abs(a20), Math.abs(a21)),
+                    Math.max(Math.abs(a22), Math.abs(a23))), Math.max(Math.abs(a24), Math.abs(a25)));
+            double s3 = Math.max(Math.max(Math.max(Math.abs(a30), Math.abs(a31)),
+                    Math.max(Math.abs(a32), Math.abs(a33))), Math.max(Math.abs(a34), Math.abs(a35)));
+            double s4 = Math.max(Math.max(Math.max(Math.abs(a40), Math.abs(a41)),
+                    Math.max(Math.abs(a42), Math.abs(a43))), Math.max(Math.abs(a44), Math.abs(a45)));
+            double s5 = Math.max(Math.max(Math.max(Math.abs(a50), Math.abs(a51)),
+                    Math.max(Math.abs(a52), Math.abs(a53))), Math.max(Math.abs(a54), Math.abs(a55)));
+
+            // Pivote de la columna 0
+            int piv = 0;
+            double big = Math.abs(a00) / s0;
+            double r = Math.abs(a10) / s1;
+            if (r > big) {
+                big = r;
+                piv = 1;
+            }
+            r = Math.abs(a20) / s2;
+            if (r > big) {
+                big = r;
+                piv = 2;
+            }
+            r = Math.abs(a30) / s3;
+            if (r > big) {
+                big = r;
+                piv = 3;
+            }
+            r = Math.abs(a40) / s4;
+            if (r > big) {
+                big = r;
+                piv = 4;
+            }
+            r = Math.abs(a50) / s5;
+            if (r > big) {
+                big = r;
+                piv = 5;
+            }
+            if (piv == 1) {
+                double t = a00; a00 = a10; a10 = t;
+                t = a01; a01 = a11; a11 = t;
+                t = a02; a02 = a12; a12 = t;
+                t = a03; a03 = a13; a13 = t;
+                t = a04; a04 = a14; a14 = t;
+                t = a05; a05 = a15; a15 = t;
+                t = b0; b0 = b1; b1 = t;
+                t = s0; s0 = s1; s1 = t;
+            } else if (piv == 2) {
+                double t = a00; a00 = a20; a20 = t;
+                t = a01; a01 = a21; a21 = t;
+                t = a02; a02 = a22; a22 = t;
+                t = a03; a03 = a23; a23 = t;
+                t = a04; a04 = a24; a24 = t;
+                t = a05; a05 = a25; a25 = t;
+                t = b0; b0 = b2; b2 = t;
+                t = s0; s0 = s2; s2 = t;
+            } else if (piv == 3) {
+                double t = a00; a00 = a30; a30 = t;
+                t = a01; a01 = a31; a31 = t;
+                t = a02; a02 = a32; a32 = t;
+                t = a03; a03 = a33; a33 = t;
+                t = a04; a04 = a34; a34 = t;
+                t = a05; a05 = a35; a35 = t;
+                t = b0; b0 = b3; b3 = t;
+                t = s0; s0 = s3; s3 = t;
+            } else if (piv == 4) {
+                double t = a00; a00 = a40; a40 = t;
+                t = a01; a01 = a41; a41 = t;
+                t = a02; a02 = a42; a42 = t;
+                t = a03; a03 = a43; a43 = t;
+                t = a04; a04 = a44; a44 = t;
+                t = a05; a05 = a45; a45 = t;
+                t = b0; b0 = b4; b4 = t;
+                t = s0; s0 = s4; s4 = t;
+            } else if (piv == 5) {
+                double t = a00; a00 = a50; a50 = t;
+                t = a01; a01 = a51; a51 = t;
+                t = a02; a02 = a52; a52 = t;
+                t = a03; a03 = a53; a53 = t;
+                t = a04; a04 = a54; a54 = t;
+                t = a05; a05 = a55; a55 = t;
+                t = b0; b0 = b5; b5 = t;
+                t = s0; s0 = s5; s5 = t;
+            }
+            if (!(big >= tol)) {
+                fail(6, c, x, er, p);
+                continue;
+            }
+            double l = a10 / a00;
+            a11 -= l * a01;
+            a12 -= l * a02;
+            a13 -= l * a03;
+            a14 -= l * a04;
+            a15 -= l * a05;
+            b1 -= l * b0;
+            l = a20 / a00;
+            a21 -= l * a01;
+            a22 -= l * a02;
+            a23 -= l * a03;
+            a24 -= l * a04;
+            a25 -= l * a05;
+            b2 -= l * b0;
+            l = a30 / a00;
+            a31 -= l * a01;
+            a32 -= l * a02;
+            a33 -= l * a03;
+            a34 -= l * a04;
+            a35 -= l * a05;
+            b3 -= l * b0;
+            l = a40 / a00;
+            a41 -= l * a01;
+            a42 -= l * a02;
+            a43 -= l * a03;
+            a44 -= l * a04;
+            a45 -= l * a05;
+            b4 -= l * b0;
+            l = a50 / a00;
+            a51 -= l * a01;
+            a52 -= l * a02;
+            a53 -= l * a03;
+            a54 -= l * a04;
+            a55 -= l * a05;
+            b5 -= l * b0;
+
+            // Pivote de la columna 1 (la columna 0 ya no hace falta)
+            piv = 1;
+            big = Math.abs(a11) / s1;
+            r = Math.abs(a21) / s2;
+            if (r > big) {
+                big = r;
+                piv = 2;
+            }
+            r = Math.abs(a31) / s3;
+            if (r > big) {
+                big = r;
+                piv = 3;
+            }
+            r = Math.abs(a41) / s4;
+            if (r > big) {
+                big = r;
+                piv = 4;
+            }
+            r = Math.abs(a51) / s5;
+            if (r > big) {
+                big = r;
+                piv = 5;
+            }
+            if (piv == 2) {
+                double t = a11; a11 = a21; a21 = t;
+                t = a12; a12 = a22; a22 = t;
+                t = a13; a13 = a23; a23 = t;
+                t = a14; a14 = a24; a24 = t;
+                t = a15; a15 = a25; a25 = t;
+                t = b1; b1 = b2; b2 = t;
+                t = s1; s1 = s2; s2 = t;
+            } else if (piv == 3) {
+                double t = a11; a11 = a31; a31 = t;
+                t = a12; a12 = a32; a32 = t;
+                t = a13; a13 = a33; a33 = t;
+                t = a14; a14 = a34; a34 = t;
+                t = a15; a15 = a35; a35 = t;
+                t = b1; b1 = b3; b3 = t;
+                t = s1; s1 = s3; s3 = t;
+            } else if (piv == 4) {
+                double t = a11; a11 = a41; a41 = t;
+                t = a12; a12 = a42; a42 = t;
+                t = a13; a13 = a43; a43 = t;
+                t = a14; a14 = a44; a44 = t;
+                t = a15; a15 = a45; a45 = t;
+                t = b1; b1 = b4; b4 = t;
+                t = s1; s1 = s4; s4 = t;
+            } else if (piv == 5) {
+                double t = a11; a11 = a51; a51 = t;
+                t = a12; a12 = a52; a52 = t;
+                t = a13; a13 = a53; a53 = t;
+                t = a14; a14 = a54; a54 = t;
+                t = a15; a15 = a55; a55 = t;
+                t = b1; b1 = b5; b5 = t;
+                t = s1; s1 = s5; s5 = t;
+            }
+            if (!(big >= tol)) {
+                fail(6, c, x, er, p);
+                continue;
+            }
+            l = a21 / a11;
+            a22 -= l * a12;
+            a23 -= l * a13;
+            a24 -= l * a14;
+            a25 -= l * a15;
+            b2 -= l * b1;
+            l = a31 / a11;
+            a32 -= l * a12;
+            a33 -= l * a13;
+            a34 -= l * a14;
+            a35 -= l * a15;
+            b3 -= l * b1;
+            l = a41 / a11;
+            a42 -= l * a12;
+            a43 -= l * a13;
+            a44 -= l * a14;
+            a45 -= l * a15;
+            b4 -= l * b1;
+            l = a51 / a11;
+            a52 -= l * a12;
+            a53 -= l * a13;
+            a54 -= l * a14;
+            a55 -= l * a15;
+            b5 -= l * b1;
+
+            // Pivote de la columna 2
+            piv = 2;
+            big = Math.abs(a22) / s2;
+            r = Math.abs(a32) / s3;
+            if (r > big) {
+                big = r;
+                piv = 3;
+            }
+            r = Math.abs(a42) / s4;
+            if (r > big) {
+                big = r;
+                piv = 4;
+            }
+            r = Math.abs(a52) / s5;
+            if (r > big) {
+                big = r;
+                piv = 5;
+            }
+            if (piv == 3) {
+                double t = a22; a22 = a32; a32 = t;
+                t = a23; a23 = a33; a33 = t;
+                t = a24; a24 = a34; a34 = t;
+                t = a25; a25 = a35; a35 = t;
+                t = b2; b2 = b3; b3 = t;
+                t = s2; s2 = s3; s3 = t;
+            } else if (piv == 4) {
+                double t = a22; a22 = a42; a42 = t;
+                t = a23; a23 = a43; a43 = t;
+                t = a24; a24 = a44; a44 = t;
+                t = a25; a25 = a45; a45 = t;
+                t = b2; b2 = b4; b4 = t;
+                t = s2; s2 = s4; s4 = t;
+            } else if (piv == 5) {
+                double t = a22; a22 = a52; a52 = t;
+                t = a23; a23 = a53; a53 = t;
+                t = a24; a24 = a54; a54 = t;
+                t = a25; a25 = a55; a55 = t;
+                t = b2; b2 = b5; b5 = t;
+                t = s2; s2 = s5; s5 = t;
+            }
+            if (!(big >= tol)) {
+                fail(6, c, x, er, p);
+                continue;
+            }
+            l = a32 / a22;
+            a33 -= l * a23;
+            a34 -= l * a24;
+            a35 -= l * a25;
+            b3 -= l * b2;
+            l = a42 / a22;
+            a43 -= l * a23;
+            a44 -= l * a24;
+            a45 -= l * a25;
+            b4 -= l * b2;
+            l = a52 / a22;
+            a53 -= l * a23;
+            a54 -= l * a24;
+            a55 -= l * a25;
+            b5 -= l * b2;
+
+            // Pivote de la columna 3
+            piv = 3;
+            big = Math.abs(a33) / s3;
+            r = Math.abs(a43) / s4;
+            if (r > big) {
+                big = r;
+                piv = 4;
+            }
+            r = Math.abs(a53) / s5;
+            if (r > big) {
+                big = r;
+                piv = 5;
+            }
+            if (piv == 4) {
+                double t = a33; a33 = a43; a43 = t;
+                t = a34; a34 = a44; a44 = t;
+                t = a35; a35 = a45; a45 = t;
+                t = b3; b3 = b4; b4 = t;
+                t = s3; s3 = s4; s4 = t;
+            } else if (piv == 5) {
+                double t = a33; a33 = a53; a53 = t;
+                t = a34; a34 = a54; a54 = t;
+                t = a35; a35 = a55; a55 = t;
+                t = b3; b3 = b5; b5 = t;
+                t = s3; s3 = s5; s5 = t;
+            }
+            if (!(big >= tol)) {
+                fail(6, c, x, er, p);
+                continue;
+            }
+            l = a43 / a33;
+            a44 -= l * a34;
+            a45 -= l * a35;
+            b4 -= l * b3;
+            l = a53 / a33;
+            a54 -= l * a34;
+            a55 -= l * a35;
+            b5 -= l * b3;
+
+            // Pivote de la columna 4
+            if (Math.abs(a54) / s5 > Math.abs(a44) / s4) {
+                double t = a44; a44 = a54; a54 = t;
+                t = a45; a45 = a55; a55 = t;
+                t = b4; b4 = b5; b5 = t;
+                t = s4; s4 = s5; s5 = t;
+            }
+            if (!(Math.abs(a44) / s4 >= tol)) {
+                fail(6, c, x, er, p);
+                continue;
+            }
+            l = a54 / a44;
+            a55 -= l * a45;
+            b5 -= l * b4;
+            if (!(Math.abs(a55) / s5 >= tol)) {
+                fail(6, c, x, er, p);
+                continue;
+            }
+
+            er[p] = 0;
+            double x5 = b5 / a55;
+            double x4 = (b4 - a45 * x5) / a44;
+            double x3 = (b3 - a34 * x4 - a35 * x5) / a33;
+            double x2 = (b2 - a23 * x3 - a24 * x4 - a25 * x5) / a22;
+            double x1 = (b1 - a12 * x2 - a13 * x3 - a14 * x4 - a15 * x5) / a11;
+            x[5 * c + p] = x5;
+            x[4 * c + p] = x4;
+            x[3 * c + p] = x3;
+            x[2 * c + p] = x2;
+            x[c + p] = x1;
+            x[p] = (b0 - a01 * x1 - a02 * x2 - a03 * x3 - a04 * x4 - a05 * x5) / a00;
+        }
+    }
+
+    // ----------------------------------------------------------
+    // SUB solveColumns(n, count, a, b, x, er, tol, p0, p1)
+    //
+    // Para n >= 7. En cada paso k se busca el pivote fila por fila para
+    // todos los sistemas del bloque, se intercambian las filas de los que
+    // lo necesitan (el único paso sistema por sistema) y la eliminación de
+    // las filas k+1..n-1 recorre p en el bucle interno. El vector de escala
+    // de cada sistema se guarda en x mientras tanto; big y piv (razón y
+    // pivote de cada sistema, al menos p1 - p0 elementos) los pasa
+    // solveBlocks, que los reusa en todos sus bloques.
+    // ----------------------------------------------------------
+    static void solveColumns(int n, int c, double[] a, double[] b, double[] x, int[] er, double tol,
+                             int p0, int p1, double[] big, int[] piv) {
+
+        // 1. Vector de escala: s_p(i) = max |A_p(i,j)|, en x
+        for (int i = 0; i < n; i++) {
+            int si = i * c;
+            for (int p = p0; p < p1; p++) {
+                x[si + p] = 0.0;
+            }
+            for (int j = 0; j < n; j++) {
+                int ij = (i * n + j) * c;
+                for (int p = p0; p < p1; p++) {
+                    x[si + p] = Math.max(x[si + p], Math.abs(a[ij + p]));
+                }
+            }
+        }
+        for (int p = p0; p < p1; p++) {
+            er[p] = 0;
+        }
+
+        // 2. Eliminación
+        for (int k = 0; k < n; k++) {
+            int kk = (k * n + k) * c;
+
+            // 2.1 Pivote de cada sistema: búsqueda fila por fila (sobre p) y
+            //     después los intercambios de los sistemas que lo necesitan
+            int sk = k * c;
+            for (int p = p0; p < p1; p++) {
+                big[p - p0] = Math.abs(a[kk + p]) / x[sk + p];
+                piv[p - p0] = k;
+            }
+            for (int i = k + 1; i < n; i++) {
+                int ik = (i * n + k) * c;
+                int si = i * c;
+                for (int p = p0; p < p1; p++) {
+                    double dummy = Math.abs(a[ik + p]) / x[si + p];
+                    if (dummy > big[p - p0]) {
+                        big[p - p0] = dummy;
+                        piv[p - p0] = i;
+                    }
+                }
+            }
+            for (int p = p0; p < p1; p++) {
+                if (piv[p - p0] != k) {
+                    swapRows(n, c, a, b, x, k, piv[p - p0], p);
+                }
+                if (!(big[p - p0] >= tol)) {
+                    er[p] = -1; // se sigue calculando, pero x_p se descarta al final
+                }
+            }
+            if (k == n - 1) {
+                break;
+            }
+
+            // 2.2 Filas i = k+1..n-1 (todos los sistemas a la vez)
+            int bk = k * c;
+            for (int i = k + 1; i < n; i++) {
+                int ik = (i * n + k) * c;
+                int bi = i * c;
+                for (int p = p0; p < p1; p++) {
+                    double factor = a[ik + p] / a[kk + p]; // L(i,k)
+                    a[ik + p] = factor;
+                    b[bi + p] -= factor * b[bk + p];
+                }
+                for (int j = k + 1; j < n; j++) {
+                    int ij = (i * n + j) * c;
+                    int kj = (k * n + j) * c;
+                    VectorOps.multiplySubtract(a, ij + p0, a, ik + p0, a, kj + p0, p1 - p0);
+                }
+            }
+        }
+
+        // 3. Sustitución hacia atrás (el vector de escala ya no hace falta)
+        for (int i = n - 1; i >= 0; i--) {
+            int xi = i * c;
+            System.arraycopy(b, xi + p0, x, xi + p0, p1 - p0);
+            for (int j = i + 1; j < n; j++) {
+                int ij = (i * n + j) * c;
+                int xj = j * c;
+                VectorOps.multiplySubtract(x, xi + p0, a, ij + p0, x, xj + p0, p1 - p0);
+            }
+            int ii = (i * n + i) * c;
+            for (int p = p0; p < p1; p++) {
+                x[xi + p] /= a[ii + p];
+            }
+        }
+
+        for (int p = p0; p < p1; p++) {
+            if (er[p] == -1) {
+                fail(n, c, x, er, p);
+            }
+        }
+    }
+
+    // Intercambia las filas k y piv del sistema p (A, b y el vector de escala s, guardado en x)
+    private static void swapRows(int n, int c, double[] a, double[] b, double[] s, int k, int piv, int p) {
+        for (int j = 0; j < n; j++) {
+            int kj = (k * n + j) * c + p;
+            int pj = (piv * n + j) * c + p;
+            double temp = a[kj];
+            a[kj] = a[pj];
+            a[pj] = temp;
+        }
+        double temp = b[k * c + p];
+        b[k * c + p] = b[piv * c + p];
+        b[piv * c + p] = temp;
+        temp = s[k * c + p];
+        s[k * c + p] = s[piv * c + p];
+        s[piv * c + p] = temp;
+    }
+
+    // Marca el sistema p como mal condicionado
+    private static void fail(int n, int c, double[] x, int[] er, int p) {
+        er[p] = -1;
+        for (int i = 0; i < n; i++) {
+            x[i * c + p] = Double.NaN;
+        }
+    }
+}
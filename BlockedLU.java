@@ -0,0 +1,416 @@
+public class BlockedLU {
+
+    // Tamaño de bloque por defecto (columnas por panel y ancho de los tiles)
+    public static final int DEFAULT_BLOCK = 64;
+
+    // ----------------------------------------------------------
+    // SUB Decompose(a, n, tol, s, o, er, nb)
+    //
+    // Factorización LU por bloques sobre una matriz almacenada en un
+    // arreglo contiguo por filas: a(i,j) = a[i * n + j].
+    //
+    // Para cada panel de nb columnas:
+    //   1) Se factoriza el panel (columnas kb..kend-1) con el mismo
+    //      pivoteo parcial escalado que LUProgram.Pivot.
+    //   2) Se resuelve L11 * U12 = A12 (filas del panel, columnas a la derecha).
+    //   3) Se actualiza la submatriz restante A22 = A22 - L21 * U12,
+    //      recorrida por tiles para que U12 se quede en caché.
+    //
+    // Cada elemento recibe las mismas restas, en el mismo orden de k, que en
+    // LUProgram.Decompose, así que el resultado L\U es idéntico bit a bit.
+    //
+    //  - s: vector de escala (se permuta junto con las filas)
+    //  - o: vector de orden; o[i] = fila original que terminó en la posición i
+    //  - er: código de error (0 = OK, -1 = sistema mal condicionado)
+    // ----------------------------------------------------------
+    public static void Decompose(double[] a, int n, double tol, double[] s, int[] o, int[] er, int nb) {
+        Decompose(a, n, tol, s, o, er, nb, SolverListener.CONSOLE);
+    }
+
+    // Igual, enviando los eventos de pivoteo a 'listener'
+    public static void Decompose(double[] a, int n, double tol, double[] s, int[] o, int[] er, int nb,
+                                 SolverListener listener) {
+        er[0] = 0;
+
+        // 1. Vector de escala y vector de orden inicial
+        for (int i = 0; i < n; i++) {
+            double big = 0.0;
+            int row = i * n;
+            for (int j = 0; j < n; j++) {
+                double abs = Math.abs(a[row + j]);
+                if (abs > big) {
+                    big = abs;
+                }
+            }
+            s[i] = big;
+            o[i] = i;
+        }
+
+        // 2. Recorremos la matriz panel por panel
+        for (int kb = 0; kb < n; kb += nb) {
+            int kend = Math.min(kb + nb, n);
+
+            // 2.1 Factorización del panel (solo se actualizan sus columnas)
+            for (int k = kb; k < kend; k++) {
+                if (k == n - 1) {
+                    break; // el último pivote se revisa al final, como en Decompose
+                }
+
+                int original = o[k];
+                Pivot(a, s, o, n, k);
+                if (o[k] != original) {
+                    listener.pivotSwap(k, indexOf(o, original, k + 1, n));
+                }
+
+                if (Math.abs(a[k * n + k] / s[k]) < tol) {
+                    listener.smallPivot(k, Math.abs(a[k * n + k] / s[k]));
+                    er[0] = -1;
+                    return;
+                }
+
+                int rowK = k * n;
+                double pivot = a[rowK + k];
+                for (int i = k + 1; i < n; i++) {
+                    int rowI = i * n;
+                    double factor = a[rowI + k] / pivot; // L(i,k)
+                    a[rowI + k] = factor;
+                    VectorOps.eliminate(a, rowI + k + 1, factor, a, rowK + k + 1, kend - k - 1);
+                }
+            }
+
+            if (kend == n) {
+                break;
+            }
+
+            // 2.2 Bloque U12: sustitución hacia adelante con L11 (diagonal unitaria)
+            for (int k = kb; k < kend; k++) {
+                int rowK = k * n;
+                for (int i = k + 1; i < kend; i++) {
+                    int rowI = i * n;
+                    VectorOps.eliminate(a, rowI + kend, a[rowI + k], a, rowK + kend, n - kend);
+                }
+            }
+
+            // 2.3 Actualización del resto: A22 = A22 - L21 * U12 (tipo multiplicación de matrices)
+            updateTrailing(a, n, kb, kend, kend, n, nb);
+        }
+
+        // Revisión final del último pivote
+        if (Math.abs(a[(n - 1) * n + (n - 1)] / s[n - 1]) < tol) {
+            er[0] = -1;
+        }
+    }
+
+    // Posición (entre from y to-1) del valor 'value' en o
+    private static int indexOf(int[] o, int value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (o[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // ----------------------------------------------------------
+    // SUB updateTrailing(a, n, kb, kend, i0, i1, nb)
+    //
+    // A22(i0..i1-1, kend..n-1) -= L21(i0..i1-1, kb..kend-1) * U12(kb..kend-1, kend..n-1)
+    //
+    // Se recorre por tiles de columnas para que el tile de U12 (nb x nb)
+    // se reutilice desde caché para todas las filas. Por cada elemento, las
+    // restas se aplican en orden creciente de k.
+    // ----------------------------------------------------------
+    static void updateTrailing(double[] a, int n, int kb, int kend, int i0, int i1, int nb) {
+        for (int jb = kend; jb < n; jb += nb) {
+            int jend = Math.min(jb + nb, n);
+            for (int i = i0; i < i1; i++) {
+                int rowI = i * n;
+                for (int k = kb; k < kend; k++) {
+                    VectorOps.eliminate(a, rowI + jb, a[rowI + k], a, k * n + jb, jend - jb);
+                }
+            }
+        }
+    }
+
+    // ----------------------------------------------------------
+    // SUB Pivot(a, s, o, n, k)
+    //
+    // Igual que LUProgram.Pivot (criterio |a(i,k)/s(i)| máximo), pero como
+    // las filas son contiguas hay que copiar la fila completa al intercambiar.
+    // También se intercambia el vector de orden o.
+    // ----------------------------------------------------------
+    public static void Pivot(double[] a, double[] s, int[] o, int n, int k) {
+        int p = k;
+        double big = Math.abs(a[k * n + k] / s[k]);
+
+        for (int i = k + 1; i < n; i++) {
+            double dummy = Math.abs(a[i * n + k] / s[i]);
+            if (dummy > big) {
+                big = dummy;
+                p = i;
+            }
+        }
+
+        if (p != k) {
+            int rowK = k * n;
+            int rowP = p * n;
+            for (int j = 0; j < n; j++) {
+                double temp = a[rowK + j];
+                a[rowK + j] = a[rowP + j];
+                a[rowP + j] = temp;
+            }
+
+            double tempS = s[k];
+            s[k] = s[p];
+            s[p] = tempS;
+
+            int tempO = o[k];
+            o[k] = o[p];
+            o[p] = tempO;
+        }
+    }
+
+    // ----------------------------------------------------------
+    // SUB Substitute(a, o, n, b, x)
+    //
+    // Sustitución hacia adelante y atrás sobre la L\U contigua.
+    // Aquí sí se usa el vector de orden 'o' del pseudocódigo: y se arma
+    // con b[o[i]], así que b se pasa en el orden original y no se modifica.
+    // ----------------------------------------------------------
+    public static void Substitute(double[] a, int[] o, int n, double[] b, double[] x) {
+
+        // 1) L * y = P b  (y se guarda en x)
+        for (int i = 0; i < n; i++) {
+            x[i] = VectorOps.dotSubtract(b[o[i]], a, i * n, x, 0, i);
+        }
+
+        // 2) U * x = y
+        for (int i = n - 1; i >= 0; i--) {
+            int row = i * n;
+            double sum = VectorOps.dotSubtract(x[i], a, row + i + 1, x, i + 1, n - i - 1);
+            x[i] = sum / a[row + i];
+        }
+    }
+
+    // ----------------------------------------------------------
+    // SUB Invert(a, n, o, nb)
+    //
+    // Convierte la L\U de Decompose en A^{-1} sobre el mismo arreglo,
+    // sin una segunda matriz n x n. Como P A = L U:
+    //
+    //   A^{-1} = U^{-1} L^{-1} P
+    //
+    //  1) U^{-1} en su lugar, fila por fila desde abajo:
+    //       X(i,i) = 1 / U(i,i)
+    //       X(i,j) = -X(i,i) * suma(k = i+1..j) U(i,k) * X(k,j)
+    //  2) Y = U^{-1} L^{-1}, resolviendo Y L = U^{-1} por paneles de nb
+    //     columnas (de derecha a izquierda). Las columnas de L del panel se
+    //     copian a un buffer n x nb y se ponen en cero; después cada fila de
+    //     Y se actualiza con restas de filas contiguas.
+    //  3) A^{-1} = Y P: la columna i de Y va a la columna o[i].
+    //
+    // Memoria extra: un buffer de n * nb doubles y una fila.
+    // ----------------------------------------------------------
+    public static void Invert(double[] a, int n, int[] o, int nb) {
+        double[] work = new double[n];
+
+        // 1) U^{-1}
+        for (int i = n - 1; i >= 0; i--) {
+            int row = i * n;
+            double inv = 1.0 / a[row + i];
+            for (int j = i + 1; j < n; j++) {
+                work[j] = 0.0;
+            }
+            for (int k = i + 1; k < n; k++) {
+                VectorOps.eliminate(work, k, a[row + k], a, k * n + k, n - k);
+            }
+            for (int j = i + 1; j < n; j++) {
+                a[row + j] = work[j] * inv;
+            }
+            a[row + i] = inv;
+        }
+
+        // 2) Y L = U^{-1}
+        double[] panel = new double[n * nb]; // panel[i * nb + (j - jb)] = L(i, j)
+        int lastBlock = ((n - 1) / nb) * nb;
+        for (int jb = lastBlock; jb >= 0; jb -= nb) {
+            int jend = Math.min(jb + nb, n);
+
+            for (int i = jb + 1; i < n; i++) {
+                int row = i * n;
+                int end = Math.min(i, jend);
+                for (int j = jb; j < end; j++) {
+                    panel[i * nb + (j - jb)] = a[row + j];
+                    a[row + j] = 0.0;
+                }
+            }
+
+            // Y(r, jb..jend-1) -= Y(r, i) * L(i, jb..), con i de n-1 hacia jb+1
+            for (int r = 0; r < n; r++) {
+                int row = r * n;
+                for (int i = n - 1; i > jb; i--) {
+                    VectorOps.eliminate(a, row + jb, a[row + i], panel, i * nb, Math.min(i, jend) - jb);
+                }
+            }
+        }
+
+        // 3) Permutación de columnas
+        for (int r = 0; r < n; r++) {
+            int row = r * n;
+            System.arraycopy(a, row, work, 0, n);
+            for (int i = 0; i < n; i++) {
+                a[row + o[i]] = work[i];
+            }
+        }
+    }
+
+    // ----------------------------------------------------------
+    // Versiones en float (las usa MixedPrecisionLU)
+    //
+    // Java no permite un solo cuerpo genérico para double[] y float[]
+    // sin perder los kernels de VectorOps, así que se repiten aquí, al
+    // lado de las versiones double, con el mismo pivoteo parcial escalado
+    // y el mismo recorrido por paneles y tiles. Un cambio en una versión
+    // tiene que hacerse también en la otra.
+    // ----------------------------------------------------------
+    static void Decompose(float[] a, int n, double tol, float[] s, int[] o, int[] er, int nb) {
+        er[0] = 0;
+
+        for (int i = 0; i < n; i++) {
+            float big = 0.0f;
+            int row = i * n;
+            for (int j = 0; j < n; j++) {
+                big = Math.max(big, Math.abs(a[row + j]));
+            }
+            s[i] = big;
+            o[i] = i;
+        }
+
+        for (int kb = 0; kb < n; kb += nb) {
+            int kend = Math.min(kb + nb, n);
+
+            // Panel
+            for (int k = kb; k < kend; k++) {
+                if (k == n - 1) {
+                    break;
+                }
+
+                Pivot(a, s, o, n, k);
+
+                if (Math.abs(a[k * n + k] / s[k]) < tol) {
+                    er[0] = -1;
+                    return;
+                }
+
+                int rowK = k * n;
+                float pivot = a[rowK + k];
+                for (int i = k + 1; i < n; i++) {
+                    int rowI = i * n;
+                    float factor = a[rowI + k] / pivot;
+                    a[rowI + k] = factor;
+                    VectorOps.eliminate(a, rowI + k + 1, factor, a, rowK + k + 1, kend - k - 1);
+                }
+            }
+
+            if (kend == n) {
+                break;
+            }
+
+            // U12
+            for (int k = kb; k < kend; k++) {
+                int rowK = k * n;
+                for (int i = k + 1; i < kend; i++) {
+                    int rowI = i * n;
+                    VectorOps.eliminate(a, rowI + kend, a[rowI + k], a, rowK + kend, n - kend);
+                }
+            }
+
+            // A22 = A22 - L21 * U12
+            updateTrailing(a, n, kb, kend, kend, n, nb);
+        }
+
+        if (Math.abs(a[(n - 1) * n + (n - 1)] / s[n - 1]) < tol) {
+            er[0] = -1;
+        }
+    }
+
+    // ----------------------------------------------------------
+    // SUB Pivot(a, s, o, n, k)  (float)
+    // ----------------------------------------------------------
+    static void Pivot(float[] a, float[] s, int[] o, int n, int k) {
+        int p = k;
+        float big = Math.abs(a[k * n + k] / s[k]);
+
+        for (int i = k + 1; i < n; i++) {
+            float dummy = Math.abs(a[i * n + k] / s[i]);
+            if (dummy > big) {
+                big = dummy;
+                p = i;
+            }
+        }
+
+        if (p != k) {
+            int rowK = k * n;
+            int rowP = p * n;
+            for (int j = 0; j < n; j++) {
+                float temp = a[rowK + j];
+                a[rowK + j] = a[rowP + j];
+                a[rowP + j] = temp;
+            }
+
+            float tempS = s[k];
+            s[k] = s[p];
+            s[p] = tempS;
+
+            int tempO = o[k];
+            o[k] = o[p];
+            o[p] = tempO;
+        }
+    }
+
+    // ----------------------------------------------------------
+    // SUB Substitute(a, o, n, b, x)  (float)
+    // ----------------------------------------------------------
+    static void Substitute(float[] a, int[] o, int n, float[] b, float[] x) {
+        for (int i = 0; i < n; i++) {
+            x[i] = VectorOps.dotSubtract(b[o[i]], a, i * n, x, 0, i);
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            int row = i * n;
+            float sum = VectorOps.dotSubtract(x[i], a, row + i + 1, x, i + 1, n - i - 1);
+            x[i] = sum / a[row + i];
+        }
+    }
+
+    // ----------------------------------------------------------
+    // SUB updateTrailing(a, n, kb, kend, i0, i1, nb)  (float)
+    // ----------------------------------------------------------
+    static void updateTrailing(float[] a, int n, int kb, int kend, int i0, int i1, int nb) {
+        for (int jb = kend; jb < n; jb += nb) {
+            int jend = Math.min(jb + nb, n);
+            for (int i = i0; i < i1; i++) {
+                int rowI = i * n;
+                for (int k = kb; k < kend; k++) {
+                    VectorOps.eliminate(a, rowI + jb, a[rowI + k], a, k * n + jb, jend - jb);
+                }
+            }
+        }
+    }
+
+    // ----------------------------------------------------------
+    // Funciones auxiliares para pasar de double[][] a arreglo contiguo y viceversa
+    // ----------------------------------------------------------
+    public static double[] toRowMajor(double[][] a, int n) {
+        double[] flat = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(a[i], 0, flat, i * n, n);
+        }
+        return flat;
+    }
+
+    public static void copyToRows(double[] flat, int n, double[][] a) {
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(flat, i * n, a[i], 0, n);
+        }
+    }
+}
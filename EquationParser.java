@@ -0,0 +1,539 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Parser de ecuaciones lineales en una sola pasada.
+ *
+ * Recorre la ecuación carácter por carácter (sin replace/split), busca los
+ * nombres de variables en una tabla hash y suma cada coeficiente
+ * directamente en un acumulador de la fila. Así cuesta O(largo de la
+ * ecuación) en lugar de O(términos x n), y "x" ya no coincide dentro de "x10"
+ * porque los nombres se leen completos.
+ *
+ * Gramática aceptada (los espacios se ignoran):
+ *   ecuación := lado '=' lado
+ *   lado     := término (('+' | '-') término)*
+ *   término  := signos* [número] ['*'] [variable]
+ * Entre dos términos tiene que haber un '+' o un '-': "4x y" y "2 3" son
+ * errores (se informa la columna y, al leer un archivo, la línea), pero
+ * "7 z" es un solo término (7 * z).
+ *
+ * Una instancia no es segura para varios hilos (usa un acumulador propio);
+ * {@link #parseFile} crea una copia por hilo cuando parsea en paralelo.
+ */
+public class EquationParser {
+
+    // Líneas por bloque al parsear un archivo en paralelo
+    static final int CHUNK_LINES = 4096;
+
+    // Potencias de 10 exactas en double (camino rápido de parseNumber)
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final String[] variables;
+    private final int[] table;  // tabla hash abierta: índice de variable + 1 (0 = vacío)
+    private final int mask;
+
+    // Acumulador de la fila actual: solo se limpian las posiciones tocadas
+    private final double[] acc;
+    private final int[] touched;
+    private final int[] mark;  // mark[var] == stamp -> var ya está en touched
+    private int touchedCount;
+    private int stamp;
+
+    private int pos;          // posición actual dentro de la ecuación
+    private double constant;  // término independiente (ya pasado al lado derecho)
+
+    /**
+     * @param variables Nombres de las variables, en el orden de las columnas
+     */
+    public EquationParser(String[] variables) {
+        this.variables = variables;
+        int capacity = Integer.highestOneBit(Math.max(4, variables.length * 2 - 1)) << 1;
+        this.table = new int[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < variables.length; i++) {
+            String name = variables[i];
+            if (lookup(name, 0, name.length()) >= 0) {
+                throw new IllegalArgumentException("Variable repetida: " + name);
+            }
+            int h = hash(name, 0, name.length()) & mask;
+            while (table[h] != 0) {
+                h = (h + 1) & mask;
+            }
+            table[h] = i + 1;
+        }
+        this.acc = new double[variables.length];
+        this.touched = new int[variables.length];
+        this.mark = new int[variables.length];
+    }
+
+    // Copia que comparte la tabla de variables pero con su propio acumulador
+    private EquationParser(EquationParser base) {
+        this.variables = base.variables;
+        this.table = base.table;
+        this.mask = base.mask;
+        this.acc = new double[variables.length];
+        this.touched = new int[variables.length];
+        this.mark = new int[variables.length];
+    }
+
+    /**
+     * Parsea una ecuación y agrega su fila a A (en orden de columnas) y su
+     * término independiente a b[row].
+     *
+     * La ecuación LHS = RHS se reescribe como
+     *   (lhsCoeffs - rhsCoeffs) * x = rhsConst - lhsConst
+     */
+    public void parseEquationToRow(CharSequence equation, SparseMatrix A, double[] b, int row) {
+        b[row] = parse(equation);
+        for (int k = 0; k < touchedCount; k++) {
+            int col = touched[k];
+            A.add(col, acc[col]);
+            acc[col] = 0.0;
+        }
+        touchedCount = 0;
+        A.endRow();
+    }
+
+    /**
+     * Parsea la ecuación dejando los coeficientes en el acumulador
+     * (touched[0..touchedCount-1], ordenado) y devuelve el término independiente.
+     */
+    private double parse(CharSequence s) {
+        if (s == null) {
+            throw new IllegalArgumentException("La ecuación no puede ser nula.");
+        }
+
+        int len = s.length();
+        double side = 1.0; // +1 lado izquierdo, -1 lado derecho
+        boolean equalsSeen = false;
+        boolean first = true; // primer término del lado (no necesita signo)
+        pos = 0;
+        constant = 0.0;
+        stamp++;
+        // Restos de una ecuación anterior que terminó con error
+        for (int k = 0; k < touchedCount; k++) {
+            acc[touched[k]] = 0.0;
+        }
+        touchedCount = 0;
+
+        while (true) {
+            skipSpaces(s, len);
+            if (pos >= len) {
+                break;
+            }
+            if (s.charAt(pos) == '=') {
+                if (equalsSeen) {
+                    throw invalid(s, "La ecuación debe tener un único signo '='.");
+                }
+                equalsSeen = true;
+                side = -1.0;
+                first = true;
+                pos++;
+                continue;
+            }
+            parseTerm(s, len, side, first);
+            first = false;
+        }
+
+        if (!equalsSeen) {
+            throw invalid(s, "La ecuación debe tener un único signo '='.");
+        }
+
+        Arrays.sort(touched, 0, touchedCount);
+        return constant;
+    }
+
+    private void parseTerm(CharSequence s, int len, double side, boolean first) {
+        // Signos (se permiten varios, ej. "- -3")
+        double sign = 1.0;
+        boolean signed = false;
+        while (pos < len) {
+            char c = s.charAt(pos);
+            if (c == '-') {
+                sign = -sign;
+                signed = true;
+            } else if (c == '+') {
+                signed = true;
+            } else if (!Character.isWhitespace(c)) {
+                break;
+            }
+            pos++;
+        }
+        if (!first && !signed) {
+            throw invalid(s, "Falta '+' o '-' antes del término en la columna " + (pos + 1) + ".");
+        }
+
+        boolean hasNumber = false;
+        double value = 1.0;
+        if (pos < len && isNumberStart(s.charAt(pos))) {
+            value = parseNumber(s, len);
+            hasNumber = true;
+        }
+
+        skipSpaces(s, len);
+        boolean star = false;
+        if (pos < len && s.charAt(pos) == '*') {
+            star = true;
+            pos++;
+            skipSpaces(s, len);
+        }
+
+        if (pos < len && isNameStart(s.charAt(pos))) {
+            int start = pos;
+            while (pos < len && isNamePart(s.charAt(pos))) {
+                pos++;
+            }
+            int var = lookup(s, start, pos);
+            if (var < 0) {
+                throw invalid(s, "Variable desconocida: " + s.subSequence(start, pos));
+            }
+            if (mark[var] != stamp) {
+                mark[var] = stamp;
+                touched[touchedCount++] = var;
+            }
+            acc[var] += side * sign * value;
+        } else if (hasNumber && !star) {
+            // Término constante: pasa al lado derecho con el signo cambiado si estaba a la izquierda
+            constant -= side * sign * value;
+        } else {
+            throw invalid(s, "Término inválido en la posición " + (pos + 1) + ".");
+        }
+    }
+
+    /**
+     * Lee un número sin signo. Si tiene a lo sumo 18 dígitos y el exponente
+     * decimal es pequeño, se calcula como mantisa / 10^k (exacto y sin crear
+     * Strings); si no, se usa Double.parseDouble.
+     */
+    private double parseNumber(CharSequence s, int len) {
+        int start = pos;
+        long mantissa = 0;
+        int digits = 0;
+        int exp10 = 0;
+        boolean dot = false;
+
+        while (pos < len) {
+            char c = s.charAt(pos);
+            if (c >= '0' && c <= '9') {
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                    if (dot) {
+                        exp10--;
+                    }
+                } else if (!dot) {
+                    exp10++;
+                }
+                pos++;
+            } else if (c == '.' && !dot) {
+                dot = true;
+                pos++;
+            } else {
+                break;
+            }
+        }
+
+        // Exponente (ej. 1e-3), salvo que la 'e' sea el comienzo de un nombre de variable
+        if (pos < len && (s.charAt(pos) == 'e' || s.charAt(pos) == 'E') && isExponent(s, len)) {
+            int p = pos + 1;
+            int expSign = 1;
+            if (s.charAt(p) == '+' || s.charAt(p) == '-') {
+                expSign = s.charAt(p) == '-' ? -1 : 1;
+                p++;
+            }
+            int e = 0;
+            while (p < len && s.charAt(p) >= '0' && s.charAt(p) <= '9') {
+                e = Math.min(e * 10 + (s.charAt(p) - '0'), 100000);
+                p++;
+            }
+            exp10 += expSign * e;
+            pos = p;
+        }
+
+        if (pos == start + 1 && s.charAt(start) == '.') {
+            throw invalid(s, "Número inválido en la posición " + (start + 1) + ".");
+        }
+
+        if (mantissa < (1L << 53) && exp10 >= -22 && exp10 <= 22) {
+            return exp10 < 0 ? mantissa / POW10[-exp10] : mantissa * POW10[exp10];
+        }
+        return Double.parseDouble(s.subSequence(start, pos).toString());
+    }
+
+    private boolean isExponent(CharSequence s, int len) {
+        int p = pos + 1;
+        if (p < len && (s.charAt(p) == '+' || s.charAt(p) == '-')) {
+            p++;
+        }
+        if (p >= len || s.charAt(p) < '0' || s.charAt(p) > '9') {
+            return false;
+        }
+        // "2e1" con una variable llamada "e1" es 2 * e1, no 20
+        int end = pos;
+        while (end < len && isNamePart(s.charAt(end))) {
+            end++;
+        }
+        return lookup(s, pos, end) < 0;
+    }
+
+    private void skipSpaces(CharSequence s, int len) {
+        while (pos < len && Character.isWhitespace(s.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private int lookup(CharSequence s, int from, int to) {
+        int h = hash(s, from, to) & mask;
+        while (table[h] != 0) {
+            int var = table[h] - 1;
+            String name = variables[var];
+            if (name.length() == to - from && regionEquals(name, s, from)) {
+                return var;
+            }
+            h = (h + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static boolean regionEquals(String name, CharSequence s, int from) {
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != s.charAt(from + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(CharSequence s, int from, int to) {
+        int h = 0;
+        for (int i = from; i < to; i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean isNumberStart(char c) {
+        return (c >= '0' && c <= '9') || c == '.';
+    }
+
+    private static boolean isNameStart(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+
+    private static boolean isNamePart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static IllegalArgumentException invalid(CharSequence equation, String message) {
+        return new IllegalArgumentException(message + " Ecuación: " + equation);
+    }
+
+    // Error de una ecuación leída de un archivo: se agrega el número de línea
+    private static IllegalArgumentException atLine(int line, IllegalArgumentException e) {
+        return new IllegalArgumentException("Línea " + line + ": " + e.getMessage(), e);
+    }
+
+    // ==========================
+    // Lectura de archivos
+    // ==========================
+
+    /**
+     * Lee un sistema desde un archivo de texto como flujo, sin cargarlo entero.
+     *
+     * Formato: la primera línea útil tiene los nombres de las variables
+     * separados por espacios; cada línea siguiente es una ecuación. Las
+     * líneas vacías y las que empiezan con '#' se ignoran. Debe haber tantas
+     * ecuaciones como variables.
+     *
+     * Con parallelism > 1 las líneas se agrupan en bloques de CHUNK_LINES que
+     * se parsean en un ForkJoinPool; las filas se agregan a la matriz en el
+     * orden del archivo.
+     *
+     * @param file        Archivo de ecuaciones
+     * @param parallelism Número de hilos para parsear (1 = secuencial)
+     * @return El sistema leído
+     */
+    public static ParsedSystem parseFile(Path file, int parallelism) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            int[] lineNo = new int[1]; // línea de la última ecuación leída (desde 1)
+            String header = nextEquation(reader, lineNo);
+            if (header == null) {
+                throw new IllegalArgumentException("El archivo no tiene la línea de variables: " + file);
+            }
+            String[] variables = header.trim().split("\\s+");
+            int n = variables.length;
+
+            EquationParser parser = new EquationParser(variables);
+            SparseMatrix A = new SparseMatrix(n, 8 * n);
+            double[] b = new double[n];
+            int row = 0;
+
+            if (parallelism <= 1) {
+                String line;
+                while ((line = nextEquation(reader, lineNo)) != null) {
+                    checkRow(row, n);
+                    try {
+                        parser.parseEquationToRow(line, A, b, row++);
+                    } catch (IllegalArgumentException e) {
+                        throw atLine(lineNo[0], e);
+                    }
+                }
+            } else {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                ThreadLocal<EquationParser> parsers = ThreadLocal.withInitial(() -> new EquationParser(parser));
+                ArrayDeque<ForkJoinTask<Chunk>> pending = new ArrayDeque<>();
+                try {
+                    List<String> lines = new ArrayList<>(CHUNK_LINES);
+                    int[] numbers = new int[CHUNK_LINES];
+                    String line;
+                    while ((line = nextEquation(reader, lineNo)) != null) {
+                        numbers[lines.size()] = lineNo[0];
+                        lines.add(line);
+                        if (lines.size() == CHUNK_LINES) {
+                            List<String> chunk = lines;
+                            int[] chunkLines = numbers;
+                            pending.add(pool.submit(() -> parsers.get().parseChunk(chunk, chunkLines)));
+                            lines = new ArrayList<>(CHUNK_LINES);
+                            numbers = new int[CHUNK_LINES];
+                        }
+                        // Limitamos los bloques en vuelo para no leer el archivo entero a memoria
+                        while (pending.size() > 2 * parallelism) {
+                            row = pending.poll().join().appendTo(A, b, row, n);
+                        }
+                    }
+                    if (!lines.isEmpty()) {
+                        List<String> chunk = lines;
+                        int[] chunkLines = numbers;
+                        pending.add(pool.submit(() -> parsers.get().parseChunk(chunk, chunkLines)));
+                    }
+                    while (!pending.isEmpty()) {
+                        row = pending.poll().join().appendTo(A, b, row, n);
+                    }
+                } finally {
+                    pool.shutdown();
+                }
+            }
+
+            if (row != n) {
+                throw new IllegalArgumentException(
+                        "Se esperaban " + n + " ecuaciones y el archivo tiene " + row + "."
+                );
+            }
+            return new ParsedSystem(variables, A, b);
+        }
+    }
+
+    private static String nextEquation(BufferedReader reader, int[] lineNo) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNo[0]++;
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty() && trimmed.charAt(0) != '#') {
+                return line;
+            }
+        }
+        return null;
+    }
+
+    private static void checkRow(int row, int n) {
+        if (row >= n) {
+            throw new IllegalArgumentException("El archivo tiene más de " + n + " ecuaciones.");
+        }
+    }
+
+    /**
+     * Parsea un bloque de líneas a un mini CSR (columna, valor) por fila.
+     * lineNumbers[r] es la línea del archivo de lines.get(r). Un error no
+     * se lanza acá (join lo envolvería en otra excepción) sino que queda en
+     * el bloque y lo lanza appendTo, en el hilo que arma la matriz.
+     */
+    private Chunk parseChunk(List<String> lines, int[] lineNumbers) {
+        Chunk chunk = new Chunk(lines.size());
+        for (int r = 0; r < lines.size(); r++) {
+            try {
+                chunk.b[r] = parse(lines.get(r));
+            } catch (IllegalArgumentException e) {
+                chunk.error = atLine(lineNumbers[r], e);
+                return chunk;
+            }
+            for (int k = 0; k < touchedCount; k++) {
+                int col = touched[k];
+                chunk.add(col, acc[col]);
+                acc[col] = 0.0;
+            }
+            touchedCount = 0;
+            chunk.rowPtr[r + 1] = chunk.nnz;
+        }
+        return chunk;
+    }
+
+    private static class Chunk {
+        final int[] rowPtr;
+        final double[] b;
+        int[] cols = new int[64];
+        double[] vals = new double[64];
+        int nnz;
+        IllegalArgumentException error;  // primera ecuación inválida del bloque
+
+        Chunk(int rows) {
+            rowPtr = new int[rows + 1];
+            b = new double[rows];
+        }
+
+        void add(int col, double value) {
+            if (nnz == cols.length) {
+                cols = Arrays.copyOf(cols, nnz * 2);
+                vals = Arrays.copyOf(vals, nnz * 2);
+            }
+            cols[nnz] = col;
+            vals[nnz] = value;
+            nnz++;
+        }
+
+        // Agrega las filas del bloque a A a partir de 'row' y devuelve la siguiente fila libre
+        int appendTo(SparseMatrix A, double[] b, int row, int n) {
+            if (error != null) {
+                throw error;
+            }
+            for (int r = 0; r < this.b.length; r++) {
+                checkRow(row, n);
+                for (int p = rowPtr[r]; p < rowPtr[r + 1]; p++) {
+                    A.add(cols[p], vals[p]);
+                }
+                A.endRow();
+                b[row++] = this.b[r];
+            }
+            return row;
+        }
+    }
+
+    /**
+     * Sistema leído de un archivo: nombres de variables, A y b.
+     */
+    public static class ParsedSystem {
+        public final String[] variables;
+        public final SparseMatrix A;
+        public final double[] b;
+
+        ParsedSystem(String[] variables, SparseMatrix A, double[] b) {
+            this.variables = variables;
+            this.A = A;
+            this.b = b;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+import java.util.Arrays;
+
+/**
+ * Sesión de Gauss-Seidel para resolver una secuencia de sistemas parecidos
+ * A x = b_1, A x = b_2, ... (por ejemplo, pasos de tiempo consecutivos).
+ *
+ * La sesión guarda una copia de A (CSR), los arreglos de trabajo y la
+ * última solución. Cada {@link #solve} arranca desde esa solución (arranque
+ * en caliente) en lugar de x0 = 0: si b (o A) cambió poco, el error inicial
+ * es pequeño y hacen falta muchas menos iteraciones.
+ *
+ * Después de construirla, {@link #solve} no crea ningún objeto: el barrido
+ * es el mismo que el de
+ * {@link GaussSeidelWithEquations#gaussSeidel(SparseMatrix, double[], double[], double, int, SolverListener)}
+ * (mismo criterio de parada, mismos resultados para el mismo x inicial),
+ * pero escribe sobre el x de la sesión.
+ *
+ * Los coeficientes de A se pueden cambiar entre solves con
+ * {@link #setCoefficient}, siempre que la posición ya exista en el patrón
+ * de no ceros (o sea la diagonal).
+ *
+ * No es segura para usar desde varios hilos a la vez.
+ */
+public class GaussSeidelSession {
+
+    private final int n;
+    private final double[] diag;
+    private final int[] rowPtr;
+    private final int[] colIdx;
+    private final double[] values;
+    private final double[] x;
+    private final SolverListener listener;
+
+    private int lastIterations;
+    private boolean lastConverged;
+    private long totalIterations;
+    private int solves;
+
+    /**
+     * Crea una sesión con una copia de A; el progreso se imprime por consola.
+     *
+     * @param A Matriz de coeficientes dispersa (n x n)
+     */
+    public GaussSeidelSession(SparseMatrix A) {
+        this(A, SolverListener.CONSOLE);
+    }
+
+    /**
+     * Crea una sesión con una copia de A, enviando el progreso a 'listener'.
+     *
+     * @param A        Matriz de coeficientes dispersa (n x n)
+     * @param listener Destino de los eventos de cada solve
+     */
+    public GaussSeidelSession(SparseMatrix A, SolverListener listener) {
+        this.n = A.n;
+        int nnz = A.rowPtr[n];
+        this.diag = A.diag.clone();
+        this.rowPtr = A.rowPtr.clone();
+        this.colIdx = Arrays.copyOf(A.colIdx, nnz);
+        this.values = Arrays.copyOf(A.values, nnz);
+        this.x = new double[n];
+        this.listener = listener;
+
+        for (int i = 0; i < n; i++) {
+            checkDiagonal(i, diag[i]);
+        }
+    }
+
+    /** Sesión a partir de una matriz densa (se guarda en CSR). */
+    public GaussSeidelSession(double[][] A, SolverListener listener) {
+        this(SparseMatrix.fromDense(A), listener);
+    }
+
+    /**
+     * Resuelve A x = b partiendo de la última solución (o de x0 = 0 en el
+     * primer solve, o de lo que se haya puesto con {@link #setInitialGuess}).
+     *
+     * @param b         Vector de términos independientes (n); no se modifica
+     * @param tolerance Tolerancia para el criterio de parada (max |x_k - x_{k-1}|)
+     * @param maxIter   Máximo número de iteraciones
+     * @return Número de iteraciones realizadas
+     */
+    public int solve(double[] b, double tolerance, int maxIter) {
+        if (b.length != n) {
+            throw new IllegalArgumentException("b tiene " + b.length + " elementos; se esperaban " + n);
+        }
+        long t0 = System.nanoTime();
+        solves++;
+
+        for (int iter = 1; iter <= maxIter; iter++) {
+            long start = System.nanoTime();
+
+            // El error se calcula al vuelo, como en la versión dispersa
+            double maxError = 0.0;
+            for (int i = 0; i < n; i++) {
+                double error = GaussSeidelWithEquations.relaxRow(rowPtr, colIdx, values, diag, b, x, i, 1.0);
+                if (error > maxError) {
+                    maxError = error;
+                }
+            }
+
+            listener.iteration(iter, maxError,
+                    listener.wantsResidual() ? residualNorm(b) : Double.NaN, System.nanoTime() - start);
+
+            if (maxError < tolerance) {
+                return finish(iter, true, t0);
+            }
+        }
+
+        return finish(maxIter, false, t0);
+    }
+
+    private int finish(int iterations, boolean converged, long t0) {
+        lastIterations = iterations;
+        lastConverged = converged;
+        totalIterations += iterations;
+        listener.finished(iterations, converged, System.nanoTime() - t0);
+        return iterations;
+    }
+
+    /**
+     * Cambia el coeficiente A[i][j]. La posición tiene que estar en el
+     * patrón de no ceros de la matriz original (o ser la diagonal); un
+     * coeficiente puede ponerse en cero pero no se pueden agregar nuevos.
+     */
+    public void setCoefficient(int i, int j, double value) {
+        if (i < 0 || i >= n || j < 0 || j >= n) {
+            throw new IllegalArgumentException(
+                    "A[" + i + "][" + j + "] está fuera de la matriz " + n + " x " + n + ".");
+        }
+        if (i == j) {
+            checkDiagonal(i, value);
+            diag[i] = value;
+            return;
+        }
+        for (int p = rowPtr[i]; p < rowPtr[i + 1]; p++) {
+            if (colIdx[p] == j) {
+                values[p] = value;
+                return;
+            }
+        }
+        throw new IllegalArgumentException(
+                "A[" + i + "][" + j + "] no está en el patrón de no ceros de la matriz de la sesión.");
+    }
+
+    /** Reemplaza la aproximación inicial del próximo solve. */
+    public void setInitialGuess(double[] x0) {
+        if (x0.length != n) {
+            throw new IllegalArgumentException("x0 tiene " + x0.length + " elementos; se esperaban " + n);
+        }
+        System.arraycopy(x0, 0, x, 0, n);
+    }
+
+    /** Vuelve a arrancar desde x0 = 0 (por ejemplo, si el sistema cambió mucho). */
+    public void reset() {
+        Arrays.fill(x, 0.0);
+    }
+
+    /**
+     * Última solución. Es el arreglo interno de la sesión (sin copiar):
+     * cambia con el próximo solve.
+     */
+    public double[] solution() {
+        return x;
+    }
+
+    /** Copia la última solución en 'dst'. */
+    public void copySolution(double[] dst) {
+        System.arraycopy(x, 0, dst, 0, n);
+    }
+
+    /** ||b - A x||_inf con la solución actual. */
+    public double residualNorm(double[] b) {
+        double max = 0.0;
+        for (int i = 0; i < n; i++) {
+            double r = b[i] - diag[i] * x[i];
+            for (int p = rowPtr[i]; p < rowPtr[i + 1]; p++) {
+                r -= values[p] * x[colIdx[p]];
+            }
+            max = Math.max(max, Math.abs(r));
+        }
+        return max;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    /** Iteraciones del último solve. */
+    public int lastIterations() {
+        return lastIterations;
+    }
+
+    /** true si el último solve alcanzó la tolerancia. */
+    public boolean converged() {
+        return lastConverged;
+    }
+
+    /** Iteraciones acumuladas de todos los solves. */
+    public long totalIterations() {
+        return totalIterations;
+    }
+
+    /** Número de solves hechos con la sesión. */
+    public int solves() {
+        return solves;
+    }
+
+    private static void checkDiagonal(int i, double value) {
+        if (value == 0.0) {
+            throw new ArithmeticException(
+                    "Hay un cero en la diagonal en A[" + i + "][" + i + "]."
+            );
+        }
+    }
+}
@@ -1,221 +1,566 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 public class GaussSeidelWithEquations {
 
     // ==========================
-    // Clases y métodos auxiliares
+    // Método de Gauss-Seidel
     // ==========================
 
-    private static class ParsedSide {
-        double[] coeffs;   // coeficientes de las variables en este lado
-        double constant;   // término independiente de este lado
-
-        ParsedSide(double[] coeffs, double constant) {
-            this.coeffs = coeffs;
-            this.constant = constant;
-        }
+    /**
+     * Aplica el método de Gauss-Seidel para resolver A * x = b.
+     *
+     * @param A         Matriz de coeficientes (n x n)
+     * @param b         Vector de términos independientes (n)
+     * @param x0        Aproximación inicial (n)
+     * @param tolerance Tolerancia para el criterio de parada
+     * @param maxIter   Máximo número de iteraciones
+     * @return Vector solución aproximada (n)
+     */
+    public static double[] gaussSeidel(double[][] A, double[] b, double[] x0,
+                                       double tolerance, int maxIter) {
+        return gaussSeidel(A, b, x0, tolerance, maxIter, SolverListener.CONSOLE);
     }
 
     /**
-     * Parsea una expresión lineal (un lado de la ecuación) y devuelve
-     * los coeficientes de las variables y el término constante.
-     *
-     * Ejemplos de 'side':
-     *  "4x-y+z"
-     *  "2x+3y-5"
-     *  "-x+2y+3"
+     * Igual que {@link #gaussSeidel(double[][], double[], double[], double, int)},
+     * pero el progreso (error por iteración, convergencia) se envía a
+     * 'listener' en lugar de imprimirse. Con {@link SolverListener#SILENT}
+     * no se hace ninguna salida por consola.
      */
-    private static ParsedSide parseSide(String side, String[] variables) {
-        int n = variables.length;
-        double[] coeffs = new double[n];
-        double constant = 0.0;
+    public static double[] gaussSeidel(double[][] A, double[] b, double[] x0,
+                                       double tolerance, int maxIter, SolverListener listener) {
+        long t0 = System.nanoTime();
+        int n = b.length;
+        double[] x = new double[n];      // solución actual
+        double[] xOld = new double[n];   // solución anterior
 
-        if (side == null || side.isEmpty()) {
-            return new ParsedSide(coeffs, constant);
-        }
+        // Copiamos x0 en x
+        System.arraycopy(x0, 0, x, 0, n);
 
-        // Quitamos espacios y '*' por si escriben 2*x
-        side = side.replace(" ", "").replace("*", "");
+        for (int iter = 1; iter <= maxIter; iter++) {
+            long start = System.nanoTime();
 
-        if (side.isEmpty()) {
-            return new ParsedSide(coeffs, constant);
-        }
+            // Guardamos la solución anterior
+            System.arraycopy(x, 0, xOld, 0, n);
+
+            // Recorremos ecuación por ecuación
+            for (int i = 0; i < n; i++) {
+                // sum = a[i][j] * x[j], j != i (en dos tramos, sin el "if" de la diagonal)
+                // Para j < i usa x nuevo, para j > i usa x viejo (que aún está en x)
+                double sum = VectorOps.dotAdd(0.0, A[i], 0, x, 0, i);
+                sum = VectorOps.dotAdd(sum, A[i], i + 1, x, i + 1, n - i - 1);
+
+                if (A[i][i] == 0.0) {
+                    throw new ArithmeticException(
+                            "Hay un cero en la diagonal en A[" + i + "][" + i + "]."
+                    );
+                }
 
-        // Aseguramos que empiece con signo
-        if (side.charAt(0) != '+' && side.charAt(0) != '-') {
-            side = "+" + side;
+                x[i] = (b[i] - sum) / A[i][i];
+            }
+
+            // Calculamos el error máximo entre x y xOld
+            double maxError = 0.0;
+            for (int i = 0; i < n; i++) {
+                double error = Math.abs(x[i] - xOld[i]);
+                if (error > maxError) {
+                    maxError = error;
+                }
+            }
+
+            listener.iteration(iter, maxError,
+                    listener.wantsResidual() ? residualNorm(A, b, x) : Double.NaN, System.nanoTime() - start);
+
+            if (maxError < tolerance) {
+                listener.finished(iter, true, System.nanoTime() - t0);
+                return x;
+            }
         }
 
-        // Convertimos todos los '-' en '+-' para poder hacer split por '+'
-        side = side.replace("-", "+-");
+        listener.finished(maxIter, false, System.nanoTime() - t0);
+        return x;
+    }
+
+    /**
+     * Gauss-Seidel sobre una matriz dispersa CSR.
+     *
+     * Cada barrido recorre solo los coeficientes guardados (O(nnz) en vez
+     * de O(n^2)) y la diagonal se lee de {@link SparseMatrix#diag}, así que
+     * no hace falta el "if (j != i)" del bucle interno.
+     * El criterio de parada y los mensajes son los mismos que en la versión densa.
+     *
+     * @param A         Matriz de coeficientes dispersa (n x n)
+     * @param b         Vector de términos independientes (n)
+     * @param x0        Aproximación inicial (n)
+     * @param tolerance Tolerancia para el criterio de parada
+     * @param maxIter   Máximo número de iteraciones
+     * @return Vector solución aproximada (n)
+     */
+    public static double[] gaussSeidel(SparseMatrix A, double[] b, double[] x0,
+                                       double tolerance, int maxIter) {
+        return gaussSeidel(A, b, x0, tolerance, maxIter, SolverListener.CONSOLE);
+    }
 
-        // Separamos en términos
-        String[] terms = side.split("\\+");
+    /**
+     * Gauss-Seidel disperso enviando el progreso a 'listener'.
+     */
+    public static double[] gaussSeidel(SparseMatrix A, double[] b, double[] x0,
+                                       double tolerance, int maxIter, SolverListener listener) {
+        long t0 = System.nanoTime();
+        int n = b.length;
+        double[] x = new double[n];
+        double[] diag = A.diag;
+        int[] rowPtr = A.rowPtr;
+        int[] colIdx = A.colIdx;
+        double[] values = A.values;
 
-        for (String term : terms) {
-            if (term == null || term.isEmpty()) {
-                continue;
+        for (int i = 0; i < n; i++) {
+            if (diag[i] == 0.0) {
+                throw new ArithmeticException(
+                        "Hay un cero en la diagonal en A[" + i + "][" + i + "]."
+                );
             }
+        }
 
-            // ¿Este término tiene alguna variable?
-            int varIndex = -1;
-            String varNameFound = null;
+        System.arraycopy(x0, 0, x, 0, n);
+
+        for (int iter = 1; iter <= maxIter; iter++) {
+            long start = System.nanoTime();
+
+            // El error se calcula al vuelo: no hace falta copiar x en xOld
+            double maxError = 0.0;
 
             for (int i = 0; i < n; i++) {
-                String var = variables[i];
-                int idx = term.indexOf(var);
-                if (idx != -1) {
-                    varIndex = i;
-                    varNameFound = var;
-                    break;
+                double error = relaxRow(rowPtr, colIdx, values, diag, b, x, i, 1.0);
+                if (error > maxError) {
+                    maxError = error;
                 }
             }
 
-            if (varIndex != -1) {
-                // Término con variable, ej: "4x", "-y", "3.5z"
-                String coefStr = term.replace(varNameFound, "");
-                double coef;
-
-                if (coefStr.isEmpty() || coefStr.equals("+")) {
-                    coef = 1.0;
-                } else if (coefStr.equals("-")) {
-                    coef = -1.0;
-                } else {
-                    coef = Double.parseDouble(coefStr);
-                }
-
-                coeffs[varIndex] += coef;
+            listener.iteration(iter, maxError,
+                    listener.wantsResidual() ? residualNorm(A, b, x) : Double.NaN, System.nanoTime() - start);
 
-            } else {
-                // Término constante, ej: "5", "-3.2"
-                double c = Double.parseDouble(term);
-                constant += c;
+            if (maxError < tolerance) {
+                listener.finished(iter, true, System.nanoTime() - t0);
+                return x;
             }
         }
 
-        return new ParsedSide(coeffs, constant);
+        listener.finished(maxIter, false, System.nanoTime() - t0);
+        return x;
     }
 
     /**
-     * Parsea una ecuación completa del tipo:
-     *    "4x - y + z = 7"
-     * usando los nombres de variables dados, y llena la fila 'row' de A y b.
+     * Gauss-Seidel multicolor (red-black en el caso de 2 colores).
      *
-     * La ecuación general:
-     *   LHS = RHS
+     * Se colorea el grafo de ecuaciones con {@link MulticolorOrdering#greedy}
+     * y en cada barrido se actualizan los colores uno tras otro. Dentro de un
+     * color ninguna ecuación usa otra incógnita del mismo color, así que sus
+     * actualizaciones se reparten entre 'parallelism' hilos. Cada color sí usa
+     * los valores recién calculados de los colores anteriores, por lo que
+     * sigue siendo un método tipo Gauss-Seidel (con otro orden de incógnitas).
      *
-     * se reescribe como:
-     *   (lhsCoeffs - rhsCoeffs) * x = rhsConst - lhsConst
+     * Si el coloreo no permite actualizar más de una incógnita a la vez, se
+     * usa el Gauss-Seidel normal con el orden original.
      *
-     * para obtener A[row][] y b[row].
+     * @param A           Matriz de coeficientes dispersa (n x n)
+     * @param b           Vector de términos independientes (n)
+     * @param x0          Aproximación inicial (n)
+     * @param tolerance   Tolerancia para el criterio de parada
+     * @param maxIter     Máximo número de iteraciones
+     * @param parallelism Número de hilos
+     * @return Vector solución aproximada (n)
+     */
+    public static double[] gaussSeidelMulticolor(SparseMatrix A, double[] b, double[] x0,
+                                                 double tolerance, int maxIter, int parallelism) {
+        return gaussSeidelMulticolor(A, b, x0, tolerance, maxIter, parallelism, SolverListener.CONSOLE);
+    }
+
+    /**
+     * Gauss-Seidel multicolor enviando el progreso (y el coloreo usado) a 'listener'.
      */
-    private static void parseEquationToRow(String equation,
-                                           String[] variables,
-                                           double[][] A,
-                                           double[] b,
-                                           int row) {
-        if (equation == null) {
-            throw new IllegalArgumentException("La ecuación no puede ser nula.");
+    public static double[] gaussSeidelMulticolor(SparseMatrix A, double[] b, double[] x0,
+                                                 double tolerance, int maxIter, int parallelism,
+                                                 SolverListener listener) {
+        long t0 = System.nanoTime();
+        MulticolorOrdering coloring = MulticolorOrdering.greedy(A);
+        listener.info("Coloreo del grafo de ecuaciones: " + coloring.describe());
+
+        if (coloring.largestColor() <= 1) {
+            listener.info("El coloreo no da paralelismo; se usa el orden original.");
+            return gaussSeidel(A, b, x0, tolerance, maxIter, listener);
+        }
+
+        int n = b.length;
+        for (int i = 0; i < n; i++) {
+            if (A.diag[i] == 0.0) {
+                throw new ArithmeticException(
+                        "Hay un cero en la diagonal en A[" + i + "][" + i + "]."
+                );
+            }
         }
 
-        // Eliminamos espacios para simplificar
-        equation = equation.replace(" ", "");
+        double[] x = new double[n];
+        System.arraycopy(x0, 0, x, 0, n);
 
-        // Separamos por '='
-        String[] parts = equation.split("=");
-        if (parts.length != 2) {
-            throw new IllegalArgumentException(
-                    "La ecuación debe tener un único signo '='. Ecuación: " + equation
-            );
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (int iter = 1; iter <= maxIter; iter++) {
+                long start = System.nanoTime();
+                double maxError = 0.0;
+
+                for (int c = 0; c < coloring.numColors(); c++) {
+                    int from = coloring.colorPtr[c];
+                    int to = coloring.colorPtr[c + 1];
+                    double error;
+                    if (to - from <= COLOR_GRAIN) {
+                        error = sweepRange(A, b, x, coloring.order, from, to);
+                    } else {
+                        error = pool.invoke(new ColorSweepTask(A, b, x, coloring.order, from, to));
+                    }
+                    if (error > maxError) {
+                        maxError = error;
+                    }
+                }
+
+                listener.iteration(iter, maxError,
+                        listener.wantsResidual() ? residualNorm(A, b, x) : Double.NaN, System.nanoTime() - start);
+
+                if (maxError < tolerance) {
+                    listener.finished(iter, true, System.nanoTime() - t0);
+                    return x;
+                }
+            }
+        } finally {
+            pool.shutdown();
         }
 
-        String left = parts[0];
-        String right = parts[1];
+        listener.finished(maxIter, false, System.nanoTime() - t0);
+        return x;
+    }
 
-        ParsedSide leftSide = parseSide(left, variables);
-        ParsedSide rightSide = parseSide(right, variables);
+    // Incógnitas por tarea en el barrido multicolor
+    private static final int COLOR_GRAIN = 2048;
 
-        int n = variables.length;
+    /**
+     * Actualiza las incógnitas order[from..to-1] y devuelve el error máximo.
+     */
+    private static double sweepRange(SparseMatrix A, double[] b, double[] x, int[] order, int from, int to) {
+        double maxError = 0.0;
+        for (int k = from; k < to; k++) {
+            double error = relaxRow(A.rowPtr, A.colIdx, A.values, A.diag, b, x, order[k], 1.0);
+            if (error > maxError) {
+                maxError = error;
+            }
+        }
+        return maxError;
+    }
 
-        // A[row] = leftCoeffs - rightCoeffs
-        for (int i = 0; i < n; i++) {
-            A[row][i] = leftSide.coeffs[i] - rightSide.coeffs[i];
+    /**
+     * Actualiza la incógnita i con los valores actuales de x (los ya
+     * actualizados en este barrido y los antiguos del resto):
+     * x[i] = (1 - omega) x[i] + omega (b[i] - sum_{j != i} a_ij x[j]) / a_ii.
+     * Con omega = 1 es el paso de Gauss-Seidel. La fila i se lee en CSR sin
+     * la diagonal, que va aparte en 'diag'.
+     *
+     * Es el mismo paso para todos los barridos dispersos (Gauss-Seidel,
+     * multicolor, SOR/SSOR y {@link GaussSeidelSession}).
+     *
+     * @return |x[i] nuevo - x[i] anterior|
+     */
+    static double relaxRow(int[] rowPtr, int[] colIdx, double[] values, double[] diag,
+                           double[] b, double[] x, int i, double omega) {
+        double sum = 0.0;
+        for (int p = rowPtr[i]; p < rowPtr[i + 1]; p++) {
+            sum += values[p] * x[colIdx[p]];
         }
+        double xGS = (b[i] - sum) / diag[i];
+        double xNew = omega == 1.0 ? xGS : (1.0 - omega) * x[i] + omega * xGS;
+        double error = Math.abs(xNew - x[i]);
+        x[i] = xNew;
+        return error;
+    }
 
-        // b[row] = rightConst - leftConst
-        b[row] = rightSide.constant - leftSide.constant;
+    /**
+     * Tarea fork/join que reparte las incógnitas de un color.
+     */
+    @SuppressWarnings("serial")
+    private static class ColorSweepTask extends RecursiveTask<Double> {
+        final SparseMatrix A;
+        final double[] b, x;
+        final int[] order;
+        final int from, to;
+
+        ColorSweepTask(SparseMatrix A, double[] b, double[] x, int[] order, int from, int to) {
+            this.A = A;
+            this.b = b;
+            this.x = x;
+            this.order = order;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Double compute() {
+            if (to - from <= COLOR_GRAIN) {
+                return sweepRange(A, b, x, order, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            ColorSweepTask left = new ColorSweepTask(A, b, x, order, from, mid);
+            left.fork();
+            double right = new ColorSweepTask(A, b, x, order, mid, to).compute();
+            return Math.max(left.join(), right);
+        }
     }
 
     // ==========================
-    // Método de Gauss-Seidel
+    // Métodos SOR y SSOR
     // ==========================
 
+    // Iteraciones de Gauss-Seidel (omega = 1) usadas para estimar omega
+    private static final int SOR_PROBE_ITERS = 20;
+
     /**
-     * Aplica el método de Gauss-Seidel para resolver A * x = b.
+     * Sobre-relajación sucesiva (SOR) sobre una matriz dispersa:
+     *   x[i] = (1 - omega) * x[i] + omega * (b[i] - sum) / A[i][i]
      *
-     * @param A         Matriz de coeficientes (n x n)
+     * Si omega <= 0 se estima automáticamente: se hacen primero hasta
+     * SOR_PROBE_ITERS iteraciones de Gauss-Seidel, se mide la tasa de
+     * contracción rho de la norma 2 de x_k - x_{k-1} y se usa
+     *   omega = 2 / (1 + sqrt(1 - rho))
+     * (óptimo para matrices consistentemente ordenadas, donde rho_GS = rho_J^2).
+     *
+     * Al terminar se informa cuántas iteraciones se ahorraron respecto de
+     * Gauss-Seidel (estimadas a partir de la tasa de contracción).
+     *
+     * @param A         Matriz de coeficientes dispersa (n x n)
      * @param b         Vector de términos independientes (n)
      * @param x0        Aproximación inicial (n)
+     * @param omega     Factor de relajación (0 < omega < 2), o <= 0 para estimarlo;
+     *                  con omega >= 2 (o NaN) se lanza IllegalArgumentException
      * @param tolerance Tolerancia para el criterio de parada
-     * @param maxIter   Máximo número de iteraciones
+     * @param maxIter   Máximo número de iteraciones (incluye las de estimación)
      * @return Vector solución aproximada (n)
      */
-    public static double[] gaussSeidel(double[][] A, double[] b, double[] x0,
-                                       double tolerance, int maxIter) {
-        int n = b.length;
-        double[] x = new double[n];      // solución actual
-        double[] xOld = new double[n];   // solución anterior
+    public static double[] sor(SparseMatrix A, double[] b, double[] x0, double omega,
+                               double tolerance, int maxIter) {
+        return relax(A, b, x0, omega, tolerance, maxIter, false, SolverListener.CONSOLE);
+    }
 
-        // Copiamos x0 en x
-        System.arraycopy(x0, 0, x, 0, n);
+    /**
+     * SOR enviando el progreso (y el omega estimado) a 'listener'.
+     */
+    public static double[] sor(SparseMatrix A, double[] b, double[] x0, double omega,
+                               double tolerance, int maxIter, SolverListener listener) {
+        return relax(A, b, x0, omega, tolerance, maxIter, false, listener);
+    }
 
-        for (int iter = 1; iter <= maxIter; iter++) {
+    /**
+     * SOR simétrico (SSOR): cada iteración es un barrido SOR hacia adelante
+     * seguido de uno hacia atrás. Converge más lento que SOR por iteración,
+     * pero su operador es simétrico, por eso se usa como precondicionador
+     * (ver {@link #ssorPrecondition}).
+     *
+     * Los parámetros son los mismos que en {@link #sor}.
+     */
+    public static double[] ssor(SparseMatrix A, double[] b, double[] x0, double omega,
+                                double tolerance, int maxIter) {
+        return relax(A, b, x0, omega, tolerance, maxIter, true, SolverListener.CONSOLE);
+    }
 
-            // Guardamos la solución anterior
-            System.arraycopy(x, 0, xOld, 0, n);
+    /**
+     * SSOR enviando el progreso (y el omega estimado) a 'listener'.
+     */
+    public static double[] ssor(SparseMatrix A, double[] b, double[] x0, double omega,
+                                double tolerance, int maxIter, SolverListener listener) {
+        return relax(A, b, x0, omega, tolerance, maxIter, true, listener);
+    }
 
-            // Recorremos ecuación por ecuación
-            for (int i = 0; i < n; i++) {
-                double sum = 0.0;
+    /**
+     * Aplica el precondicionador SSOR: z = M^{-1} r, donde M es la matriz de
+     * un barrido SSOR partiendo de z = 0 (con omega = 1 es Gauss-Seidel simétrico).
+     */
+    public static void ssorPrecondition(SparseMatrix A, double[] r, double[] z, double omega) {
+        checkOmega(omega);
+        Arrays.fill(z, 0.0);
+        sorSweep(A, r, z, omega, true);
+        sorSweep(A, r, z, omega, false);
+    }
 
-                // sum = a[i][j] * x[j], j != i
-                for (int j = 0; j < n; j++) {
-                    if (j != i) {
-                        sum += A[i][j] * x[j];
-                        // Para j < i usa x nuevo, para j > i usa x viejo (que aún está en x)
-                    }
+    private static double[] relax(SparseMatrix A, double[] b, double[] x0, double omega,
+                                  double tolerance, int maxIter, boolean symmetric,
+                                  SolverListener listener) {
+        checkOmega(omega);
+        long t0 = System.nanoTime();
+        int n = b.length;
+        for (int i = 0; i < n; i++) {
+            if (A.diag[i] == 0.0) {
+                throw new ArithmeticException(
+                        "Hay un cero en la diagonal en A[" + i + "][" + i + "]."
+                );
+            }
+        }
+
+        double[] x = new double[n];
+        System.arraycopy(x0, 0, x, 0, n);
+
+        int iter = 0;
+        double firstError = 0.0;   // error de la primera iteración
+        double rhoGS = Double.NaN; // tasa de contracción de Gauss-Seidel (si se midió)
+
+        // 1. Estimación de omega con unas iteraciones de Gauss-Seidel.
+        //    La tasa se mide con la norma 2 de x_k - x_{k-1}: el error máximo
+        //    suele quedarse estancado en las primeras iteraciones.
+        if (omega <= 0.0) {
+            double[] xPrev = new double[n];
+            double prevNorm = 0.0;
+            int probeIters = Math.min(SOR_PROBE_ITERS, maxIter);
+            while (iter < probeIters) {
+                iter++;
+                long start = System.nanoTime();
+                System.arraycopy(x, 0, xPrev, 0, n);
+                double error = symmetric
+                        ? Math.max(sorSweep(A, b, x, 1.0, true), sorSweep(A, b, x, 1.0, false))
+                        : sorSweep(A, b, x, 1.0, true);
+                listener.iteration(iter, error,
+                        listener.wantsResidual() ? residualNorm(A, b, x) : Double.NaN, System.nanoTime() - start);
+                if (iter == 1) {
+                    firstError = error;
+                }
+                if (error < tolerance) {
+                    listener.finished(iter, true, System.nanoTime() - t0);
+                    return x;
                 }
 
-                if (A[i][i] == 0.0) {
-                    throw new ArithmeticException(
-                            "Hay un cero en la diagonal en A[" + i + "][" + i + "]."
-                    );
+                double norm = 0.0;
+                for (int i = 0; i < n; i++) {
+                    double d = x[i] - xPrev[i];
+                    norm += d * d;
                 }
+                norm = Math.sqrt(norm);
+                if (iter > 1 && prevNorm > 0.0) {
+                    rhoGS = norm / prevNorm;
+                }
+                prevNorm = norm;
+            }
 
-                x[i] = (b[i] - sum) / A[i][i];
+            if (symmetric && !Double.isNaN(rhoGS)) {
+                rhoGS = Math.sqrt(rhoGS); // un paso SSOR son dos barridos
             }
+            omega = (rhoGS > 0.0 && rhoGS < 1.0) ? 2.0 / (1.0 + Math.sqrt(1.0 - rhoGS)) : 1.0;
+            listener.info(String.format("Omega estimado = %.6f (contracción de Gauss-Seidel = %.6f)", omega, rhoGS));
+        }
 
-            // Calculamos el error máximo entre x y xOld
-            double maxError = 0.0;
-            for (int i = 0; i < n; i++) {
-                double error = Math.abs(x[i] - xOld[i]);
-                if (error > maxError) {
-                    maxError = error;
-                }
+        // 2. Iteraciones SOR / SSOR
+        double rateStart = 0.0;
+        int rateIter = 0;
+        while (iter < maxIter) {
+            iter++;
+            long start = System.nanoTime();
+            double error = symmetric
+                    ? Math.max(sorSweep(A, b, x, omega, true), sorSweep(A, b, x, omega, false))
+                    : sorSweep(A, b, x, omega, true);
+            listener.iteration(iter, error,
+                    listener.wantsResidual() ? residualNorm(A, b, x) : Double.NaN, System.nanoTime() - start);
+
+            if (iter == 1) {
+                firstError = error;
+            }
+            if (rateIter == 0) {
+                rateStart = error;
+                rateIter = iter;
             }
 
-            System.out.printf("Iteración %d, error máximo = %.10f%n", iter, maxError);
+            if (error < tolerance) {
+                listener.finished(iter, true, System.nanoTime() - t0);
 
-            if (maxError < tolerance) {
-                System.out.println("Convergencia alcanzada en " + iter + " iteraciones.");
+                // Se deduce rho_GS de la tasa observada con SOR usando
+                // (lambda + omega - 1)^2 = lambda * omega^2 * rho_J^2 (matrices consistentemente
+                // ordenadas); con más iteraciones es mejor estimación que la del inicio.
+                if (!symmetric && iter > rateIter + 1) {
+                    double lambda = Math.pow(error / rateStart, 1.0 / (iter - rateIter));
+                    rhoGS = Math.min((lambda + omega - 1) * (lambda + omega - 1) / (lambda * omega * omega), 1.0);
+                }
+                reportSavings(iter, firstError, tolerance, rhoGS, listener);
                 return x;
             }
         }
 
-        System.out.println("No se alcanzó la convergencia en " + maxIter + " iteraciones.");
+        listener.finished(maxIter, false, System.nanoTime() - t0);
         return x;
     }
 
+    // SOR solo puede converger con 0 < omega < 2 (omega <= 0 pide estimarlo)
+    private static void checkOmega(double omega) {
+        if (!(omega < 2.0)) {
+            throw new IllegalArgumentException("omega debe ser menor que 2: " + omega);
+        }
+    }
+
+    /**
+     * Un barrido SOR (hacia adelante o hacia atrás). Devuelve el error máximo.
+     */
+    private static double sorSweep(SparseMatrix A, double[] b, double[] x, double omega, boolean forward) {
+        int n = A.n;
+        double maxError = 0.0;
+        for (int k = 0; k < n; k++) {
+            int i = forward ? k : n - 1 - k;
+            double error = relaxRow(A.rowPtr, A.colIdx, A.values, A.diag, b, x, i, omega);
+            if (error > maxError) {
+                maxError = error;
+            }
+        }
+        return maxError;
+    }
+
+    /**
+     * Muestra cuántas iteraciones habría necesitado Gauss-Seidel con la tasa
+     * de contracción rhoGS y cuántas se ahorraron.
+     */
+    private static void reportSavings(int iterations, double firstError, double tolerance, double rhoGS,
+                                      SolverListener listener) {
+        if (Double.isNaN(rhoGS) || rhoGS <= 0.0 || rhoGS >= 1.0 || firstError <= tolerance) {
+            return;
+        }
+        int estimated = 1 + (int) Math.ceil(Math.log(tolerance / firstError) / Math.log(rhoGS));
+        listener.info("Gauss-Seidel habría necesitado unas " + estimated + " iteraciones"
+                + " (ahorro estimado: " + (estimated - iterations) + ").");
+    }
+
+    /**
+     * Norma infinito del residuo ||b - A x||_inf (solo se calcula si el listener la pide).
+     */
+    static double residualNorm(double[][] A, double[] b, double[] x) {
+        int n = b.length;
+        double max = 0.0;
+        for (int i = 0; i < n; i++) {
+            double sum = b[i];
+            for (int j = 0; j < n; j++) {
+                sum -= A[i][j] * x[j];
+            }
+            max = Math.max(max, Math.abs(sum));
+        }
+        return max;
+    }
+
+    static double residualNorm(SparseMatrix A, double[] b, double[] x) {
+        int n = A.n;
+        double max = 0.0;
+        for (int i = 0; i < n; i++) {
+            double sum = b[i] - A.diag[i] * x[i];
+            for (int p = A.rowPtr[i]; p < A.rowPtr[i + 1]; p++) {
+                sum -= A.values[p] * x[A.colIdx[p]];
+            }
+            max = Math.max(max, Math.abs(sum));
+        }
+        return max;
+    }
+
     /**
      * Comprueba si la matriz es diagonalmente dominante
      * (condición suficiente, pero no necesaria, para convergencia).
@@ -241,46 +586,80 @@ public class GaussSeidelWithEquations {
     // main: interacción con el usuario
     // ==========================
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         Scanner scanner = new Scanner(System.in);
 
         System.out.println("=== Método de Gauss-Seidel (entrada de ecuaciones) ===");
-        System.out.print("Ingrese el número de ecuaciones/variables (n): ");
-
-        // Leer n como línea completa para evitar problemas con saltos de línea
-        int n = Integer.parseInt(scanner.nextLine().trim());
 
-        System.out.println("\nIngrese los nombres de las variables en orden, separados por espacio.");
-        System.out.println("Ejemplo para 3 variables: x y z");
-        System.out.print("Variables: ");
-        String[] variables = scanner.nextLine().trim().split("\\s+");
-
-        if (variables.length != n) {
-            throw new RuntimeException("numero de variables no coincide");
-        }
+        String[] variables;
+        SparseMatrix A;
+        double[] b;
+        int n;
+
+        if (args.length >= 2 && MatrixIO.isBinary(Paths.get(args[0]))) {
+            // Sistema binario (MatrixIO): A.bin b.bin [x.bin]
+            A = MatrixIO.readSparse(Paths.get(args[0]));
+            b = MatrixIO.readVector(Paths.get(args[1]));
+            n = b.length;
+            if (A.size() != n) {
+                throw new RuntimeException("A es de " + A.size() + " x " + A.size() + " y b tiene " + n + " elementos");
+            }
+            variables = new String[n];
+            for (int i = 0; i < n; i++) {
+                variables[i] = "x_" + (i + 1);
+            }
+            System.out.println("Sistema de " + n + " ecuaciones leído de " + args[0] + " y " + args[1]);
+        } else if (args.length > 0) {
+            // Sistema leído de un archivo: primera línea = variables, luego una ecuación por línea
+            int parallelism = Runtime.getRuntime().availableProcessors();
+            EquationParser.ParsedSystem system = EquationParser.parseFile(Paths.get(args[0]), parallelism);
+            variables = system.variables;
+            A = system.A;
+            b = system.b;
+            n = variables.length;
+            System.out.println("Sistema de " + n + " ecuaciones leído de " + args[0]);
+        } else {
+            System.out.print("Ingrese el número de ecuaciones/variables (n): ");
+
+            // Leer n como línea completa para evitar problemas con saltos de línea
+            n = Integer.parseInt(scanner.nextLine().trim());
+
+            System.out.println("\nIngrese los nombres de las variables en orden, separados por espacio.");
+            System.out.println("Ejemplo para 3 variables: x y z");
+            System.out.print("Variables: ");
+            variables = scanner.nextLine().trim().split("\\s+");
+
+            if (variables.length != n) {
+                throw new RuntimeException("numero de variables no coincide");
+            }
 
-        double[][] A = new double[n][n];
-        double[] b = new double[n];
+            // Guardamos A en formato disperso: solo los coeficientes distintos de cero
+            EquationParser parser = new EquationParser(variables);
+            A = new SparseMatrix(n, 8 * n);
+            b = new double[n];
 
-        System.out.println("\nIngrese cada ecuación en forma lineal, por ejemplo:");
-        System.out.println("  4x - y + z = 7");
-        System.out.println("  -2x + 6y + z = 9");
-        System.out.println("  x + y + 5z = -6\n");
+            System.out.println("\nIngrese cada ecuación en forma lineal, por ejemplo:");
+            System.out.println("  4x - y + z = 7");
+            System.out.println("  -2x + 6y + z = 9");
+            System.out.println("  x + y + 5z = -6\n");
 
-        for (int i = 0; i < n; i++) {
-            System.out.print("Ecuación " + (i + 1) + ": ");
-            String equation = scanner.nextLine();
-            parseEquationToRow(equation, variables, A, b, i);
+            for (int i = 0; i < n; i++) {
+                System.out.print("Ecuación " + (i + 1) + ": ");
+                String equation = scanner.nextLine();
+                parser.parseEquationToRow(equation, A, b, i);
+            }
         }
 
-        // Mostramos la matriz A y el vector b obtenidos
-        System.out.println("\nMatriz A y vector b obtenidos a partir de las ecuaciones:");
-        for (int i = 0; i < n; i++) {
-            System.out.print("| ");
-            for (int j = 0; j < n; j++) {
-                System.out.printf("%10.4f ", A[i][j]);
+        // Mostramos la matriz A y el vector b obtenidos (los sistemas de archivo pueden ser enormes)
+        if (args.length == 0) {
+            System.out.println("\nMatriz A y vector b obtenidos a partir de las ecuaciones:");
+            for (int i = 0; i < n; i++) {
+                System.out.print("| ");
+                for (int j = 0; j < n; j++) {
+                    System.out.printf("%10.4f ", A.get(i, j));
+                }
+                System.out.printf("|   |x_%d|   =   %10.4f%n", i + 1, b[i]);
             }
-            System.out.printf("|   |x_%d|   =   %10.4f%n", i + 1, b[i]);
         }
 
         System.out.println();
@@ -298,18 +677,70 @@ public class GaussSeidelWithEquations {
         System.out.print("Ingrese el máximo número de iteraciones: ");
         int maxIter = Integer.parseInt(scanner.nextLine().trim());
 
-        // Comprobamos diagonalmente dominante
-        if (!isDiagonallyDominant(A)) {
+        // Comprobamos diagonalmente dominante; si no lo es, Gauss-Seidel puede
+        // no converger y se usa un método de Krylov (CG o GMRES) en su lugar,
+        // o, con -Dsolver.direct=true, la LU dispersa.
+        // -Dsolver.block=<tamaño> o -Dsolver.block=prefix usa Gauss-Seidel por
+        // bloques (bloques de ese tamaño o por prefijo del nombre de la variable)
+        String blocks = System.getProperty("solver.block");
+        boolean dominant = A.isDiagonallyDominant();
+        boolean direct = blocks == null && !dominant && Boolean.getBoolean("solver.direct");
+        if (!dominant && blocks == null) {
             System.out.println("\nADVERTENCIA: La matriz A no es diagonalmente dominante.");
-            System.out.println("El método de Gauss-Seidel puede no converger.");
+            System.out.println("El método de Gauss-Seidel puede no converger; se usará "
+                    + (direct ? "la LU dispersa." : "un método de Krylov."));
         }
 
-        System.out.println("\nResolviendo el sistema con Gauss-Seidel...\n");
-        double[] solution = gaussSeidel(A, b, x0, tolerance, maxIter);
+        // -Dsolver.quiet=true no imprime las iteraciones;
+        // -Dsolver.metrics=true las acumula y al final las muestra en formato Prometheus
+        SolverListener listener = SolverListener.CONSOLE;
+        SolverMetrics metrics = null;
+        if (Boolean.getBoolean("solver.metrics")) {
+            metrics = new SolverMetrics(true);
+            listener = metrics;
+        } else if (Boolean.getBoolean("solver.quiet")) {
+            listener = SolverListener.SILENT;
+        }
+
+        double[] solution;
+        if (blocks != null) {
+            BlockGaussSeidel blockGS = blocks.equals("prefix")
+                    ? BlockGaussSeidel.byPrefix(A, variables, 1e-12)
+                    : BlockGaussSeidel.bySize(A, Integer.parseInt(blocks), 1e-12);
+            System.out.println("\nResolviendo el sistema con Gauss-Seidel por bloques ("
+                    + blockGS.describe() + ")...\n");
+            solution = blockGS.solve(b, x0, tolerance, maxIter, listener);
+        } else if (dominant) {
+            System.out.println("\nResolviendo el sistema con Gauss-Seidel...\n");
+            solution = gaussSeidel(A, b, x0, tolerance, maxIter, listener);
+        } else if (direct) {
+            System.out.println("\nResolviendo el sistema con LU dispersa...\n");
+            SparseLU.Symbolic symbolic = SparseLU.analyze(A, SparseLU.MINIMUM_DEGREE);
+            SparseLU lu = SparseLU.factor(A, symbolic, tolerance, SparseLU.DEFAULT_THRESHOLD);
+            listener.info(symbolic.describe() + "; L + U tienen " + lu.nonZeros() + " no ceros, "
+                    + lu.offDiagonalPivots() + " pivotes fuera de la diagonal.");
+            if (lu.error() == -1) {
+                throw new ArithmeticException("La matriz está mal condicionada; no se puede resolver.");
+            }
+            solution = new double[n];
+            lu.solve(b, solution);
+        } else {
+            System.out.println("\nResolviendo el sistema con un método de Krylov...\n");
+            solution = KrylovSolver.solve(A, b, x0, KrylovSolver.AUTO, -1, tolerance, maxIter, listener);
+        }
 
-        System.out.println("\nSolución aproximada:");
-        for (int i = 0; i < solution.length; i++) {
-            System.out.printf("%s = %.10f%n", variables[i], solution[i]);
+        if (metrics != null) {
+            System.out.print(metrics.export("gauss_seidel"));
+        }
+
+        if (args.length >= 3) {
+            MatrixIO.writeVector(Paths.get(args[2]), solution);
+            System.out.println("\nSolución guardada en " + args[2]);
+        } else {
+            System.out.println("\nSolución aproximada:");
+            for (int i = 0; i < solution.length; i++) {
+                System.out.printf("%s = %.10f%n", variables[i], solution[i]);
+            }
         }
 
         scanner.close();
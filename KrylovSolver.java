@@ -0,0 +1,540 @@
+import java.util.Arrays;
+
+/**
+ * Métodos de Krylov para A x = b:
+ *  - Gradiente conjugado (CG) para A simétrica definida positiva.
+ *  - GMRES(m) con reinicio para A general.
+ *
+ * Ambos pueden precondicionarse con un paso de Jacobi (z = r / diag(A)) o
+ * con un barrido simétrico de Gauss-Seidel (hacia adelante y hacia atrás,
+ * el mismo operador que GaussSeidelWithEquations.ssorPrecondition con
+ * omega = 1). En GMRES el precondicionador se aplica por la derecha, así
+ * que la norma que se controla es la del residuo verdadero.
+ *
+ * Funcionan con las mismas matrices que Gauss-Seidel: SparseMatrix o double[][].
+ *
+ * El criterio de parada es el residuo relativo ||b - A x||_2 / ||b||_2 < tolerance.
+ * Al listener se le pasa ese residuo relativo como "error" de cada iteración.
+ */
+public class KrylovSolver {
+
+    // Métodos
+    public static final int AUTO = 0;
+    public static final int CG = 1;
+    public static final int GMRES = 2;
+
+    // Precondicionadores
+    public static final int NONE = 0;
+    public static final int JACOBI = 1;
+    public static final int SYMMETRIC_GAUSS_SEIDEL = 2;
+
+    // Dimensión del subespacio de Krylov antes de reiniciar GMRES
+    public static final int DEFAULT_RESTART = 30;
+
+    // Tolerancia relativa para considerar A[i][j] == A[j][i]
+    private static final double SYMMETRY_TOL = 1e-12;
+
+    /**
+     * Operaciones que necesitan los métodos de Krylov (y sus precondicionadores)
+     * sobre la matriz, sea densa o dispersa.
+     */
+    interface Operator {
+        int size();
+
+        /** y = A x */
+        void multiply(double[] x, double[] y);
+
+        double diagonal(int i);
+
+        /** z = M^{-1} r, con M un barrido simétrico de Gauss-Seidel desde z = 0. */
+        void symmetricGaussSeidel(double[] r, double[] z);
+
+        boolean isSymmetric();
+    }
+
+    // ==========================
+    // Entradas públicas
+    // ==========================
+
+    /**
+     * Resuelve A x = b eligiendo el método ({@link #choose}) y usando Gauss-Seidel
+     * simétrico como precondicionador (ninguno si hay ceros en la diagonal).
+     */
+    public static double[] solve(SparseMatrix A, double[] b, double[] x0, double tolerance, int maxIter) {
+        return solve(A, b, x0, AUTO, -1, tolerance, maxIter, SolverListener.CONSOLE);
+    }
+
+    public static double[] solve(double[][] A, double[] b, double[] x0, double tolerance, int maxIter) {
+        return solve(A, b, x0, AUTO, -1, tolerance, maxIter, SolverListener.CONSOLE);
+    }
+
+    /**
+     * @param A              Matriz de coeficientes dispersa (n x n)
+     * @param b              Vector de términos independientes (n)
+     * @param x0             Aproximación inicial (n)
+     * @param method         AUTO, CG o GMRES
+     * @param preconditioner NONE, JACOBI, SYMMETRIC_GAUSS_SEIDEL, o -1 para elegirlo
+     * @param tolerance      Tolerancia para el residuo relativo
+     * @param maxIter        Máximo número de iteraciones (productos A*v)
+     * @param listener       Destino del progreso
+     * @return Vector solución aproximada (n)
+     */
+    public static double[] solve(SparseMatrix A, double[] b, double[] x0, int method, int preconditioner,
+                                 double tolerance, int maxIter, SolverListener listener) {
+        return solve(new SparseOperator(A), b, x0, method, preconditioner, tolerance, maxIter, listener);
+    }
+
+    public static double[] solve(double[][] A, double[] b, double[] x0, int method, int preconditioner,
+                                 double tolerance, int maxIter, SolverListener listener) {
+        return solve(new DenseOperator(A), b, x0, method, preconditioner, tolerance, maxIter, listener);
+    }
+
+    /**
+     * Elección automática: CG si A es simétrica con diagonal positiva
+     * (condición necesaria para ser definida positiva; si CG detecta que
+     * no lo es, se continúa con GMRES), GMRES en otro caso.
+     */
+    public static int choose(SparseMatrix A) {
+        return choose(new SparseOperator(A));
+    }
+
+    public static int choose(double[][] A) {
+        return choose(new DenseOperator(A));
+    }
+
+    // ==========================
+    // Selección
+    // ==========================
+
+    private static int choose(Operator A) {
+        for (int i = 0; i < A.size(); i++) {
+            if (!(A.diagonal(i) > 0.0)) {
+                return GMRES;
+            }
+        }
+        return A.isSymmetric() ? CG : GMRES;
+    }
+
+    // Gauss-Seidel simétrico salvo que haya ceros en la diagonal (ahí ni Jacobi sirve)
+    private static int choosePreconditioner(Operator A) {
+        for (int i = 0; i < A.size(); i++) {
+            if (A.diagonal(i) == 0.0) {
+                return NONE;
+            }
+        }
+        return SYMMETRIC_GAUSS_SEIDEL;
+    }
+
+    private static double[] solve(Operator A, double[] b, double[] x0, int method, int preconditioner,
+                                  double tolerance, int maxIter, SolverListener listener) {
+        long t0 = System.nanoTime();
+        int n = A.size();
+        if (preconditioner < 0) {
+            preconditioner = choosePreconditioner(A);
+        }
+        boolean auto = method == AUTO;
+        if (auto) {
+            method = choose(A);
+            listener.info("Método elegido: " + (method == CG ? "gradiente conjugado" : "GMRES(" + DEFAULT_RESTART + ")")
+                    + ", precondicionador: " + describe(preconditioner));
+        }
+
+        double[] x = Arrays.copyOf(x0, n);
+        int[] iterations = new int[1];
+        int status;
+        if (method == CG) {
+            status = cg(A, b, x, preconditioner, tolerance, maxIter, iterations, listener);
+            if (status == BREAKDOWN && auto) {
+                listener.info("A no es definida positiva; se continúa con GMRES.");
+                status = gmres(A, b, x, preconditioner, DEFAULT_RESTART, tolerance, maxIter, iterations, listener);
+            }
+        } else {
+            status = gmres(A, b, x, preconditioner, DEFAULT_RESTART, tolerance, maxIter, iterations, listener);
+        }
+
+        listener.finished(iterations[0], status == CONVERGED, System.nanoTime() - t0);
+        return x;
+    }
+
+    private static String describe(int preconditioner) {
+        switch (preconditioner) {
+            case JACOBI:
+                return "Jacobi";
+            case SYMMETRIC_GAUSS_SEIDEL:
+                return "Gauss-Seidel simétrico";
+            default:
+                return "ninguno";
+        }
+    }
+
+    // ==========================
+    // Gradiente conjugado
+    // ==========================
+
+    private static final int CONVERGED = 0;
+    private static final int NOT_CONVERGED = 1;
+    private static final int BREAKDOWN = 2;
+
+    /**
+     * Gradiente conjugado precondicionado. x se actualiza en su lugar;
+     * iterations[0] acumula las iteraciones hechas.
+     * Devuelve BREAKDOWN si p^T A p <= 0 (A no es definida positiva).
+     */
+    private static int cg(Operator A, double[] b, double[] x, int preconditioner, double tolerance,
+                          int maxIter, int[] iterations, SolverListener listener) {
+        int n = A.size();
+        double bNorm = norm2(b);
+        if (bNorm == 0.0) {
+            Arrays.fill(x, 0.0);
+            return CONVERGED;
+        }
+
+        double[] r = new double[n];
+        double[] z = new double[n];
+        double[] p = new double[n];
+        double[] Ap = new double[n];
+
+        residual(A, b, x, r);
+        if (norm2(r) / bNorm < tolerance) {
+            return CONVERGED;
+        }
+        precondition(A, preconditioner, r, z);
+        System.arraycopy(z, 0, p, 0, n);
+        double rz = dot(r, z);
+
+        while (iterations[0] < maxIter) {
+            long start = System.nanoTime();
+
+            A.multiply(p, Ap);
+            double pAp = dot(p, Ap);
+            if (!(pAp > 0.0)) {
+                return BREAKDOWN;
+            }
+            int iter = ++iterations[0];
+            double alpha = rz / pAp;
+            for (int i = 0; i < n; i++) {
+                x[i] += alpha * p[i];
+                r[i] -= alpha * Ap[i];
+            }
+
+            double relative = norm2(r) / bNorm;
+            listener.iteration(iter, relative, listener.wantsResidual() ? normInf(r) : Double.NaN,
+                    System.nanoTime() - start);
+            if (relative < tolerance) {
+                return CONVERGED;
+            }
+
+            precondition(A, preconditioner, r, z);
+            double rzNew = dot(r, z);
+            double beta = rzNew / rz;
+            for (int i = 0; i < n; i++) {
+                p[i] = z[i] + beta * p[i];
+            }
+            rz = rzNew;
+        }
+        return NOT_CONVERGED;
+    }
+
+    // ==========================
+    // GMRES(m)
+    // ==========================
+
+    /**
+     * GMRES con reinicio cada 'restart' iteraciones y precondicionador por
+     * la derecha: se resuelve A M^{-1} u = b y x = M^{-1} u. Se guarda la base
+     * de Arnoldi V (restart+1 vectores) y la Hessenberg ya triangularizada
+     * con rotaciones de Givens, así que el residuo de cada iteración sale
+     * gratis de g[j+1].
+     * Devuelve BREAKDOWN si la columna nueva de la Hessenberg queda en cero
+     * después de las rotaciones (A M^{-1} V[j] está en el espacio de las
+     * columnas anteriores y el subespacio es invariante): el residuo ya no
+     * puede bajar, lo que solo pasa si A es singular.
+     */
+    private static int gmres(Operator A, double[] b, double[] x, int preconditioner, int restart,
+                             double tolerance, int maxIter, int[] iterations, SolverListener listener) {
+        int n = A.size();
+        double bNorm = norm2(b);
+        if (bNorm == 0.0) {
+            Arrays.fill(x, 0.0);
+            return CONVERGED;
+        }
+        int m = Math.min(restart, n);
+
+        double[][] V = new double[m + 1][n];
+        double[][] H = new double[m + 1][m]; // H[i][j], ya rotada (triangular superior)
+        double[] cs = new double[m];
+        double[] sn = new double[m];
+        double[] g = new double[m + 1];
+        double[] y = new double[m];
+        double[] z = new double[n];
+        double[] w = new double[n];
+
+        while (true) {
+            // r = b - A x  (en V[0])
+            residual(A, b, x, V[0]);
+            double beta = norm2(V[0]);
+            if (beta / bNorm < tolerance) {
+                return CONVERGED;
+            }
+            if (iterations[0] >= maxIter) {
+                return NOT_CONVERGED;
+            }
+            scale(V[0], 1.0 / beta);
+            Arrays.fill(g, 0.0);
+            g[0] = beta;
+
+            int k = 0; // columnas de H usadas en este ciclo
+            boolean done = false;
+            boolean breakdown = false;
+            while (k < m && iterations[0] < maxIter) {
+                long start = System.nanoTime();
+                int iter = ++iterations[0];
+                int j = k++;
+
+                // w = A M^{-1} V[j]
+                precondition(A, preconditioner, V[j], z);
+                A.multiply(z, w);
+
+                // Gram-Schmidt modificado
+                for (int i = 0; i <= j; i++) {
+                    double h = dot(w, V[i]);
+                    H[i][j] = h;
+                    axpy(-h, V[i], w);
+                }
+                double hNext = norm2(w);
+
+                // Rotaciones anteriores sobre la columna j
+                for (int i = 0; i < j; i++) {
+                    double temp = cs[i] * H[i][j] + sn[i] * H[i + 1][j];
+                    H[i + 1][j] = -sn[i] * H[i][j] + cs[i] * H[i + 1][j];
+                    H[i][j] = temp;
+                }
+
+                // Nueva rotación que anula hNext
+                double rho = Math.hypot(H[j][j], hNext);
+                if (rho == 0.0) {
+                    // La rotación daría 0 / 0; x se actualiza con las columnas anteriores
+                    listener.iteration(iter, Math.abs(g[j]) / bNorm,
+                            listener.wantsResidual() ? Math.abs(g[j]) : Double.NaN, System.nanoTime() - start);
+                    k = j;
+                    breakdown = true;
+                    break;
+                }
+                cs[j] = H[j][j] / rho;
+                sn[j] = hNext / rho;
+                H[j][j] = rho;
+                g[j + 1] = -sn[j] * g[j];
+                g[j] = cs[j] * g[j];
+
+                // |g[j+1]| = ||b - A x||_2 del x que resultaría de este paso
+                double relative = Math.abs(g[j + 1]) / bNorm;
+                listener.iteration(iter, relative, listener.wantsResidual() ? Math.abs(g[j + 1]) : Double.NaN,
+                        System.nanoTime() - start);
+
+                if (relative < tolerance || hNext == 0.0) {
+                    done = true; // convergió (o el subespacio es invariante: solución exacta)
+                    break;
+                }
+                System.arraycopy(w, 0, V[j + 1], 0, n);
+                scale(V[j + 1], 1.0 / hNext);
+            }
+
+            // H y = g  (triangular superior k x k)
+            for (int i = k - 1; i >= 0; i--) {
+                double sum = g[i];
+                for (int l = i + 1; l < k; l++) {
+                    sum -= H[i][l] * y[l];
+                }
+                y[i] = sum / H[i][i];
+            }
+
+            // x = x + M^{-1} (V y)
+            Arrays.fill(w, 0.0);
+            for (int i = 0; i < k; i++) {
+                axpy(y[i], V[i], w);
+            }
+            precondition(A, preconditioner, w, z);
+            axpy(1.0, z, x);
+
+            if (breakdown) {
+                listener.info("GMRES se detuvo: la Hessenberg es singular (A es singular).");
+                return BREAKDOWN;
+            }
+            if (done) {
+                // Se confirma con el residuo verdadero (el de g puede diferir por redondeo)
+                residual(A, b, x, w);
+                if (norm2(w) / bNorm < tolerance) {
+                    return CONVERGED;
+                }
+            }
+        }
+    }
+
+    // ==========================
+    // Precondicionadores y álgebra de vectores
+    // ==========================
+
+    private static void precondition(Operator A, int preconditioner, double[] r, double[] z) {
+        switch (preconditioner) {
+            case JACOBI:
+                for (int i = 0; i < r.length; i++) {
+                    z[i] = r[i] / A.diagonal(i);
+                }
+                break;
+            case SYMMETRIC_GAUSS_SEIDEL:
+                A.symmetricGaussSeidel(r, z);
+                break;
+            default:
+                System.arraycopy(r, 0, z, 0, r.length);
+        }
+    }
+
+    // r = b - A x
+    private static void residual(Operator A, double[] b, double[] x, double[] r) {
+        A.multiply(x, r);
+        for (int i = 0; i < r.length; i++) {
+            r[i] = b[i] - r[i];
+        }
+    }
+
+    private static double dot(double[] a, double[] b) {
+        return VectorOps.dotAdd(0.0, a, 0, b, 0, a.length);
+    }
+
+    private static double norm2(double[] v) {
+        return Math.sqrt(dot(v, v));
+    }
+
+    private static double normInf(double[] v) {
+        double max = 0.0;
+        for (double value : v) {
+            max = Math.max(max, Math.abs(value));
+        }
+        return max;
+    }
+
+    // y = y + alpha x
+    private static void axpy(double alpha, double[] x, double[] y) {
+        VectorOps.eliminate(y, 0, -alpha, x, 0, y.length);
+    }
+
+    private static void scale(double[] v, double factor) {
+        for (int i = 0; i < v.length; i++) {
+            v[i] *= factor;
+        }
+    }
+
+    // ==========================
+    // Matrices
+    // ==========================
+
+    static final class SparseOperator implements Operator {
+        final SparseMatrix A;
+
+        SparseOperator(SparseMatrix A) {
+            this.A = A;
+        }
+
+        @Override
+        public int size() {
+            return A.n;
+        }
+
+        @Override
+        public void multiply(double[] x, double[] y) {
+            for (int i = 0; i < A.n; i++) {
+                double sum = A.diag[i] * x[i];
+                for (int p = A.rowPtr[i]; p < A.rowPtr[i + 1]; p++) {
+                    sum += A.values[p] * x[A.colIdx[p]];
+                }
+                y[i] = sum;
+            }
+        }
+
+        @Override
+        public double diagonal(int i) {
+            return A.diag[i];
+        }
+
+        @Override
+        public void symmetricGaussSeidel(double[] r, double[] z) {
+            GaussSeidelWithEquations.ssorPrecondition(A, r, z, 1.0);
+        }
+
+        @Override
+        public boolean isSymmetric() {
+            for (int i = 0; i < A.n; i++) {
+                for (int p = A.rowPtr[i]; p < A.rowPtr[i + 1]; p++) {
+                    int j = A.colIdx[p];
+                    if (!nearlyEqual(A.values[p], A.get(j, i))) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    static final class DenseOperator implements Operator {
+        final double[][] A;
+
+        DenseOperator(double[][] A) {
+            this.A = A;
+        }
+
+        @Override
+        public int size() {
+            return A.length;
+        }
+
+        @Override
+        public void multiply(double[] x, double[] y) {
+            int n = A.length;
+            for (int i = 0; i < n; i++) {
+                y[i] = VectorOps.dotAdd(0.0, A[i], 0, x, 0, n);
+            }
+        }
+
+        @Override
+        public double diagonal(int i) {
+            return A[i][i];
+        }
+
+        @Override
+        public void symmetricGaussSeidel(double[] r, double[] z) {
+            int n = A.length;
+            Arrays.fill(z, 0.0);
+            for (int i = 0; i < n; i++) {
+                z[i] = gaussSeidelRow(i, r, z, n);
+            }
+            for (int i = n - 1; i >= 0; i--) {
+                z[i] = gaussSeidelRow(i, r, z, n);
+            }
+        }
+
+        // (r[i] - sum_{j != i} A[i][j] z[j]) / A[i][i]
+        private double gaussSeidelRow(int i, double[] r, double[] z, int n) {
+            double[] row = A[i];
+            double sum = VectorOps.dotAdd(0.0, row, 0, z, 0, i);
+            sum = VectorOps.dotAdd(sum, row, i + 1, z, i + 1, n - i - 1);
+            return (r[i] - sum) / row[i];
+        }
+
+        @Override
+        public boolean isSymmetric() {
+            int n = A.length;
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    if (!nearlyEqual(A[i][j], A[j][i])) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    private static boolean nearlyEqual(double a, double b) {
+        return Math.abs(a - b) <= SYMMETRY_TOL * Math.max(Math.abs(a), Math.abs(b));
+    }
+}
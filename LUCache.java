@@ -0,0 +1,186 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class LUCache {
+
+    // ----------------------------------------------------------
+    // Caché LRU de factorizaciones LU.
+    //
+    // La clave es un hash del contenido de A (y de tol). Cuando se pide
+    // una matriz que ya está en la caché se devuelve su LUFactorization
+    // directamente y solo queda la sustitución O(n^2); si no, se factoriza
+    // (O(n^3)) y se guarda.
+    //
+    // Como dos matrices distintas pueden tener el mismo hash, cada entrada
+    // guarda también una copia de A para comparar el contenido.
+    //
+    // Límites: número máximo de entradas y memoria máxima en bytes. Cada
+    // entrada ocupa unos 2 * n^2 doubles (la copia de A y los factores
+    // L\U, más O(n) del vector de orden), y eso es lo que se descuenta de
+    // maxBytes. Al superarlos se descarta la entrada usada hace más tiempo.
+    // ----------------------------------------------------------
+
+    private static class Entry {
+        final double[] a;            // copia de A, contigua por filas
+        final double tol;
+        final LUFactorization lu;
+
+        Entry(double[] a, double tol, LUFactorization lu) {
+            this.a = a;
+            this.tol = tol;
+            this.lu = lu;
+        }
+
+        long bytes() {
+            return 8L * a.length + lu.bytes();
+        }
+    }
+
+    private final int maxEntries;
+    private final long maxBytes;
+
+    // accessOrder = true -> el orden de iteración va de la menos a la más usada
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long bytesUsed;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public LUCache(int maxEntries, long maxBytes) {
+        if (maxEntries <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("Los límites de la caché deben ser positivos.");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    // ----------------------------------------------------------
+    // SUB get(a, n, tol)
+    //
+    // Devuelve la factorización de A, desde la caché si ya estaba.
+    // La factorización se hace fuera del candado para no bloquear a
+    // otros hilos que solo leen.
+    // ----------------------------------------------------------
+    public LUFactorization get(double[][] a, int n, double tol) {
+        long key = contentHash(a, n, tol);
+
+        synchronized (this) {
+            Entry e = entries.get(key);
+            if (e != null && e.tol == tol && sameContent(e.a, a, n)) {
+                hits++;
+                return e.lu;
+            }
+            misses++;
+        }
+
+        LUFactorization lu = LUFactorization.factor(a, n, tol);
+        Entry e = new Entry(BlockedLU.toRowMajor(a, n), tol, lu);
+
+        synchronized (this) {
+            if (e.bytes() <= maxBytes) {
+                Entry old = entries.put(key, e);
+                if (old != null) {
+                    bytesUsed -= old.bytes();
+                }
+                bytesUsed += e.bytes();
+                evict();
+            }
+        }
+        return lu;
+    }
+
+    // ----------------------------------------------------------
+    // SUB solve(a, b, n, tol, x, er)
+    //
+    // Misma interfaz que LUProgram.LUdecomp, pero usando la caché:
+    // 'a' no se modifica y, si ya se había factorizado, no se vuelve a hacer.
+    // ----------------------------------------------------------
+    public void solve(double[][] a, double[] b, int n, double tol, double[] x, int[] er) {
+        LUFactorization lu = get(a, n, tol);
+        er[0] = lu.error();
+        if (er[0] != -1) {
+            lu.solve(b, x);
+        }
+    }
+
+    // Descarta las entradas menos usadas hasta respetar los límites
+    private void evict() {
+        Iterator<Map.Entry<Long, Entry>> it = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || bytesUsed > maxBytes) && it.hasNext()) {
+            Entry e = it.next().getValue();
+            it.remove();
+            bytesUsed -= e.bytes();
+            evictions++;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytesUsed = 0;
+    }
+
+    // ----------------------------------------------------------
+    // Contadores
+    // ----------------------------------------------------------
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    public synchronized long bytesUsed() {
+        return bytesUsed;
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // ----------------------------------------------------------
+    // Funciones auxiliares
+    // ----------------------------------------------------------
+    static long contentHash(double[][] a, int n, double tol) {
+        long h = 0x9E3779B97F4A7C15L ^ n ^ Double.doubleToLongBits(tol);
+        for (int i = 0; i < n; i++) {
+            double[] row = a[i];
+            for (int j = 0; j < n; j++) {
+                h = mix(h, row[j]);
+            }
+        }
+        return h;
+    }
+
+    // Un paso del hash: agrega el valor v al estado h
+    static long mix(long h, double v) {
+        h = (h ^ Double.doubleToLongBits(v)) * 0x100000001B3L;
+        return h ^ (h >>> 29);
+    }
+
+    private static boolean sameContent(double[] copy, double[][] a, int n) {
+        if (copy.length != n * n) {
+            return false;
+        }
+        for (int i = 0; i < n; i++) {
+            double[] row = a[i];
+            int base = i * n;
+            for (int j = 0; j < n; j++) {
+                if (Double.doubleToLongBits(copy[base + j]) != Double.doubleToLongBits(row[j])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,83 @@
+public class LUFactorization {
+
+    // ----------------------------------------------------------
+    // Factorización LU reutilizable.
+    //
+    // Guarda todo lo que produce Decompose para poder resolver muchas
+    // veces A x = b con distintos b sin volver a factorizar:
+    //  - lu: L y U mezcladas, contiguas por filas (ver BlockedLU)
+    //  - o:  vector de orden (permutación de filas del pivoteo)
+    //  - s:  vector de escala, ya permutado
+    //  - er: código de error de la factorización (0 = OK, -1 = mal condicionado)
+    //
+    // A diferencia de LUdecomp, la matriz del usuario no se modifica.
+    // ----------------------------------------------------------
+
+    final int n;
+    final double[] lu;
+    final int[] o;
+    final double[] s;
+    final int er;
+
+    private LUFactorization(int n, double[] lu, int[] o, double[] s, int er) {
+        this.n = n;
+        this.lu = lu;
+        this.o = o;
+        this.s = s;
+        this.er = er;
+    }
+
+    // ----------------------------------------------------------
+    // SUB factor(a, n, tol)
+    //
+    // Factoriza una copia de A con BlockedLU y devuelve el objeto.
+    // ----------------------------------------------------------
+    public static LUFactorization factor(double[][] a, int n, double tol) {
+        double[] lu = BlockedLU.toRowMajor(a, n);
+        int[] o = new int[n];
+        double[] s = new double[n];
+        int[] er = new int[1];
+
+        BlockedLU.Decompose(lu, n, tol, s, o, er, BlockedLU.DEFAULT_BLOCK);
+
+        return new LUFactorization(n, lu, o, s, er[0]);
+    }
+
+    // Igual, con A contigua por filas (se factoriza una copia)
+    public static LUFactorization factor(double[] a, int n, double tol) {
+        double[] lu = a.clone();
+        int[] o = new int[n];
+        double[] s = new double[n];
+        int[] er = new int[1];
+
+        BlockedLU.Decompose(lu, n, tol, s, o, er, BlockedLU.DEFAULT_BLOCK);
+
+        return new LUFactorization(n, lu, o, s, er[0]);
+    }
+
+    // ----------------------------------------------------------
+    // SUB solve(b, x)
+    //
+    // Resuelve A x = b con los factores guardados (O(n^2)). b no se modifica.
+    // ----------------------------------------------------------
+    public void solve(double[] b, double[] x) {
+        if (er == -1) {
+            throw new ArithmeticException("La matriz está mal condicionada; no se puede resolver.");
+        }
+        BlockedLU.Substitute(lu, o, n, b, x);
+    }
+
+    public int size() {
+        return n;
+    }
+
+    // Código de error de la factorización (0 = OK, -1 = mal condicionado)
+    public int error() {
+        return er;
+    }
+
+    // Memoria aproximada que ocupan los factores (en bytes)
+    public long bytes() {
+        return 8L * n * n + 8L * n + 4L * n;
+    }
+}
@@ -1,26 +1,77 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 
 public class LUProgram {
 
+    // A partir de este tamaño Decompose usa la factorización por bloques
+    public static final int BLOCKED_THRESHOLD = 256;
+
+    // En modo paralelo, si la submatriz restante tiene menos elementos que
+    // esto se elimina de forma secuencial (no compensa repartir el trabajo)
+    public static final int PARALLEL_THRESHOLD = 128 * 128;
+
+    // Trabajo mínimo (elementos) de cada tarea fork/join
+    static final int PARALLEL_GRAIN = 8 * 1024;
+
+    // Ancho (en columnas) de los tiles de SubstituteBlock
+    static final int SUBSTITUTE_TILE = 64;
+
+    // LUdecomp usa la versión en banda solo desde este tamaño y si
+    // kl + ku no pasa de BAND_MAX_WIDTH (para matrices chicas o bandas
+    // anchas no hay diferencia que valga la pena)
+    public static final int BAND_MIN_N = 64;
+    public static final int BAND_MAX_WIDTH = 16;
+
     // ----------------------------------------------------------
     // SUB LuDecomp (a, b, n, tol, x, er)
     //    Versión del pseudocódigo que, dado A y b, resuelve A x = b
     //    usando descomposición LU + sustitución hacia adelante y atrás.
+    //
+    //    Si A es una matriz en banda angosta (n >= BAND_MIN_N y
+    //    kl + ku <= BAND_MAX_WIDTH: tridiagonal, splines, difusión 1-D...)
+    //    se factoriza con DecomposeBanded en O(n * bw^2). El resultado es
+    //    el mismo en los dos casos: los mismos eventos por consola y la
+    //    L\U completa en 'a' (por eso se trabaja sobre la matriz n x n y
+    //    no sobre una copia de la banda).
     // ----------------------------------------------------------
     public static void LUdecomp(double[][] a, double[] b, int n, double tol, double[] x, int[] er) {
         double[] s = new double[n]; // vector de escala
+        int[] o = new int[n];       // orden de las filas tras el pivoteo
         er[0] = 0;                  // código de error (0 = OK, -1 = mal condicionado)
 
+        int[] band = n >= BAND_MIN_N ? bandwidth(a, n, BAND_MAX_WIDTH) : null;
+        if (band != null) {
+            DecomposeBanded(a, n, band[0], band[1], tol, o, s, er, SolverListener.CONSOLE);
+            if (er[0] != -1) {
+                SubstituteBanded(a, o, n, band[0], band[1], b, x);
+            }
+            return;
+        }
+
         // 1. Factoriza A en sus factores LU
-        Decompose(a, n, tol, s, er);
+        Decompose(a, n, tol, o, s, er, SolverListener.CONSOLE);
 
         // 2. Si no hubo error, resuelve A x = b con la misma matriz a (ya transformada en LU)
         if (er[0] != -1) {
-            Substitute(a, 0, n, b, x);
+            Substitute(a, o, n, b, x);
         }
     }
 
+    // ----------------------------------------------------------
+    // SUB LUdecomp(cache, a, b, n, tol, x, er)
+    //    Igual que LUdecomp, pero la factorización se busca primero en
+    //    'cache': si A ya se factorizó antes, solo se hace la sustitución.
+    //    En esta versión 'a' no se modifica.
+    // ----------------------------------------------------------
+    public static void LUdecomp(LUCache cache, double[][] a, double[] b, int n, double tol, double[] x, int[] er) {
+        cache.solve(a, b, n, tol, x, er);
+    }
+
     // ----------------------------------------------------------
     // SUB Decompose(a, n, tol, s, er)
     //
@@ -31,8 +82,77 @@ public class LUProgram {
     //  - s: vector de escala para cada fila
     //  - tol: tolerancia para decidir si el pivote es demasiado pequeño
     //  - er: código de error (0 = OK, -1 = sistema mal condicionado)
+    //
+    // Los mensajes (pivote pequeño, matriz resultante) se imprimen por
+    // consola; para otro destino o modo silencioso ver la versión con listener.
     // ----------------------------------------------------------
     public static void Decompose(double[][] a, int n, double tol, double[] s, int[] er) {
+        Decompose(a, n, tol, s, er, SolverListener.CONSOLE);
+    }
+
+    // ----------------------------------------------------------
+    // SUB Decompose(a, n, tol, s, er, listener)
+    //
+    // Igual que Decompose, pero los eventos (intercambio de filas, pivote
+    // demasiado pequeño, fin de la descomposición) van a 'listener' en vez
+    // de a la consola. Con SolverListener.SILENT no se imprime nada.
+    // ----------------------------------------------------------
+    public static void Decompose(double[][] a, int n, double tol, double[] s, int[] er, SolverListener listener) {
+
+        Decompose(a, n, tol, null, s, er, listener);
+    }
+
+    // ----------------------------------------------------------
+    // SUB Decompose(a, n, tol, o, s, er, listener)
+    //
+    // Como en el pseudocódigo, con el vector de orden 'o':
+    // o[i] = fila original de A que quedó en la posición i tras el pivoteo
+    // (lo necesita Invert). Si o es null no se registra.
+    // ----------------------------------------------------------
+    public static void Decompose(double[][] a, int n, double tol, int[] o, double[] s, int[] er,
+                                 SolverListener listener) {
+
+        // Para matrices grandes usamos la versión por bloques (mismo resultado, mejor uso de caché)
+        if (n >= BLOCKED_THRESHOLD) {
+            decomposeBlocked(a, n, tol, o, s, er, listener);
+            return;
+        }
+
+        decompose(a, n, tol, o, s, er, null, listener);
+    }
+
+    // ----------------------------------------------------------
+    // SUB DecomposeParallel(a, n, tol, s, er, parallelism)
+    //
+    // Igual que Decompose, pero la eliminación de las filas i = k+1..n-1
+    // (que no dependen entre sí) se reparte en un ForkJoinPool con
+    // 'parallelism' hilos. La selección del pivote, el código er y el
+    // formato L\U no cambian; cada fila hace exactamente las mismas
+    // operaciones que en la versión secuencial, así que el resultado es
+    // idéntico bit a bit.
+    // ----------------------------------------------------------
+    public static void DecomposeParallel(double[][] a, int n, double tol, double[] s, int[] er, int parallelism) {
+        DecomposeParallel(a, n, tol, s, er, parallelism, SolverListener.CONSOLE);
+    }
+
+    public static void DecomposeParallel(double[][] a, int n, double tol, double[] s, int[] er, int parallelism,
+                                         SolverListener listener) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            decompose(a, n, tol, null, s, er, pool, listener);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Núcleo común de Decompose y DecomposeParallel (pool == null -> secuencial)
+    private static void decompose(double[][] a, int n, double tol, int[] order, double[] s, int[] er,
+                                  ForkJoinPool pool, SolverListener listener) {
+        if (order != null) {
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+            }
+        }
 
         // 1. Cálculo del vector de escala s(i) = máximo valor absoluto de la fila i
         for (int i = 0; i < n; i++) {
@@ -50,25 +170,116 @@ public class LUProgram {
         for (int k = 0; k < n - 1; k++) {
 
             // Seleccionar fila pivote óptima a partir de k usando s
+            double[] rowK = a[k];
             Pivot(a, s, n, k);
+            if (a[k] != rowK) {
+                int p = indexOfRow(a, rowK, k + 1, n);
+                listener.pivotSwap(k, p);
+                if (order != null) {
+                    int temp = order[k];
+                    order[k] = order[p];
+                    order[p] = temp;
+                }
+            }
 
             // Verificar si el pivote normalizado es demasiado pequeño
             if (Math.abs(a[k][k] / s[k]) < tol) {
-                System.out.println("Pivot demasiado pequeño en la fila " + (k + 1));
+                listener.smallPivot(k, Math.abs(a[k][k] / s[k]));
                 er[0] = -1; // matriz mal condicionada
                 return;     // salimos sin completar la descomposición
             }
 
             // Eliminación hacia adelante (construcción de L y U)
-            for (int i = k + 1; i < n; i++) {
-                double factor = a[i][k] / a[k][k]; // L(i,k)
-                a[i][k] = factor;                  // guardamos L en la parte inferior de a
+            int m = n - k - 1; // tamaño de la submatriz restante
+            if (pool == null || (long) m * m < PARALLEL_THRESHOLD) {
+                eliminateRows(a, n, k, k + 1, n);
+            } else {
+                pool.invoke(new EliminateTask(a, n, k, k + 1, n));
+            }
+        }
+
+        // Revisión final del último pivote
+        if (Math.abs(a[n - 1][n - 1] / s[n - 1]) < tol) {
+            er[0] = -1;
+        }
 
-                for (int j = k + 1; j < n; j++) {
-                    // U(i,j) = A(i,j) - L(i,k)*U(k,j)
-                    a[i][j] = a[i][j] - factor * a[k][j];
+        listener.decomposed(a);
+    }
+
+    // ----------------------------------------------------------
+    // SUB DecomposeBanded(a, n, kl, ku, tol, o, s, er, listener)
+    //
+    // Igual que Decompose(a, n, tol, o, s, er, listener) para una matriz
+    // con A(i,j) = 0 si j < i - kl o j > i + ku (ver bandwidth).
+    // Deja la misma L\U en 'a' y manda los mismos eventos, pero cada paso
+    // solo mira lo que puede ser distinto de cero:
+    //  - candidatas a pivote: filas k..k+kl (las de más abajo todavía no
+    //    se tocaron y tienen A(i,k) = 0)
+    //  - columnas a actualizar: k+1..k+kl+ku (el intercambio de filas
+    //    puede correr la banda superior hasta kl lugares)
+    // Cuesta O(n * kl * (kl + ku)) en vez de O(n^3).
+    // ----------------------------------------------------------
+    public static void DecomposeBanded(double[][] a, int n, int kl, int ku, double tol, int[] o, double[] s,
+                                       int[] er, SolverListener listener) {
+        if (o != null) {
+            for (int i = 0; i < n; i++) {
+                o[i] = i;
+            }
+        }
+
+        // 1. Vector de escala (fuera de la banda todo es cero)
+        for (int i = 0; i < n; i++) {
+            double big = 0.0;
+            for (int j = Math.max(0, i - kl); j <= Math.min(n - 1, i + ku); j++) {
+                double abs = Math.abs(a[i][j]);
+                if (abs > big) {
+                    big = abs;
+                }
+            }
+            s[i] = big;
+        }
+
+        // 2. Eliminación con pivoteo parcial, como en Decompose
+        for (int k = 0; k < n - 1; k++) {
+            int last = Math.min(n - 1, k + kl);       // última fila con A(i,k) != 0
+            int right = Math.min(n - 1, k + kl + ku); // última columna que puede tener la fila k
+
+            // Mismo criterio que Pivot, sobre las filas k..last
+            int p = k;
+            double big = Math.abs(a[k][k] / s[k]);
+            for (int i = k + 1; i <= last; i++) {
+                double dummy = Math.abs(a[i][k] / s[i]);
+                if (dummy > big) {
+                    big = dummy;
+                    p = i;
+                }
+            }
+            if (p != k) {
+                double[] tempRow = a[k];
+                a[k] = a[p];
+                a[p] = tempRow;
+                double tempS = s[k];
+                s[k] = s[p];
+                s[p] = tempS;
+                listener.pivotSwap(k, p);
+                if (o != null) {
+                    int temp = o[k];
+                    o[k] = o[p];
+                    o[p] = temp;
                 }
             }
+
+            if (Math.abs(a[k][k] / s[k]) < tol) {
+                listener.smallPivot(k, Math.abs(a[k][k] / s[k]));
+                er[0] = -1;
+                return;
+            }
+
+            for (int i = k + 1; i <= last; i++) {
+                double factor = a[i][k] / a[k][k];
+                a[i][k] = factor;
+                VectorOps.eliminate(a[i], k + 1, factor, a[k], k + 1, right - k);
+            }
         }
 
         // Revisión final del último pivote
@@ -76,8 +287,162 @@ public class LUProgram {
             er[0] = -1;
         }
 
-        System.out.println("\nMatriz A después de la descomposición LU (L y U mezcladas):");
-        printMatrix(a);
+        listener.decomposed(a);
+    }
+
+    // Posición (entre from y to-1) a la que Pivot movió la fila 'row'
+    private static int indexOfRow(double[][] a, double[] row, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (a[i] == row) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // ----------------------------------------------------------
+    // SUB eliminateRows(a, n, k, from, to)
+    //
+    // Eliminación hacia adelante del paso k para las filas from..to-1.
+    // ----------------------------------------------------------
+    static void eliminateRows(double[][] a, int n, int k, int from, int to) {
+        for (int i = from; i < to; i++) {
+            double factor = a[i][k] / a[k][k]; // L(i,k)
+            a[i][k] = factor;                  // guardamos L en la parte inferior de a
+
+            // U(i,j) = A(i,j) - L(i,k)*U(k,j), j = k+1..n-1
+            VectorOps.eliminate(a[i], k + 1, factor, a[k], k + 1, n - k - 1);
+        }
+    }
+
+    // ----------------------------------------------------------
+    // Tarea fork/join: divide el rango de filas por la mitad hasta que
+    // el trabajo (filas x columnas restantes) es pequeño y lo hace secuencial.
+    // ----------------------------------------------------------
+    @SuppressWarnings("serial")
+    private static class EliminateTask extends RecursiveAction {
+        final double[][] a;
+        final int n, k, from, to;
+
+        EliminateTask(double[][] a, int n, int k, int from, int to) {
+            this.a = a;
+            this.n = n;
+            this.k = k;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if ((long) (to - from) * (n - k - 1) <= PARALLEL_GRAIN || to - from < 2) {
+                eliminateRows(a, n, k, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new EliminateTask(a, n, k, from, mid), new EliminateTask(a, n, k, mid, to));
+        }
+    }
+
+    // ----------------------------------------------------------
+    // SUB DecomposeBlocked(a, n, tol, s, er)
+    //
+    // Misma factorización que Decompose, pero copiando A a un arreglo
+    // contiguo por filas y usando BlockedLU (paneles + actualización del
+    // resto en forma de multiplicación de matrices).
+    // Al terminar se copia la L\U de vuelta a 'a' y 's' queda permutado
+    // igual que con Pivot, así que Substitute funciona sin cambios.
+    // ----------------------------------------------------------
+    public static void DecomposeBlocked(double[][] a, int n, double tol, double[] s, int[] er) {
+        DecomposeBlocked(a, n, tol, s, er, SolverListener.CONSOLE);
+    }
+
+    public static void DecomposeBlocked(double[][] a, int n, double tol, double[] s, int[] er,
+                                        SolverListener listener) {
+        decomposeBlocked(a, n, tol, null, s, er, listener);
+    }
+
+    private static void decomposeBlocked(double[][] a, int n, double tol, int[] order, double[] s, int[] er,
+                                         SolverListener listener) {
+        double[] flat = BlockedLU.toRowMajor(a, n);
+        int[] o = order != null ? order : new int[n];
+
+        BlockedLU.Decompose(flat, n, tol, s, o, er, BlockedLU.DEFAULT_BLOCK, listener);
+        BlockedLU.copyToRows(flat, n, a);
+
+        // Como en decompose: si se cortó en un pivote k < n-1 (ya avisado con
+        // smallPivot) no se informa la matriz; si solo falló el último, sí
+        if (er[0] == -1) {
+            for (int k = 0; k < n - 1; k++) {
+                if (Math.abs(a[k][k] / s[k]) < tol) {
+                    return;
+                }
+            }
+        }
+
+        listener.decomposed(a);
+    }
+
+    // ----------------------------------------------------------
+    // SUB Invert(a, n, o)
+    //
+    // Transforma la L\U que dejó Decompose(a, n, tol, o, s, er, ...) en
+    // A^{-1}, en la misma matriz 'a' (ver BlockedLU.Invert):
+    //   A^{-1} = U^{-1} L^{-1} P
+    // Primero se invierte U, luego se resuelve Y L = U^{-1} por paneles de
+    // columnas y al final se aplica el pivoteo como permutación de columnas.
+    // Solo se usa memoria extra O(n) (una fila y un panel de n x 64).
+    // ----------------------------------------------------------
+    public static void Invert(double[][] a, int n, int[] o) {
+        int nb = BlockedLU.DEFAULT_BLOCK;
+        double[] work = new double[n];
+
+        // 1) U^{-1}, fila por fila desde abajo
+        for (int i = n - 1; i >= 0; i--) {
+            double[] ai = a[i];
+            double inv = 1.0 / ai[i];
+            for (int j = i + 1; j < n; j++) {
+                work[j] = 0.0;
+            }
+            for (int k = i + 1; k < n; k++) {
+                // work(j) = -suma U(i,k) * X(k,j)
+                VectorOps.eliminate(work, k, ai[k], a[k], k, n - k);
+            }
+            for (int j = i + 1; j < n; j++) {
+                ai[j] = work[j] * inv;
+            }
+            ai[i] = inv;
+        }
+
+        // 2) Y L = U^{-1}, paneles de nb columnas de derecha a izquierda
+        double[] panel = new double[n * nb]; // panel[i * nb + (j - jb)] = L(i, j)
+        for (int jb = ((n - 1) / nb) * nb; jb >= 0; jb -= nb) {
+            int jend = Math.min(jb + nb, n);
+
+            for (int i = jb + 1; i < n; i++) {
+                double[] ai = a[i];
+                int end = Math.min(i, jend);
+                for (int j = jb; j < end; j++) {
+                    panel[i * nb + (j - jb)] = ai[j];
+                    ai[j] = 0.0;
+                }
+            }
+
+            for (int r = 0; r < n; r++) {
+                double[] ar = a[r];
+                for (int i = n - 1; i > jb; i--) {
+                    VectorOps.eliminate(ar, jb, ar[i], panel, i * nb, Math.min(i, jend) - jb);
+                }
+            }
+        }
+
+        // 3) Columna i de Y -> columna o[i] de A^{-1}
+        for (int r = 0; r < n; r++) {
+            double[] ar = a[r];
+            System.arraycopy(ar, 0, work, 0, n);
+            for (int i = 0; i < n; i++) {
+                ar[o[i]] = work[i];
+            }
+        }
     }
 
     // ----------------------------------------------------------
@@ -126,11 +491,8 @@ public class LUProgram {
         // 1) Sustitución hacia adelante: L * y = b
         //    Recordar que la diagonal de L es 1, y L está almacenada debajo de la diagonal de 'a'.
         for (int i = 1; i < n; i++) {
-            double sum = b[i];
-            for (int j = 0; j <= i - 1; j++) {
-                // L(i,j) = a[i][j]
-                sum -= a[i][j] * b[j];
-            }
+            // sum = b(i) - L(i,j) * b(j), j = 0..i-1, con L(i,j) = a[i][j]
+            double sum = VectorOps.dotSubtract(b[i], a[i], 0, b, 0, i);
             b[i] = sum; // aquí b[i] se convierte en y(i)
         }
 
@@ -139,14 +501,180 @@ public class LUProgram {
         x[n - 1] = b[n - 1] / a[n - 1][n - 1];
 
         for (int i = n - 2; i >= 0; i--) {
-            double sum = b[i];
-            for (int j = i + 1; j < n; j++) {
-                sum -= a[i][j] * x[j];
-            }
+            double sum = VectorOps.dotSubtract(b[i], a[i], i + 1, x, i + 1, n - i - 1);
+            x[i] = sum / a[i][i];
+        }
+    }
+
+    // ----------------------------------------------------------
+    // SUB Substitute(a, o, n, b, x)
+    //
+    // Como Substitute, pero con el vector de orden 'o' de
+    // Decompose(a, n, tol, o, s, er, listener): y se arma con b[o[i]]
+    // (como BlockedLU.Substitute), así que b se pasa en el orden original
+    // y no se modifica.
+    // ----------------------------------------------------------
+    public static void Substitute(double[][] a, int[] o, int n, double[] b, double[] x) {
+
+        // 1) L * y = P b  (y se guarda en x)
+        for (int i = 0; i < n; i++) {
+            x[i] = VectorOps.dotSubtract(b[o[i]], a[i], 0, x, 0, i);
+        }
+
+        // 2) U * x = y
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = VectorOps.dotSubtract(x[i], a[i], i + 1, x, i + 1, n - i - 1);
+            x[i] = sum / a[i][i];
+        }
+    }
+
+    // ----------------------------------------------------------
+    // SUB SubstituteBanded(a, o, n, kl, ku, b, x)
+    //
+    // Substitute(a, o, n, b, x) para la L\U de DecomposeBanded, en
+    // O(n * (kl + ku)). La fila i de L viene de la fila o[i] de A, que
+    // empieza en la columna o[i] - kl; la fila i de U termina en la
+    // columna i + kl + ku. b no se modifica.
+    // ----------------------------------------------------------
+    public static void SubstituteBanded(double[][] a, int[] o, int n, int kl, int ku, double[] b, double[] x) {
+
+        // 1) L * y = P b  (y se guarda en x)
+        for (int i = 0; i < n; i++) {
+            int from = Math.min(i, Math.max(0, o[i] - kl));
+            x[i] = VectorOps.dotSubtract(b[o[i]], a[i], from, x, from, i - from);
+        }
+
+        // 2) U * x = y
+        for (int i = n - 1; i >= 0; i--) {
+            int len = Math.min(n - 1, i + kl + ku) - i;
+            double sum = VectorOps.dotSubtract(x[i], a[i], i + 1, x, i + 1, len);
             x[i] = sum / a[i][i];
         }
     }
 
+    // ----------------------------------------------------------
+    // SUB bandwidth(a, n, limit)
+    //
+    // Devuelve {kl, ku}: la mayor distancia a la diagonal de un elemento
+    // distinto de cero por debajo y por encima. Deja de buscar (y devuelve
+    // null) en cuanto kl + ku supera 'limit', así que para matrices llenas
+    // solo se recorren unas pocas filas.
+    // ----------------------------------------------------------
+    static int[] bandwidth(double[][] a, int n, int limit) {
+        int kl = 0;
+        int ku = 0;
+        for (int i = 0; i < n; i++) {
+            double[] row = a[i];
+            // primer no cero desde la izquierda, solo fuera de la banda actual
+            for (int j = 0; j < i - kl; j++) {
+                if (row[j] != 0.0) {
+                    kl = i - j;
+                    break;
+                }
+            }
+            for (int j = n - 1; j > i + ku; j--) {
+                if (row[j] != 0.0) {
+                    ku = j - i;
+                    break;
+                }
+            }
+            if (kl + ku > limit) {
+                return null;
+            }
+        }
+        return new int[]{kl, ku};
+    }
+
+    // ----------------------------------------------------------
+    // SUB SubstituteBlock(a, n, b, m, x)
+    //
+    // Igual que Substitute, pero para m lados derechos a la vez.
+    // b y x son matrices n x m (columna c = un sistema), así que en vez de
+    // m pasadas sobre L\U se hace una sola, y cada paso es una resta
+    // fila(i) -= L(i,j) * fila(j) sobre datos contiguos.
+    //
+    // Las columnas se procesan en tiles de SUBSTITUTE_TILE para que las
+    // filas de b/x que se están usando quepan en caché.
+    // Como en Substitute, b se sobreescribe con y; x puede ser el mismo
+    // arreglo que b (resolución en el lugar).
+    // ----------------------------------------------------------
+    public static void SubstituteBlock(double[][] a, int n, double[][] b, int m, double[][] x) {
+        substituteColumns(a, n, b, x, 0, m);
+    }
+
+    // ----------------------------------------------------------
+    // SUB SubstituteBlockParallel(a, n, b, m, x, parallelism)
+    //
+    // SubstituteBlock repartiendo las columnas de b entre 'parallelism'
+    // hilos (cada columna es un sistema independiente).
+    // ----------------------------------------------------------
+    public static void SubstituteBlockParallel(double[][] a, int n, double[][] b, int m, double[][] x,
+                                               int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new SubstituteTask(a, n, b, x, 0, m));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Sustitución para las columnas c0..c1-1 de b/x
+    static void substituteColumns(double[][] a, int n, double[][] b, double[][] x, int c0, int c1) {
+        for (int cb = c0; cb < c1; cb += SUBSTITUTE_TILE) {
+            int ce = Math.min(cb + SUBSTITUTE_TILE, c1);
+
+            // 1) L * Y = B  (Y se guarda en b)
+            for (int i = 1; i < n; i++) {
+                double[] bi = b[i];
+                for (int j = 0; j <= i - 1; j++) {
+                    VectorOps.eliminate(bi, cb, a[i][j], b[j], cb, ce - cb);
+                }
+            }
+
+            // 2) U * X = Y
+            for (int i = n - 1; i >= 0; i--) {
+                double[] bi = b[i];
+                double[] xi = x[i];
+                if (xi != bi) {
+                    System.arraycopy(bi, cb, xi, cb, ce - cb);
+                }
+                for (int j = i + 1; j < n; j++) {
+                    VectorOps.eliminate(xi, cb, a[i][j], x[j], cb, ce - cb);
+                }
+                double uii = a[i][i];
+                for (int c = cb; c < ce; c++) {
+                    xi[c] = xi[c] / uii;
+                }
+            }
+        }
+    }
+
+    // Tarea fork/join que divide las columnas hasta llegar a un tile
+    @SuppressWarnings("serial")
+    private static class SubstituteTask extends RecursiveAction {
+        final double[][] a, b, x;
+        final int n, c0, c1;
+
+        SubstituteTask(double[][] a, int n, double[][] b, double[][] x, int c0, int c1) {
+            this.a = a;
+            this.n = n;
+            this.b = b;
+            this.x = x;
+            this.c0 = c0;
+            this.c1 = c1;
+        }
+
+        @Override
+        protected void compute() {
+            if (c1 - c0 <= SUBSTITUTE_TILE) {
+                substituteColumns(a, n, b, x, c0, c1);
+                return;
+            }
+            int mid = (c0 + c1) >>> 1;
+            invokeAll(new SubstituteTask(a, n, b, x, c0, mid), new SubstituteTask(a, n, b, x, mid, c1));
+        }
+    }
+
     // ----------------------------------------------------------
     // Función auxiliar: imprime una matriz en formato legible
     // ----------------------------------------------------------
@@ -160,14 +688,59 @@ public class LUProgram {
         System.out.println();
     }
 
+    // ----------------------------------------------------------
+    // SUB invertFile(in, out, tol)
+    //
+    // Lee A de un archivo binario (MatrixIO), calcula A^{-1} y la guarda
+    // en 'out' con el mismo formato; si out es null, la imprime.
+    // La matriz se lee directo en un arreglo contiguo y se invierte en su
+    // lugar (BlockedLU.Decompose + BlockedLU.Invert), así que en memoria
+    // hay una sola matriz n x n. La L\U intermedia no se imprime.
+    // ----------------------------------------------------------
+    public static void invertFile(Path in, Path out, double tol) throws IOException {
+        invertFile(in, out, tol, out != null ? SolverListener.SILENT : SolverListener.CONSOLE);
+    }
+
+    public static void invertFile(Path in, Path out, double tol, SolverListener listener) throws IOException {
+        int n = MatrixIO.readHeader(in).n;
+        double[] a = MatrixIO.readDenseRowMajor(in);
+        double[] s = new double[n];
+        int[] o = new int[n];
+        int[] er = new int[1];
+
+        BlockedLU.Decompose(a, n, tol, s, o, er, BlockedLU.DEFAULT_BLOCK, listener);
+        if (er[0] != 0) {
+            System.out.println("El sistema está mal condicionado. No es seguro calcular la inversa.");
+            return;
+        }
+
+        BlockedLU.Invert(a, n, o, BlockedLU.DEFAULT_BLOCK);
+
+        if (out != null) {
+            MatrixIO.writeDense(out, a, n);
+            System.out.println("Matriz inversa A^{-1} (" + n + " x " + n + ") guardada en " + out);
+        } else {
+            System.out.println("Matriz inversa A^{-1}:");
+            double[][] ai = new double[n][n];
+            BlockedLU.copyToRows(a, n, ai);
+            printMatrix(ai);
+        }
+    }
+
     // ----------------------------------------------------------
     // PROGRAMA PRINCIPAL (el que genera la matriz inversa)
     //
     // Es la traducción del último pseudocódigo:
     //   - Llama a Decompose
-    //   - Si no hay error, va formando la inversa columna por columna
+    //   - Si no hay error, convierte la L\U en la inversa en la misma matriz (Invert)
     // ----------------------------------------------------------
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+
+        // Modo archivo: java LUProgram A.bin [Ainv.bin] (formato binario de MatrixIO)
+        if (args.length > 0) {
+            invertFile(Paths.get(args[0]), args.length > 1 ? Paths.get(args[1]) : null, 1e-6);
+            return;
+        }
 
         Scanner sc = new Scanner(System.in);
 
@@ -192,10 +765,8 @@ public class LUProgram {
         System.out.print("Ingrese el tamaño n de la matriz cuadrada A (n x n): ");
         int n = sc.nextInt();
 
-        double[][] a = new double[n][n];   // matriz original A (se modificará a LU)
-        double[][] ai = new double[n][n];  // matriz inversa A^{-1}
-        double[] b = new double[n];        // vector del lado derecho (columna de la identidad)
-        double[] x = new double[n];        // solución temporal x para cada columna de la inversa
+        double[][] a = new double[n][n];   // matriz A (se transforma en L\U y después en A^{-1})
+        int[] o = new int[n];              // vector de orden del pivoteo
         double tol = 1e-6;                 // tolerancia para pivotes pequeños
         int[] er = new int[1];             // código de error
 
@@ -220,33 +791,19 @@ public class LUProgram {
         // Vector de escala para Decompose
         double[] s = new double[n];
 
-        // Llamamos a Decompose (factorización LU)
-        Decompose(a, n, tol, s, er);
+        // Llamamos a Decompose (factorización LU), guardando el orden de las filas
+        Decompose(a, n, tol, o, s, er, SolverListener.CONSOLE);
 
         if (er[0] == 0) {
             // No hubo error: calculamos la inversa
 
             System.out.println("Calculando la matriz inversa A^{-1}...\n");
 
-            // Recorremos cada columna r de la matriz identidad
-            for (int r = 0; r < n; r++) {
-
-                // Construimos b = e_r (vector canónico)
-                for (int j = 0; j < n; j++) {
-                    b[j] = (j == r) ? 1.0 : 0.0;
-                }
-
-                // Resolvemos A x = e_r usando la LU almacenada en 'a'
-                Substitute(a, 0, n, b, x);
-
-                // Guardamos el resultado x como la columna r de la inversa
-                for (int j = 0; j < n; j++) {
-                    ai[j][r] = x[j];
-                }
-            }
+            // La L\U de 'a' se convierte en A^{-1} en la misma matriz
+            Invert(a, n, o);
 
             System.out.println("Matriz inversa A^{-1}:");
-            printMatrix(ai);
+            printMatrix(a);
 
 
         } else {
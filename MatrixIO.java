@@ -0,0 +1,411 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Formato binario para matrices y vectores, leído y escrito con
+ * FileChannel.map (archivos mapeados en memoria).
+ *
+ * Cabecera de 32 bytes, little-endian:
+ *   int  MAGIC ("ANMX")
+ *   int  tipo (DENSE, SPARSE o VECTOR)
+ *   long n
+ *   long nnz (coeficientes fuera de la diagonal; solo SPARSE)
+ *   long reservado
+ *
+ * Contenido, también little-endian:
+ *   DENSE:  n*n doubles, fila por fila
+ *   VECTOR: n doubles
+ *   SPARSE: diag (n doubles), values (nnz doubles),
+ *           rowPtr (n+1 ints), colIdx (nnz ints)   -> mismo CSR que SparseMatrix
+ *
+ * Los archivos más grandes que 2 GB se mapean por ventanas.
+ */
+public class MatrixIO {
+
+    public static final int MAGIC = 0x584D4E41; // "ANMX" leído como little-endian
+    public static final int DENSE = 0;
+    public static final int SPARSE = 1;
+    public static final int VECTOR = 2;
+
+    static final int HEADER_BYTES = 32;
+
+    // Tamaño máximo de cada ventana mapeada (múltiplo de 8); las pruebas
+    // lo achican para cruzar varias ventanas con matrices chicas
+    static long windowBytes = 1L << 30;
+
+    /**
+     * Cabecera de un archivo binario.
+     */
+    public static class Header {
+        public final int kind;
+        public final int n;
+        public final int nnz;
+
+        Header(int kind, int n, int nnz) {
+            this.kind = kind;
+            this.n = n;
+            this.nnz = nnz;
+        }
+    }
+
+    // ==========================
+    // Escritura
+    // ==========================
+
+    /** Guarda una matriz densa n x n. */
+    public static void writeDense(Path file, double[][] a) throws IOException {
+        int n = a.length;
+        try (FileChannel ch = openForWrite(file)) {
+            writeHeader(ch, DENSE, n, 0);
+            DoubleCursor out = new DoubleCursor(ch, FileChannel.MapMode.READ_WRITE, HEADER_BYTES, 8L * n * n);
+            for (int i = 0; i < n; i++) {
+                out.put(a[i], 0, n);
+            }
+        }
+    }
+
+    /** Guarda una matriz densa n x n almacenada contigua por filas (ver BlockedLU). */
+    public static void writeDense(Path file, double[] a, int n) throws IOException {
+        try (FileChannel ch = openForWrite(file)) {
+            writeHeader(ch, DENSE, n, 0);
+            new DoubleCursor(ch, FileChannel.MapMode.READ_WRITE, HEADER_BYTES, 8L * n * n).put(a, 0, n * n);
+        }
+    }
+
+    /** Guarda un vector. */
+    public static void writeVector(Path file, double[] v) throws IOException {
+        try (FileChannel ch = openForWrite(file)) {
+            writeHeader(ch, VECTOR, v.length, 0);
+            new DoubleCursor(ch, FileChannel.MapMode.READ_WRITE, HEADER_BYTES, 8L * v.length).put(v, 0, v.length);
+        }
+    }
+
+    /** Guarda una matriz dispersa en CSR. */
+    public static void writeSparse(Path file, SparseMatrix A) throws IOException {
+        int n = A.n;
+        int nnz = A.offDiagonalCount();
+        long doublesBytes = 8L * (n + nnz);
+        try (FileChannel ch = openForWrite(file)) {
+            writeHeader(ch, SPARSE, n, nnz);
+            DoubleCursor d = new DoubleCursor(ch, FileChannel.MapMode.READ_WRITE, HEADER_BYTES, doublesBytes);
+            d.put(A.diag, 0, n);
+            d.put(A.values, 0, nnz);
+
+            long intsStart = HEADER_BYTES + doublesBytes;
+            IntCursor ints = new IntCursor(ch, FileChannel.MapMode.READ_WRITE, intsStart, 4L * (n + 1 + nnz));
+            ints.put(A.rowPtr, 0, n + 1);
+            ints.put(A.colIdx, 0, nnz);
+        }
+    }
+
+    // ==========================
+    // Lectura
+    // ==========================
+
+    /** Lee la cabecera y verifica que sea un archivo de este formato. */
+    public static Header readHeader(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readHeader(ch, file);
+        }
+    }
+
+    /** true si el archivo empieza con la marca del formato binario. */
+    public static boolean isBinary(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() < HEADER_BYTES) {
+                return false;
+            }
+            ByteBuffer buf = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            ch.read(buf, 0);
+            return buf.getInt(0) == MAGIC;
+        }
+    }
+
+    /** Lee una matriz densa como double[][]. */
+    public static double[][] readDense(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header h = expect(readHeader(ch, file), DENSE, file);
+            int n = h.n;
+            double[][] a = new double[n][n];
+            DoubleCursor in = new DoubleCursor(ch, FileChannel.MapMode.READ_ONLY, HEADER_BYTES, 8L * n * n);
+            for (int i = 0; i < n; i++) {
+                in.get(a[i], 0, n);
+            }
+            return a;
+        }
+    }
+
+    /** Lee una matriz densa como arreglo contiguo por filas (n = raíz de la longitud). */
+    public static double[] readDenseRowMajor(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header h = expect(readHeader(ch, file), DENSE, file);
+            double[] a = new double[Math.multiplyExact(h.n, h.n)];
+            new DoubleCursor(ch, FileChannel.MapMode.READ_ONLY, HEADER_BYTES, 8L * a.length).get(a, 0, a.length);
+            return a;
+        }
+    }
+
+    /** Lee un vector. */
+    public static double[] readVector(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header h = expect(readHeader(ch, file), VECTOR, file);
+            double[] v = new double[h.n];
+            new DoubleCursor(ch, FileChannel.MapMode.READ_ONLY, HEADER_BYTES, 8L * h.n).get(v, 0, h.n);
+            return v;
+        }
+    }
+
+    /**
+     * Lee una matriz como SparseMatrix. Si el archivo es denso, se convierte
+     * descartando los ceros.
+     */
+    public static SparseMatrix readSparse(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header h = readHeader(ch, file);
+            if (h.kind == DENSE) {
+                return SparseMatrix.fromDense(readDense(file));
+            }
+            expect(h, SPARSE, file);
+
+            int n = h.n;
+            int nnz = h.nnz;
+            double[] diag = new double[n];
+            double[] values = new double[Math.max(nnz, 4)];
+            int[] rowPtr = new int[n + 1];
+            int[] colIdx = new int[Math.max(nnz, 4)];
+
+            long doublesBytes = 8L * (n + nnz);
+            if (ch.size() < HEADER_BYTES + doublesBytes + 4L * (n + 1 + nnz)) {
+                throw new IOException("Archivo incompleto: " + file);
+            }
+            DoubleCursor d = new DoubleCursor(ch, FileChannel.MapMode.READ_ONLY, HEADER_BYTES, doublesBytes);
+            d.get(diag, 0, n);
+            d.get(values, 0, nnz);
+            IntCursor ints = new IntCursor(ch, FileChannel.MapMode.READ_ONLY,
+                    HEADER_BYTES + doublesBytes, 4L * (n + 1 + nnz));
+            ints.get(rowPtr, 0, n + 1);
+            ints.get(colIdx, 0, nnz);
+
+            checkStructure(n, nnz, rowPtr, colIdx, file);
+            return new SparseMatrix(n, diag, rowPtr, colIdx, values);
+        }
+    }
+
+    // rowPtr creciente de 0 a nnz y columnas en 0..n-1 fuera de la diagonal:
+    // un archivo corrupto falla aquí y no dentro de un solver
+    static void checkStructure(int n, int nnz, int[] rowPtr, int[] colIdx, Path file) throws IOException {
+        if (rowPtr[0] != 0 || rowPtr[n] != nnz) {
+            throw new IOException("Archivo disperso inconsistente (rowPtr[0] = " + rowPtr[0] + ", rowPtr[n] = "
+                    + rowPtr[n] + ", nnz = " + nnz + "): " + file);
+        }
+        for (int i = 0; i < n; i++) {
+            if (rowPtr[i + 1] < rowPtr[i]) {
+                throw new IOException("Archivo disperso inconsistente (rowPtr decrece en la fila " + i + "): " + file);
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            for (int p = rowPtr[i]; p < rowPtr[i + 1]; p++) {
+                int j = colIdx[p];
+                if (j < 0 || j >= n || j == i) {
+                    throw new IOException("Archivo disperso inconsistente (columna " + j + " en la fila " + i
+                            + "): " + file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Vista de solo lectura, sin copias, de los datos de un archivo DENSE o
+     * VECTOR (hasta 2 GB). El acceso es directo sobre la página mapeada.
+     */
+    public static DoubleBuffer mapDoubles(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header h = readHeader(ch, file);
+            if (h.kind == SPARSE) {
+                throw new IOException("mapDoubles solo admite archivos densos o vectores: " + file);
+            }
+            long count = h.kind == DENSE ? (long) h.n * h.n : h.n;
+            if (8L * count > Integer.MAX_VALUE) {
+                throw new IOException("El archivo es demasiado grande para una sola vista: " + file);
+            }
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, 8L * count);
+            return buf.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+    }
+
+    // ==========================
+    // Conversión desde el formato de texto
+    // ==========================
+
+    /**
+     * Convierte un archivo de ecuaciones de texto (formato de
+     * {@link EquationParser#parseFile}) a una matriz dispersa y un vector binarios.
+     */
+    public static void convertEquations(Path equations, Path matrixOut, Path rhsOut) throws IOException {
+        EquationParser.ParsedSystem system =
+                EquationParser.parseFile(equations, Runtime.getRuntime().availableProcessors());
+        writeSparse(matrixOut, system.A);
+        writeVector(rhsOut, system.b);
+    }
+
+    // ==========================
+    // Auxiliares
+    // ==========================
+
+    static FileChannel openForWrite(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    static void writeHeader(FileChannel ch, int kind, int n, int nnz) throws IOException {
+        MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(kind).putLong(n).putLong(nnz).putLong(0L);
+    }
+
+    static Header readHeader(FileChannel ch, Path file) throws IOException {
+        if (ch.size() < HEADER_BYTES) {
+            throw new IOException("Archivo demasiado corto para ser una matriz binaria: " + file);
+        }
+        MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.getInt() != MAGIC) {
+            throw new IOException("El archivo no tiene el formato binario de matrices: " + file);
+        }
+        int kind = buf.getInt();
+        long n = buf.getLong();
+        long nnz = buf.getLong();
+        if (kind < DENSE || kind > VECTOR || n < 0 || n > Integer.MAX_VALUE || nnz < 0 || nnz > Integer.MAX_VALUE) {
+            throw new IOException("Cabecera inválida en " + file);
+        }
+        return new Header(kind, (int) n, (int) nnz);
+    }
+
+    static Header expect(Header h, int kind, Path file) throws IOException {
+        if (h.kind != kind) {
+            throw new IOException("Tipo de archivo inesperado (" + h.kind + ", se esperaba " + kind + "): " + file);
+        }
+        return h;
+    }
+
+    /**
+     * Recorre secuencialmente una región de doubles del archivo, mapeando
+     * ventanas de hasta windowBytes.
+     */
+    private static class DoubleCursor {
+        final FileChannel ch;
+        final FileChannel.MapMode mode;
+        long next;       // siguiente posición (bytes) a mapear
+        long remaining;  // bytes sin mapear aún
+        DoubleBuffer window;
+
+        DoubleCursor(FileChannel ch, FileChannel.MapMode mode, long start, long bytes) {
+            this.ch = ch;
+            this.mode = mode;
+            this.next = start;
+            this.remaining = bytes;
+        }
+
+        private DoubleBuffer window() throws IOException {
+            if (window == null || !window.hasRemaining()) {
+                long size = Math.min(remaining, windowBytes);
+                window = ch.map(mode, next, size).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+                next += size;
+                remaining -= size;
+            }
+            return window;
+        }
+
+        void get(double[] dst, int off, int len) throws IOException {
+            while (len > 0) {
+                DoubleBuffer w = window();
+                int k = Math.min(len, w.remaining());
+                w.get(dst, off, k);
+                off += k;
+                len -= k;
+            }
+        }
+
+        void put(double[] src, int off, int len) throws IOException {
+            while (len > 0) {
+                DoubleBuffer w = window();
+                int k = Math.min(len, w.remaining());
+                w.put(src, off, k);
+                off += k;
+                len -= k;
+            }
+        }
+    }
+
+    /**
+     * Igual que DoubleCursor, para enteros de 4 bytes.
+     */
+    private static class IntCursor {
+        final FileChannel ch;
+        final FileChannel.MapMode mode;
+        long next;
+        long remaining;
+        IntBuffer window;
+
+        IntCursor(FileChannel ch, FileChannel.MapMode mode, long start, long bytes) {
+            this.ch = ch;
+            this.mode = mode;
+            this.next = start;
+            this.remaining = bytes;
+        }
+
+        private IntBuffer window() throws IOException {
+            if (window == null || !window.hasRemaining()) {
+                long size = Math.min(remaining, windowBytes);
+                window = ch.map(mode, next, size).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+                next += size;
+                remaining -= size;
+            }
+            return window;
+        }
+
+        void get(int[] dst, int off, int len) throws IOException {
+            while (len > 0) {
+                IntBuffer w = window();
+                int k = Math.min(len, w.remaining());
+                w.get(dst, off, k);
+                off += k;
+                len -= k;
+            }
+        }
+
+        void put(int[] src, int off, int len) throws IOException {
+            while (len > 0) {
+                IntBuffer w = window();
+                int k = Math.min(len, w.remaining());
+                w.put(src, off, k);
+                off += k;
+                len -= k;
+            }
+        }
+    }
+
+    // ==========================
+    // main: conversor de texto a binario
+    // ==========================
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.out.println("Uso: java MatrixIO <ecuaciones.txt> <A.bin> <b.bin>");
+            System.out.println("Convierte un archivo de ecuaciones de texto al formato binario.");
+            return;
+        }
+        convertEquations(Paths.get(args[0]), Paths.get(args[1]), Paths.get(args[2]));
+        Header h = readHeader(Paths.get(args[1]));
+        System.out.println("Sistema de " + h.n + " ecuaciones (" + h.nnz
+                + " coeficientes fuera de la diagonal) guardado en " + args[1] + " y " + args[2]);
+    }
+}
@@ -0,0 +1,224 @@
+import java.util.Arrays;
+
+public class MixedPrecisionLU {
+
+    // ----------------------------------------------------------
+    // LU de precisión mixta con refinamiento iterativo.
+    //
+    // La factorización (O(n^3), limitada por el ancho de banda de memoria)
+    // se hace en float: la mitad de bytes y el doble de elementos por
+    // vector SIMD. La precisión double se recupera refinando:
+    //
+    //   x = LU_f \ b
+    //   repetir:
+    //     r = b - A x          (en double, con la A original)
+    //     d = LU_f \ r         (en float)
+    //     x = x + d            (en double)
+    //   hasta que |r| <= sqrt(n) * eps * |A| * |x|  (norma infinito, eps de double),
+    //   que es lo mismo que logra la LU en double.
+    //
+    // Cada paso reduce el error en un factor ~ cond(A) * 2^-24, así que si
+    // la corrección no baja al menos a la mitad (cond(A) demasiado grande
+    // para float) se abandona y se resuelve con la LU double de siempre.
+    //
+    // La matriz A no se modifica ni se copia en double: se guarda la
+    // referencia para calcular los residuos, así que no debe cambiar
+    // mientras se use el objeto.
+    // ----------------------------------------------------------
+
+    // Máximo de pasos de refinamiento antes de pasar a double
+    static final int MAX_REFINEMENTS = 30;
+
+    // La corrección tiene que bajar por lo menos este factor en cada paso
+    static final double STALL_RATIO = 0.5;
+
+    // Error relativo de redondeo de double (2^-52)
+    private static final double EPS = Math.ulp(1.0);
+
+    final int n;
+    final double[][] a;  // A original (para los residuos)
+    final float[] lu;    // L y U en float, contiguas por filas
+    final int[] o;       // vector de orden del pivoteo
+    final int er;        // error de la factorización en float
+    final double aNorm;  // |A|_inf
+
+    private final double tol;
+    private LUFactorization fallback; // LU en double, solo si hizo falta
+    private int lastSteps;
+    private boolean lastFellBack;
+
+    private MixedPrecisionLU(int n, double[][] a, float[] lu, int[] o, int er, double aNorm, double tol) {
+        this.n = n;
+        this.a = a;
+        this.lu = lu;
+        this.o = o;
+        this.er = er;
+        this.aNorm = aNorm;
+        this.tol = tol;
+    }
+
+    // ----------------------------------------------------------
+    // SUB LUdecomp(a, b, n, tol, x, er)
+    //
+    // Misma interfaz que LUProgram.LUdecomp, pero con la factorización en
+    // float y refinamiento iterativo. Devuelve el número de pasos de
+    // refinamiento que se hicieron. A diferencia de LUProgram.LUdecomp,
+    // 'a' y 'b' no se modifican.
+    //  - er: 0 = OK, -1 = sistema mal condicionado (también en double)
+    // ----------------------------------------------------------
+    public static int LUdecomp(double[][] a, double[] b, int n, double tol, double[] x, int[] er) {
+        MixedPrecisionLU f = factor(a, n, tol);
+        er[0] = 0;
+        try {
+            return f.solve(b, x);
+        } catch (ArithmeticException e) {
+            er[0] = -1;
+            return f.lastSteps;
+        }
+    }
+
+    // ----------------------------------------------------------
+    // SUB factor(a, n, tol)
+    //
+    // Pasa A a float y la factoriza con la versión float de BlockedLU.Decompose.
+    // ----------------------------------------------------------
+    public static MixedPrecisionLU factor(double[][] a, int n, double tol) {
+        float[] lu = new float[n * n];
+        double aNorm = 0.0;
+        for (int i = 0; i < n; i++) {
+            double[] row = a[i];
+            int base = i * n;
+            double rowSum = 0.0;
+            for (int j = 0; j < n; j++) {
+                lu[base + j] = (float) row[j];
+                rowSum += Math.abs(row[j]);
+            }
+            aNorm = Math.max(aNorm, rowSum);
+        }
+        int[] o = new int[n];
+        int[] er = new int[1];
+
+        BlockedLU.Decompose(lu, n, tol, new float[n], o, er, BlockedLU.DEFAULT_BLOCK);
+
+        return new MixedPrecisionLU(n, a, lu, o, er[0], aNorm, tol);
+    }
+
+    // ----------------------------------------------------------
+    // SUB solve(b, x)
+    //
+    // Resuelve A x = b con refinamiento iterativo y devuelve los pasos
+    // de refinamiento. Si la LU en float falló o el refinamiento se
+    // estanca, se termina con la LU en double (ver fellBack()).
+    // ----------------------------------------------------------
+    public int solve(double[] b, double[] x) {
+        lastSteps = 0;
+        lastFellBack = false;
+        if (er == -1) {
+            return solveDouble(b, x);
+        }
+
+        float[] rf = new float[n];
+        float[] df = new float[n];
+        double[] r = new double[n];
+
+        // Primera aproximación: x = LU_f \ b
+        double bNorm = toFloat(b, rf);
+        if (bNorm == 0.0) {
+            Arrays.fill(x, 0.0);
+            return 0;
+        }
+        BlockedLU.Substitute(lu, o, n, rf, df);
+        for (int i = 0; i < n; i++) {
+            x[i] = df[i] * bNorm;
+        }
+
+        double target = Math.sqrt(n) * EPS * aNorm;
+        double prevNorm = normInf(x);
+
+        for (int step = 0; ; step++) {
+            // r = b - A x, en double
+            for (int i = 0; i < n; i++) {
+                r[i] = VectorOps.dotSubtract(b[i], a[i], 0, x, 0, n);
+            }
+            double rNorm = toFloat(r, rf); // r se escala a norma 1 para no perder rango en float
+            if (rNorm <= target * normInf(x)) {
+                return step;
+            }
+            if (step == MAX_REFINEMENTS) {
+                break;
+            }
+            lastSteps = step + 1;
+
+            // d = LU_f \ r,  x = x + d
+            BlockedLU.Substitute(lu, o, n, rf, df);
+            double dNorm = 0.0;
+            for (int i = 0; i < n; i++) {
+                double d = df[i] * rNorm;
+                x[i] += d;
+                dNorm = Math.max(dNorm, Math.abs(d));
+            }
+
+            if (!(dNorm < STALL_RATIO * prevNorm)) {
+                break; // se estancó (o apareció un NaN)
+            }
+            prevNorm = dNorm;
+        }
+
+        return solveDouble(b, x);
+    }
+
+    // Resolución con la LU en double (se factoriza la primera vez que hace falta)
+    private int solveDouble(double[] b, double[] x) {
+        lastFellBack = true;
+        if (fallback == null) {
+            fallback = LUFactorization.factor(a, n, tol);
+        }
+        fallback.solve(b, x);
+        return lastSteps;
+    }
+
+    // Pasos de refinamiento del último solve
+    public int steps() {
+        return lastSteps;
+    }
+
+    // true si el último solve terminó con la LU en double
+    public boolean fellBack() {
+        return lastFellBack;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    // Código de error de la factorización en float (0 = OK, -1 = mal condicionado)
+    public int error() {
+        return er;
+    }
+
+    // Memoria de los factores en float (en bytes); la mitad que LUFactorization
+    public long bytes() {
+        return 4L * n * n + 4L * n;
+    }
+
+    // Copia v / |v|_inf en f y devuelve |v|_inf
+    private static double toFloat(double[] v, float[] f) {
+        double norm = normInf(v);
+        if (norm == 0.0) {
+            return 0.0;
+        }
+        double scale = 1.0 / norm;
+        for (int i = 0; i < v.length; i++) {
+            f[i] = (float) (v[i] * scale);
+        }
+        return norm;
+    }
+
+    private static double normInf(double[] v) {
+        double norm = 0.0;
+        for (double value : v) {
+            norm = Math.max(norm, Math.abs(value));
+        }
+        return norm;
+    }
+}
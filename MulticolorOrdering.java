@@ -0,0 +1,124 @@
+import java.util.Arrays;
+
+/**
+ * Coloreo del grafo de ecuaciones de una matriz dispersa.
+ *
+ * Dos incógnitas i y j son vecinas si A[i][j] != 0 o A[j][i] != 0. Con un
+ * coloreo voraz, ninguna ecuación de un color usa otra incógnita del mismo
+ * color, así que todas las incógnitas de un color se pueden actualizar a
+ * la vez (en paralelo) dentro de un barrido de Gauss-Seidel.
+ *
+ * Las incógnitas quedan agrupadas por color en {@link #order}:
+ * order[colorPtr[c]] .. order[colorPtr[c+1]-1] son las del color c.
+ */
+public class MulticolorOrdering {
+
+    final int[] color;     // color[i] = color de la incógnita i
+    final int[] colorPtr;  // inicio de cada color en 'order' (tamaño numColors + 1)
+    final int[] order;     // incógnitas ordenadas por color
+
+    private MulticolorOrdering(int[] color, int[] colorPtr, int[] order) {
+        this.color = color;
+        this.colorPtr = colorPtr;
+        this.order = order;
+    }
+
+    /**
+     * Colorea con el algoritmo voraz: cada incógnita toma el menor color que
+     * no tenga ninguno de sus vecinos ya coloreados.
+     */
+    public static MulticolorOrdering greedy(SparseMatrix A) {
+        int n = A.n;
+
+        // Vecinos por columna (patrón de la transpuesta) para que el grafo sea simétrico
+        int[] tPtr = new int[n + 1];
+        for (int p = 0; p < A.rowPtr[n]; p++) {
+            tPtr[A.colIdx[p] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            tPtr[i + 1] += tPtr[i];
+        }
+        int[] tIdx = new int[A.rowPtr[n]];
+        int[] next = Arrays.copyOf(tPtr, n);
+        for (int i = 0; i < n; i++) {
+            for (int p = A.rowPtr[i]; p < A.rowPtr[i + 1]; p++) {
+                tIdx[next[A.colIdx[p]]++] = i;
+            }
+        }
+
+        int[] color = new int[n];
+        Arrays.fill(color, -1);
+        int[] mark = new int[n + 1]; // mark[c] == i + 1 -> el color c lo usa un vecino de i
+        int numColors = 0;
+
+        for (int i = 0; i < n; i++) {
+            for (int p = A.rowPtr[i]; p < A.rowPtr[i + 1]; p++) {
+                int c = color[A.colIdx[p]];
+                if (c >= 0) {
+                    mark[c] = i + 1;
+                }
+            }
+            for (int p = tPtr[i]; p < tPtr[i + 1]; p++) {
+                int c = color[tIdx[p]];
+                if (c >= 0) {
+                    mark[c] = i + 1;
+                }
+            }
+
+            int c = 0;
+            while (mark[c] == i + 1) {
+                c++;
+            }
+            color[i] = c;
+            if (c + 1 > numColors) {
+                numColors = c + 1;
+            }
+        }
+
+        // Agrupamos las incógnitas por color (orden estable dentro de cada color)
+        int[] colorPtr = new int[numColors + 1];
+        for (int i = 0; i < n; i++) {
+            colorPtr[color[i] + 1]++;
+        }
+        for (int c = 0; c < numColors; c++) {
+            colorPtr[c + 1] += colorPtr[c];
+        }
+        int[] order = new int[n];
+        int[] pos = Arrays.copyOf(colorPtr, numColors);
+        for (int i = 0; i < n; i++) {
+            order[pos[color[i]]++] = i;
+        }
+
+        return new MulticolorOrdering(color, colorPtr, order);
+    }
+
+    /** Número de colores usados. */
+    public int numColors() {
+        return colorPtr.length - 1;
+    }
+
+    /** Color asignado a la incógnita i. */
+    public int colorOf(int i) {
+        return color[i];
+    }
+
+    /** Tamaño del color más grande (cuántas incógnitas se pueden actualizar a la vez). */
+    public int largestColor() {
+        int max = 0;
+        for (int c = 0; c < numColors(); c++) {
+            max = Math.max(max, colorPtr[c + 1] - colorPtr[c]);
+        }
+        return max;
+    }
+
+    /**
+     * Resumen del coloreo, por ejemplo "2 colores: [5000, 5000]".
+     */
+    public String describe() {
+        int[] sizes = new int[numColors()];
+        for (int c = 0; c < sizes.length; c++) {
+            sizes[c] = colorPtr[c + 1] - colorPtr[c];
+        }
+        return sizes.length + " colores: " + Arrays.toString(sizes);
+    }
+}
@@ -0,0 +1,168 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Matriz densa n x n de doubles fuera del heap de Java, fila por fila.
+ *
+ * Dos variantes:
+ *  - {@link #allocate}: memoria directa (ByteBuffer.allocateDirect), no
+ *    cuenta para -Xmx ni la recorre el recolector de basura.
+ *  - {@link #create} / {@link #map}: archivo DENSE de {@link MatrixIO}
+ *    mapeado en memoria en modo lectura/escritura. El sistema operativo
+ *    trae y descarga las páginas, así que la matriz puede ser más grande
+ *    que la RAM; los cambios quedan en el archivo.
+ *
+ * Un ByteBuffer no puede pasar de 2 GB, así que la matriz se reparte en
+ * trozos de hasta MatrixIO.windowBytes con filas enteras en cada uno:
+ * una fila (o parte de ella) siempre se copia con una sola operación.
+ *
+ * El acceso de a un elemento ({@link #get}, {@link #set}) es cómodo pero
+ * lento; los algoritmos deben copiar tramos de fila a arreglos del heap
+ * con {@link #getRow} y {@link #putRow} (ver OutOfCoreLU).
+ */
+public class OffHeapMatrix implements AutoCloseable {
+
+    final int n;
+    final int rowsPerChunk;
+    final DoubleBuffer[] chunks;
+    private final ByteBuffer[] bytes;    // los mismos trozos, para force()
+    private final FileChannel channel;   // null con memoria directa
+
+    private OffHeapMatrix(int n, int rowsPerChunk, ByteBuffer[] bytes, FileChannel channel) {
+        this.n = n;
+        this.rowsPerChunk = rowsPerChunk;
+        this.bytes = bytes;
+        this.channel = channel;
+        this.chunks = new DoubleBuffer[bytes.length];
+        for (int c = 0; c < bytes.length; c++) {
+            chunks[c] = bytes[c].order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+    }
+
+    /** Matriz n x n en ceros, en memoria directa. */
+    public static OffHeapMatrix allocate(int n) {
+        int rows = rowsPerChunk(n);
+        ByteBuffer[] bytes = new ByteBuffer[chunkCount(n, rows)];
+        for (int c = 0; c < bytes.length; c++) {
+            bytes[c] = ByteBuffer.allocateDirect(8 * n * chunkRows(n, rows, c));
+        }
+        return new OffHeapMatrix(n, rows, bytes, null);
+    }
+
+    /** Crea (o reemplaza) un archivo DENSE de n x n ceros y lo mapea. */
+    public static OffHeapMatrix create(Path file, int n) throws IOException {
+        FileChannel ch = MatrixIO.openForWrite(file);
+        try {
+            MatrixIO.writeHeader(ch, MatrixIO.DENSE, n, 0);
+            return mapChunks(ch, n);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    /** Mapea un archivo DENSE existente para leerlo y modificarlo en el lugar. */
+    public static OffHeapMatrix map(Path file) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MatrixIO.Header h = MatrixIO.expect(MatrixIO.readHeader(ch, file), MatrixIO.DENSE, file);
+            if (ch.size() < MatrixIO.HEADER_BYTES + 8L * h.n * h.n) {
+                throw new IOException("Archivo incompleto: " + file);
+            }
+            return mapChunks(ch, h.n);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    private static OffHeapMatrix mapChunks(FileChannel ch, int n) throws IOException {
+        int rows = rowsPerChunk(n);
+        ByteBuffer[] bytes = new ByteBuffer[chunkCount(n, rows)];
+        long position = MatrixIO.HEADER_BYTES;
+        for (int c = 0; c < bytes.length; c++) {
+            long size = 8L * n * chunkRows(n, rows, c);
+            bytes[c] = ch.map(FileChannel.MapMode.READ_WRITE, position, size);
+            position += size;
+        }
+        return new OffHeapMatrix(n, rows, bytes, ch);
+    }
+
+    // Filas enteras que entran en una ventana (al menos una)
+    private static int rowsPerChunk(int n) {
+        if (n <= 0) {
+            return 1;
+        }
+        return (int) Math.max(1, Math.min(n, MatrixIO.windowBytes / (8L * n)));
+    }
+
+    private static int chunkCount(int n, int rows) {
+        return (n + rows - 1) / rows;
+    }
+
+    private static int chunkRows(int n, int rows, int c) {
+        return Math.min(rows, n - c * rows);
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public double get(int i, int j) {
+        return chunks[i / rowsPerChunk].get((i % rowsPerChunk) * n + j);
+    }
+
+    public void set(int i, int j, double value) {
+        chunks[i / rowsPerChunk].put((i % rowsPerChunk) * n + j, value);
+    }
+
+    /** Copia A(i, from .. from+len-1) a dst[off ..]. */
+    public void getRow(int i, int from, double[] dst, int off, int len) {
+        chunks[i / rowsPerChunk].get((i % rowsPerChunk) * n + from, dst, off, len);
+    }
+
+    /** Copia src[off .. off+len-1] a A(i, from ..). */
+    public void putRow(int i, int from, double[] src, int off, int len) {
+        chunks[i / rowsPerChunk].put((i % rowsPerChunk) * n + from, src, off, len);
+    }
+
+    /** Carga la matriz desde un arreglo del heap (por ejemplo, para pruebas). */
+    public void load(double[][] a) {
+        for (int i = 0; i < n; i++) {
+            putRow(i, 0, a[i], 0, n);
+        }
+    }
+
+    /** true si la matriz está en un archivo mapeado. */
+    public boolean isMapped() {
+        return channel != null;
+    }
+
+    /** Escribe al disco las páginas modificadas (solo archivos mapeados). */
+    public void flush() {
+        if (channel == null) {
+            return;
+        }
+        for (ByteBuffer b : bytes) {
+            ((MappedByteBuffer) b).force();
+        }
+    }
+
+    /**
+     * Cierra el archivo. Los ByteBuffer se liberan cuando los recoge el GC,
+     * así que no se debe usar la matriz después de cerrarla.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            flush();
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,358 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class OutOfCoreLU {
+
+    // ----------------------------------------------------------
+    // Factorización LU por bloques sobre una OffHeapMatrix (memoria directa
+    // o archivo mapeado), para matrices que no entran en el heap de Java.
+    //
+    // Mismo algoritmo que BlockedLU.Decompose (panel, U12, A22 - L21*U12),
+    // pero la matriz nunca se carga completa: en el heap solo están
+    //   - el panel L (n x nb) que se está factorizando,
+    //   - el bloque U12 (nb x n) de la fila de bloques,
+    //   - un tramo de fila por hilo para la actualización de A22.
+    // Cada panel hace una sola pasada secuencial por las filas restantes,
+    // así que con nb grande se lee y escribe el archivo pocas veces
+    // (unas n / nb pasadas en total).
+    //
+    // Pivoteo: los intercambios de Pivot no mueven filas en el archivo.
+    // Se guarda una permutación lógica
+    //   o[i] = fila física (= fila original) que está en la posición i
+    // y todas las lecturas de la fila i van a la fila física o[i]. Al
+    // terminar, la fila física o[i] contiene la fila i de L\U.
+    //
+    // Cada elemento recibe las mismas restas, en el mismo orden de k, que en
+    // BlockedLU.Decompose con el mismo nb, así que la L\U es idéntica bit a
+    // bit (salvo que las filas quedan en el orden original).
+    // ----------------------------------------------------------
+
+    // ----------------------------------------------------------
+    // SUB Decompose(a, tol, o, s, er)
+    //
+    // Con el ancho de panel de panelWidth(n), todos los procesadores y los
+    // mensajes por consola.
+    // ----------------------------------------------------------
+    public static void Decompose(OffHeapMatrix a, double tol, int[] o, double[] s, int[] er) {
+        Decompose(a, tol, o, s, er, panelWidth(a.n), Runtime.getRuntime().availableProcessors(),
+                SolverListener.CONSOLE);
+    }
+
+    // ----------------------------------------------------------
+    // SUB Decompose(a, tol, o, s, er, nb, parallelism, listener)
+    //
+    //  - o: permutación lógica (ver arriba)
+    //  - s: vector de escala, indexado por posición (se permuta con o)
+    //  - er: código de error (0 = OK, -1 = sistema mal condicionado)
+    //  - nb: columnas por panel
+    //  - parallelism: hilos para la actualización de A22 (1 = secuencial)
+    // ----------------------------------------------------------
+    public static void Decompose(OffHeapMatrix a, double tol, int[] o, double[] s, int[] er, int nb,
+                                 int parallelism, SolverListener listener) {
+        int n = a.n;
+        er[0] = 0;
+        if (n == 0) {
+            return;
+        }
+        nb = Math.max(1, Math.min(nb, n));
+
+        // 1. Vector de escala y permutación inicial (una pasada por la matriz)
+        double[] row = new double[n];
+        for (int i = 0; i < n; i++) {
+            a.getRow(i, 0, row, 0, n);
+            double big = 0.0;
+            for (int j = 0; j < n; j++) {
+                double abs = Math.abs(row[j]);
+                if (abs > big) {
+                    big = abs;
+                }
+            }
+            s[i] = big;
+            o[i] = i;
+        }
+
+        double[] panel = new double[n * nb];   // L(kb..n-1, kb..kend-1), w columnas por fila
+        double[] upper = new double[nb * n];   // U12(kb..kend-1, kend..n-1)
+        ForkJoinPool pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        try {
+            // 2. Recorremos la matriz panel por panel
+            for (int kb = 0; kb < n; kb += nb) {
+                int kend = Math.min(kb + nb, n);
+                int w = kend - kb;
+
+                // 2.1 Panel: se lee, se factoriza en el heap y se escribe
+                for (int i = kb; i < n; i++) {
+                    a.getRow(o[i], kb, panel, (i - kb) * w, w);
+                }
+                if (!factorPanel(panel, n, kb, kend, tol, o, s, listener)) {
+                    er[0] = -1;
+                    writePanel(a, panel, o, kb, kend, n);
+                    return;
+                }
+                writePanel(a, panel, o, kb, kend, n);
+
+                if (kend == n) {
+                    break;
+                }
+
+                // 2.2 Bloque U12: sustitución hacia adelante con L11 (diagonal unitaria)
+                int m = n - kend;
+                for (int k = kb; k < kend; k++) {
+                    a.getRow(o[k], kend, upper, (k - kb) * m, m);
+                }
+                for (int k = kb; k < kend; k++) {
+                    for (int i = k + 1; i < kend; i++) {
+                        VectorOps.eliminate(upper, (i - kb) * m, panel[(i - kb) * w + (k - kb)],
+                                upper, (k - kb) * m, m);
+                    }
+                }
+                for (int k = kb; k < kend; k++) {
+                    a.putRow(o[k], kend, upper, (k - kb) * m, m);
+                }
+
+                // 2.3 A22 = A22 - L21 * U12, fila por fila
+                if (pool == null || (long) m * m < LUProgram.PARALLEL_THRESHOLD) {
+                    updateRows(a, panel, upper, o, kb, kend, kend, n);
+                } else {
+                    pool.invoke(new UpdateTask(a, panel, upper, o, kb, kend, kend, n));
+                }
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+
+        // Revisión final del último pivote
+        if (Math.abs(a.get(o[n - 1], n - 1) / s[n - 1]) < tol) {
+            er[0] = -1;
+        }
+    }
+
+    // ----------------------------------------------------------
+    // SUB factorPanel(panel, n, kb, kend, tol, o, s, listener)
+    //
+    // Eliminación con pivoteo parcial escalado sobre el panel en el heap.
+    // Al intercambiar se mueven solo las w columnas del panel (en el heap)
+    // y las entradas de o y s; el resto de la fila se lee después a través
+    // de o. Devuelve false si un pivote es demasiado pequeño.
+    // ----------------------------------------------------------
+    private static boolean factorPanel(double[] panel, int n, int kb, int kend, double tol, int[] o, double[] s,
+                                       SolverListener listener) {
+        int w = kend - kb;
+        for (int k = kb; k < kend; k++) {
+            if (k == n - 1) {
+                break; // el último pivote se revisa al final, como en Decompose
+            }
+            int c = k - kb; // columna k dentro del panel
+
+            // Pivot: máximo |a(i,k)| / s(i) en i = k..n-1
+            int p = k;
+            double big = Math.abs(panel[c * w + c] / s[k]);
+            for (int i = k + 1; i < n; i++) {
+                double dummy = Math.abs(panel[(i - kb) * w + c] / s[i]);
+                if (dummy > big) {
+                    big = dummy;
+                    p = i;
+                }
+            }
+
+            if (p != k) {
+                int rowK = c * w;
+                int rowP = (p - kb) * w;
+                for (int j = 0; j < w; j++) {
+                    double temp = panel[rowK + j];
+                    panel[rowK + j] = panel[rowP + j];
+                    panel[rowP + j] = temp;
+                }
+
+                double tempS = s[k];
+                s[k] = s[p];
+                s[p] = tempS;
+
+                int tempO = o[k];
+                o[k] = o[p];
+                o[p] = tempO;
+
+                listener.pivotSwap(k, p);
+            }
+
+            if (Math.abs(panel[c * w + c] / s[k]) < tol) {
+                listener.smallPivot(k, Math.abs(panel[c * w + c] / s[k]));
+                return false;
+            }
+
+            int rowK = c * w;
+            double pivot = panel[rowK + c];
+            for (int i = k + 1; i < n; i++) {
+                int rowI = (i - kb) * w;
+                double factor = panel[rowI + c] / pivot; // L(i,k)
+                panel[rowI + c] = factor;
+                VectorOps.eliminate(panel, rowI + c + 1, factor, panel, rowK + c + 1, kend - k - 1);
+            }
+        }
+        return true;
+    }
+
+    private static void writePanel(OffHeapMatrix a, double[] panel, int[] o, int kb, int kend, int n) {
+        int w = kend - kb;
+        for (int i = kb; i < n; i++) {
+            a.putRow(o[i], kb, panel, (i - kb) * w, w);
+        }
+    }
+
+    // ----------------------------------------------------------
+    // SUB updateRows(a, panel, upper, o, kb, kend, from, to)
+    //
+    // A22(i, kend..n-1) -= L21(i, kb..kend-1) * U12 para i = from..to-1.
+    // Cada fila se lee una vez, recibe las restas en orden creciente de k
+    // y se vuelve a escribir.
+    // ----------------------------------------------------------
+    static void updateRows(OffHeapMatrix a, double[] panel, double[] upper, int[] o, int kb, int kend,
+                           int from, int to) {
+        int n = a.n;
+        int w = kend - kb;
+        int m = n - kend;
+        double[] row = new double[m];
+        for (int i = from; i < to; i++) {
+            a.getRow(o[i], kend, row, 0, m);
+            int rowI = (i - kb) * w;
+            for (int k = kb; k < kend; k++) {
+                VectorOps.eliminate(row, 0, panel[rowI + (k - kb)], upper, (k - kb) * m, m);
+            }
+            a.putRow(o[i], kend, row, 0, m);
+        }
+    }
+
+    // ----------------------------------------------------------
+    // Tarea fork/join: divide el rango de filas de A22 por la mitad (como
+    // LUProgram.EliminateTask). Las filas son distintas, así que los hilos
+    // no escriben nunca el mismo tramo de la matriz.
+    // ----------------------------------------------------------
+    @SuppressWarnings("serial")
+    private static class UpdateTask extends RecursiveAction {
+        final OffHeapMatrix a;
+        final double[] panel, upper;
+        final int[] o;
+        final int kb, kend, from, to;
+
+        UpdateTask(OffHeapMatrix a, double[] panel, double[] upper, int[] o, int kb, int kend, int from, int to) {
+            this.a = a;
+            this.panel = panel;
+            this.upper = upper;
+            this.o = o;
+            this.kb = kb;
+            this.kend = kend;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if ((long) (to - from) * (a.n - kend) <= LUProgram.PARALLEL_GRAIN || to - from < 2) {
+                updateRows(a, panel, upper, o, kb, kend, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new UpdateTask(a, panel, upper, o, kb, kend, from, mid),
+                    new UpdateTask(a, panel, upper, o, kb, kend, mid, to));
+        }
+    }
+
+    // ----------------------------------------------------------
+    // SUB Substitute(a, o, b, x)
+    //
+    // Sustitución hacia adelante y atrás leyendo la L\U fila por fila a
+    // través de o (dos pasadas por la matriz). b se pasa en el orden
+    // original y no se modifica.
+    // ----------------------------------------------------------
+    public static void Substitute(OffHeapMatrix a, int[] o, double[] b, double[] x) {
+        int n = a.n;
+        double[] row = new double[n];
+
+        // 1) L * y = P b  (y se guarda en x)
+        for (int i = 0; i < n; i++) {
+            a.getRow(o[i], 0, row, 0, i);
+            x[i] = VectorOps.dotSubtract(b[o[i]], row, 0, x, 0, i);
+        }
+
+        // 2) U * x = y
+        for (int i = n - 1; i >= 0; i--) {
+            a.getRow(o[i], i, row, i, n - i);
+            double sum = VectorOps.dotSubtract(x[i], row, i + 1, x, i + 1, n - i - 1);
+            x[i] = sum / row[i];
+        }
+    }
+
+    // ----------------------------------------------------------
+    // Ancho de panel: el panel y U12 ocupan 2 * 8 * n * nb bytes del heap;
+    // se usa hasta un cuarto del heap máximo, y nunca menos que
+    // BlockedLU.DEFAULT_BLOCK. Mientras más ancho, menos pasadas por el disco.
+    // ----------------------------------------------------------
+    public static int panelWidth(int n) {
+        long budget = Runtime.getRuntime().maxMemory() / 4;
+        long nb = budget / (16L * Math.max(1, n));
+        return (int) Math.max(1, Math.min(n, Math.max(BlockedLU.DEFAULT_BLOCK, Math.min(nb, 4096))));
+    }
+
+    // ----------------------------------------------------------
+    // PROGRAMA PRINCIPAL
+    //
+    //   java OutOfCoreLU A.bin b.bin [x.bin]
+    //
+    // A y b en el formato binario de MatrixIO. A se copia a A.bin.lu y la
+    // factorización se hace en esa copia mapeada (el archivo original no
+    // se toca); al terminar A.bin.lu contiene la L\U por filas originales.
+    // ----------------------------------------------------------
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Uso: java OutOfCoreLU <A.bin> <b.bin> [x.bin]");
+            System.out.println("Resuelve A x = b con la matriz en disco (LU por bloques fuera del heap).");
+            return;
+        }
+        Path in = Paths.get(args[0]);
+        Path work = Paths.get(args[0] + ".lu");
+        double tol = 1e-6;
+
+        Files.copy(in, work, StandardCopyOption.REPLACE_EXISTING);
+        try (OffHeapMatrix a = OffHeapMatrix.map(work)) {
+            int n = a.size();
+            double[] b = MatrixIO.readVector(Paths.get(args[1]));
+            if (b.length != n) {
+                System.out.println("El vector b tiene " + b.length + " elementos; se esperaban " + n + ".");
+                return;
+            }
+            int[] o = new int[n];
+            double[] s = new double[n];
+            int[] er = new int[1];
+
+            int nb = panelWidth(n);
+            System.out.println("Factorizando A (" + n + " x " + n + ") en " + work + " con paneles de " + nb
+                    + " columnas...");
+            long start = System.nanoTime();
+            Decompose(a, tol, o, s, er, nb, Runtime.getRuntime().availableProcessors(), SolverListener.CONSOLE);
+            if (er[0] != 0) {
+                System.out.println("El sistema está mal condicionado. No se puede resolver.");
+                return;
+            }
+
+            double[] x = new double[n];
+            Substitute(a, o, b, x);
+            System.out.printf("Resuelto en %.1f s%n", (System.nanoTime() - start) / 1e9);
+
+            if (args.length > 2) {
+                MatrixIO.writeVector(Paths.get(args[2]), x);
+                System.out.println("Solución guardada en " + args[2]);
+            } else {
+                for (int i = 0; i < n; i++) {
+                    System.out.println("x" + (i + 1) + " = " + x[i]);
+                }
+            }
+        }
+    }
+}
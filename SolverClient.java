@@ -0,0 +1,244 @@
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cliente de {@link SolverServer} con pipelining: cada método manda el
+ * pedido y devuelve enseguida un CompletableFuture, así que se pueden
+ * tener muchos pedidos en vuelo por la misma conexión. Un hilo lector
+ * completa cada futuro cuando llega la respuesta con su id.
+ *
+ * Si la factorización falla (er = -1) el futuro termina con
+ * ArithmeticException; si el servidor responde ERROR, con
+ * IllegalStateException y el mensaje del servidor. Un pedido que no
+ * entra en un mensaje de SolverServer.MAX_FRAME bytes se rechaza con
+ * IllegalArgumentException antes de mandarlo.
+ */
+public class SolverClient implements AutoCloseable {
+
+    private final SocketChannel channel;
+    private final ConcurrentHashMap<Long, CompletableFuture<ByteBuffer>> pending = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final Thread reader;
+
+    private SolverClient(SocketChannel channel) {
+        this.channel = channel;
+        this.reader = new Thread(this::readResponses, "solver-client-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /** Conecta a un servidor TCP en localhost. */
+    public static SolverClient tcp(int port) throws IOException {
+        return connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    /** Conecta a un servidor en un socket de dominio Unix. */
+    public static SolverClient unix(Path socket) throws IOException {
+        SocketChannel ch = SocketChannel.open(StandardProtocolFamily.UNIX);
+        ch.connect(UnixDomainSocketAddress.of(socket));
+        return new SolverClient(ch);
+    }
+
+    public static SolverClient connect(SocketAddress address) throws IOException {
+        if (address instanceof UnixDomainSocketAddress) {
+            return unix(((UnixDomainSocketAddress) address).getPath());
+        }
+        return new SolverClient(SocketChannel.open(address));
+    }
+
+    // ==========================
+    // Pedidos
+    // ==========================
+
+    /** A x = b con LU (el servidor guarda la factorización en su LUCache). */
+    public CompletableFuture<double[]> luSolve(double[][] a, double[] b, double tol) {
+        int n = b.length;
+        int payload = payload(12 + 8L * n * n + 8L * n);
+        long id = nextId.getAndIncrement();
+        ByteBuffer out = SolverServer.header(id, SolverServer.LU_SOLVE, payload);
+        out.putInt(n).putDouble(tol);
+        for (int i = 0; i < n; i++) {
+            SolverServer.putDoubles(out, a[i], n);
+        }
+        SolverServer.putDoubles(out, b, n);
+        return send(id, out).thenApply(SolverServer::readVector);
+    }
+
+    /** Factoriza A en el servidor y devuelve un handle para {@link #solve}. */
+    public CompletableFuture<Long> factor(double[][] a, double tol) {
+        int n = a.length;
+        int payload = payload(12 + 8L * n * n);
+        long id = nextId.getAndIncrement();
+        ByteBuffer out = SolverServer.header(id, SolverServer.FACTOR, payload);
+        out.putInt(n).putDouble(tol);
+        for (int i = 0; i < n; i++) {
+            SolverServer.putDoubles(out, a[i], n);
+        }
+        return send(id, out).thenApply(ByteBuffer::getLong);
+    }
+
+    /** A x = b con una factorización guardada en el servidor (O(n^2)). */
+    public CompletableFuture<double[]> solve(long handle, double[] b) {
+        int payload = payload(12 + 8L * b.length);
+        long id = nextId.getAndIncrement();
+        ByteBuffer out = SolverServer.header(id, SolverServer.SOLVE, payload);
+        out.putLong(handle);
+        SolverServer.putVector(out, b);
+        return send(id, out).thenApply(SolverServer::readVector);
+    }
+
+    /** Libera una factorización guardada. */
+    public CompletableFuture<Void> release(long handle) {
+        long id = nextId.getAndIncrement();
+        ByteBuffer out = SolverServer.header(id, SolverServer.RELEASE, 8);
+        out.putLong(handle);
+        return send(id, out).thenApply(in -> null);
+    }
+
+    /** Gauss-Seidel disperso en el servidor, partiendo de x0 = 0. */
+    public CompletableFuture<double[]> gaussSeidel(SparseMatrix A, double[] b, double tol, int maxIter) {
+        int n = A.n;
+        int nnz = A.rowPtr[n];
+        int payload = payload(20 + 8L * n + 8L * nnz + 4L * (n + 1) + 4L * nnz + 8L * n);
+        long id = nextId.getAndIncrement();
+        ByteBuffer out = SolverServer.header(id, SolverServer.GAUSS_SEIDEL, payload);
+        out.putInt(n).putInt(nnz).putDouble(tol).putInt(maxIter);
+        SolverServer.putDoubles(out, A.diag, n);
+        SolverServer.putDoubles(out, A.values, nnz);
+        SolverServer.putInts(out, A.rowPtr, n + 1);
+        SolverServer.putInts(out, A.colIdx, nnz);
+        SolverServer.putDoubles(out, b, n);
+        return send(id, out).thenApply(SolverServer::readVector);
+    }
+
+    /** Tabla de latencias del servidor. */
+    public CompletableFuture<String> stats() {
+        long id = nextId.getAndIncrement();
+        return send(id, SolverServer.header(id, SolverServer.STATS, 0)).thenApply(SolverServer::readText);
+    }
+
+    // Tamaño del contenido en long (8 n^2 desborda un int para n > 16383);
+    // si el mensaje no entra en MAX_FRAME el servidor lo rechazaría igual
+    private static int payload(long bytes) {
+        if (12 + bytes > SolverServer.MAX_FRAME) {
+            throw new IllegalArgumentException("El pedido ocupa " + (12 + bytes)
+                    + " bytes; el máximo es " + SolverServer.MAX_FRAME);
+        }
+        return (int) bytes;
+    }
+
+    private CompletableFuture<ByteBuffer> send(long id, ByteBuffer frame) {
+        CompletableFuture<ByteBuffer> future = new CompletableFuture<>();
+        pending.put(id, future);
+        try {
+            SolverServer.writeFrame(channel, frame);
+        } catch (IOException e) {
+            pending.remove(id);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    // Hilo lector: empareja cada respuesta con su pedido por el id
+    private void readResponses() {
+        try {
+            ByteBuffer in;
+            while ((in = SolverServer.readFrame(channel, SolverServer.MAX_FRAME)) != null) {
+                long id = in.getLong();
+                int status = in.getInt();
+                CompletableFuture<ByteBuffer> future = pending.remove(id);
+                if (future == null) {
+                    continue;
+                }
+                if (status == SolverServer.OK) {
+                    future.complete(in);
+                } else if (status == SolverServer.ILL_CONDITIONED) {
+                    future.completeExceptionally(
+                            new ArithmeticException("La matriz está mal condicionada; no se puede resolver."));
+                } else {
+                    future.completeExceptionally(new IllegalStateException(SolverServer.readText(in)));
+                }
+            }
+            failPending(new IOException("El servidor cerró la conexión"));
+        } catch (IOException e) {
+            failPending(e);
+        }
+    }
+
+    private void failPending(IOException e) {
+        for (Long id : pending.keySet()) {
+            CompletableFuture<ByteBuffer> future = pending.remove(id);
+            if (future != null) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // ----------------------------------------------------------
+    // Prueba de carga:
+    //   java SolverClient [puerto | unix:/ruta] [n] [pedidos]
+    //
+    // Factoriza una matriz aleatoria n x n en el servidor y manda todos
+    // los solves seguidos (pipelining); al final muestra el rendimiento y
+    // las latencias del servidor.
+    // ----------------------------------------------------------
+    public static void main(String[] args) throws Exception {
+        String where = args.length > 0 ? args[0] : String.valueOf(SolverServer.DEFAULT_PORT);
+        int n = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+
+        Random random = new Random(42);
+        double[][] a = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            double sum = 0.0;
+            for (int j = 0; j < n; j++) {
+                a[i][j] = random.nextDouble() - 0.5;
+                sum += Math.abs(a[i][j]);
+            }
+            a[i][i] = sum + 1.0;
+        }
+        double[] b = new double[n];
+        for (int i = 0; i < n; i++) {
+            b[i] = random.nextDouble();
+        }
+
+        try (SolverClient client = where.startsWith("unix:")
+                ? unix(Path.of(where.substring("unix:".length())))
+                : tcp(Integer.parseInt(where))) {
+            long handle = client.factor(a, 1e-6).get();
+
+            long start = System.nanoTime();
+            List<CompletableFuture<double[]>> futures = new ArrayList<>(requests);
+            for (int r = 0; r < requests; r++) {
+                futures.add(client.solve(handle, b));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%d solves de %d x %d en %.2f s (%.0f por segundo)%n",
+                    requests, n, n, seconds, requests / seconds);
+            System.out.println("|b - A x|_inf del último: " + GaussSeidelWithEquations.residualNorm(a, b,
+                    futures.get(requests - 1).get()));
+            client.release(handle).get();
+            System.out.print(client.stats().get());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Recibe los eventos de los métodos numéricos (iteraciones de Gauss-Seidel
+ * y SOR, pivoteo de la descomposición LU) en lugar de imprimirlos.
+ *
+ * Todos los métodos tienen una implementación vacía, así que cada
+ * listener solo sobreescribe lo que le interesa. Hay tres implementaciones:
+ *  - {@link #CONSOLE}: imprime los mismos mensajes de siempre (es el valor por defecto)
+ *  - {@link #SILENT}:  no hace nada (modo silencioso)
+ *  - {@link SolverMetrics}: acumula contadores e histogramas
+ */
+public interface SolverListener {
+
+    /** Modo silencioso: se ignoran todos los eventos. */
+    SolverListener SILENT = new SolverListener() {
+    };
+
+    /** Imprime por consola, igual que antes de existir los listeners. */
+    SolverListener CONSOLE = new SolverListener() {
+        @Override
+        public void iteration(int iter, double maxError, double residual, long elapsedNanos) {
+            System.out.printf("Iteración %d, error máximo = %.10f%n", iter, maxError);
+        }
+
+        @Override
+        public void finished(int iterations, boolean converged, long elapsedNanos) {
+            if (converged) {
+                System.out.println("Convergencia alcanzada en " + iterations + " iteraciones.");
+            } else {
+                System.out.println("No se alcanzó la convergencia en " + iterations + " iteraciones.");
+            }
+        }
+
+        @Override
+        public void smallPivot(int k, double ratio) {
+            System.out.println("Pivot demasiado pequeño en la fila " + (k + 1));
+        }
+
+        @Override
+        public void decomposed(double[][] a) {
+            System.out.println("\nMatriz A después de la descomposición LU (L y U mezcladas):");
+            LUProgram.printMatrix(a);
+        }
+
+        @Override
+        public void info(String message) {
+            System.out.println(message);
+        }
+    };
+
+    /**
+     * true si el listener quiere la norma del residuo ||b - A x||_inf en cada
+     * iteración. Calcularla cuesta un barrido extra, por eso es opcional.
+     */
+    default boolean wantsResidual() {
+        return false;
+    }
+
+    /**
+     * Fin de una iteración de un método iterativo.
+     *
+     * @param iter         Número de iteración (desde 1)
+     * @param maxError     max |x_k - x_{k-1}|
+     * @param residual     ||b - A x||_inf (en GMRES, la estimación de ||b - A x||_2
+     *                     que da la Hessenberg), o NaN si {@link #wantsResidual()} es false
+     * @param elapsedNanos Duración de la iteración
+     */
+    default void iteration(int iter, double maxError, double residual, long elapsedNanos) {
+    }
+
+    /**
+     * Fin de un método iterativo.
+     *
+     * @param iterations   Iteraciones realizadas
+     * @param converged    true si se alcanzó la tolerancia
+     * @param elapsedNanos Duración total
+     */
+    default void finished(int iterations, boolean converged, long elapsedNanos) {
+    }
+
+    /** En el paso k de la eliminación se intercambió la fila k con la fila 'row'. */
+    default void pivotSwap(int k, int row) {
+    }
+
+    /** El pivote normalizado |a(k,k)/s(k)| del paso k quedó por debajo de la tolerancia. */
+    default void smallPivot(int k, double ratio) {
+    }
+
+    /** La descomposición LU terminó; 'a' tiene L y U mezcladas. */
+    default void decomposed(double[][] a) {
+    }
+
+    /** Mensaje informativo (omega estimado, coloreo usado, etc.). */
+    default void info(String message) {
+    }
+}
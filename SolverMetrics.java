@@ -0,0 +1,214 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Listener que acumula métricas en vez de imprimir: contadores
+ * (iteraciones, resoluciones, intercambios de filas, pivotes pequeños) e
+ * histogramas (tiempo por iteración, iteraciones por resolución, error
+ * final y residuo). Es seguro usarlo desde varios hilos a la vez.
+ *
+ * {@link #export(String)} devuelve todo en el formato de texto de
+ * Prometheus, para publicarlo o guardarlo en el log.
+ */
+public class SolverMetrics implements SolverListener {
+
+    /**
+     * Histograma con límites superiores fijos (acumulativo al exportar).
+     */
+    public static class Histogram {
+        final double[] bounds;
+        final AtomicLongArray counts; // counts[bounds.length] = valores por encima del último límite
+        final DoubleAdder sum = new DoubleAdder();
+
+        public Histogram(double... bounds) {
+            this.bounds = bounds.clone();
+            this.counts = new AtomicLongArray(bounds.length + 1);
+        }
+
+        public void observe(double value) {
+            int i = 0;
+            while (i < bounds.length && value > bounds[i]) {
+                i++;
+            }
+            counts.incrementAndGet(i);
+            sum.add(value);
+        }
+
+        public long count() {
+            long total = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                total += counts.get(i);
+            }
+            return total;
+        }
+
+        public double sum() {
+            return sum.sum();
+        }
+
+        void export(StringBuilder out, String name) {
+            out.append("# TYPE ").append(name).append(" histogram\n");
+            long cumulative = 0;
+            for (int i = 0; i < bounds.length; i++) {
+                cumulative += counts.get(i);
+                out.append(name).append("_bucket{le=\"").append(format(bounds[i])).append("\"} ")
+                        .append(cumulative).append('\n');
+            }
+            cumulative += counts.get(bounds.length);
+            out.append(name).append("_bucket{le=\"+Inf\"} ").append(cumulative).append('\n');
+            out.append(name).append("_sum ").append(format(sum())).append('\n');
+            out.append(name).append("_count ").append(cumulative).append('\n');
+        }
+    }
+
+    private final boolean residual;
+
+    final LongAdder iterations = new LongAdder();
+    final LongAdder solves = new LongAdder();
+    final LongAdder converged = new LongAdder();
+    final LongAdder notConverged = new LongAdder();
+    final LongAdder pivotSwaps = new LongAdder();
+    final LongAdder smallPivots = new LongAdder();
+    final LongAdder decompositions = new LongAdder();
+
+    // Tiempo por iteración, en segundos (1 us .. 10 s)
+    final Histogram iterationSeconds = new Histogram(1e-6, 1e-5, 1e-4, 1e-3, 1e-2, 1e-1, 1, 10);
+    // Iteraciones por resolución
+    final Histogram iterationsPerSolve = new Histogram(1, 5, 10, 50, 100, 500, 1000, 5000, 10000);
+    // Duración de cada resolución, en segundos
+    final Histogram solveSeconds = new Histogram(1e-4, 1e-3, 1e-2, 1e-1, 1, 10, 100);
+    // max |x_k - x_{k-1}| y residuo de la última iteración
+    final Histogram finalError = new Histogram(1e-14, 1e-12, 1e-10, 1e-8, 1e-6, 1e-4, 1e-2, 1);
+    final Histogram finalResidual = new Histogram(1e-14, 1e-12, 1e-10, 1e-8, 1e-6, 1e-4, 1e-2, 1);
+
+    // Últimos valores por hilo, para registrar el error final en finished()
+    private final ThreadLocal<double[]> last = ThreadLocal.withInitial(() -> new double[2]);
+
+    /**
+     * @param residual true para pedir también ||b - A x||_inf en cada iteración
+     *                 (cuesta un barrido extra por iteración)
+     */
+    public SolverMetrics(boolean residual) {
+        this.residual = residual;
+    }
+
+    public SolverMetrics() {
+        this(false);
+    }
+
+    @Override
+    public boolean wantsResidual() {
+        return residual;
+    }
+
+    @Override
+    public void iteration(int iter, double maxError, double residual, long elapsedNanos) {
+        iterations.increment();
+        iterationSeconds.observe(elapsedNanos * 1e-9);
+        double[] l = last.get();
+        l[0] = maxError;
+        l[1] = residual;
+    }
+
+    @Override
+    public void finished(int iterations, boolean converged, long elapsedNanos) {
+        solves.increment();
+        (converged ? this.converged : notConverged).increment();
+        iterationsPerSolve.observe(iterations);
+        solveSeconds.observe(elapsedNanos * 1e-9);
+        double[] l = last.get();
+        finalError.observe(l[0]);
+        if (residual) {
+            finalResidual.observe(l[1]);
+        }
+    }
+
+    @Override
+    public void pivotSwap(int k, int row) {
+        pivotSwaps.increment();
+    }
+
+    @Override
+    public void smallPivot(int k, double ratio) {
+        smallPivots.increment();
+    }
+
+    @Override
+    public void decomposed(double[][] a) {
+        decompositions.increment();
+    }
+
+    // ==========================
+    // Lectura de los contadores
+    // ==========================
+
+    public long iterations() {
+        return iterations.sum();
+    }
+
+    public long solves() {
+        return solves.sum();
+    }
+
+    public long converged() {
+        return converged.sum();
+    }
+
+    public long notConverged() {
+        return notConverged.sum();
+    }
+
+    public long pivotSwaps() {
+        return pivotSwaps.sum();
+    }
+
+    public long smallPivots() {
+        return smallPivots.sum();
+    }
+
+    public long decompositions() {
+        return decompositions.sum();
+    }
+
+    public Histogram iterationSeconds() {
+        return iterationSeconds;
+    }
+
+    public Histogram iterationsPerSolve() {
+        return iterationsPerSolve;
+    }
+
+    /**
+     * Exporta todas las métricas en formato de texto de Prometheus.
+     *
+     * @param prefix Prefijo de los nombres, por ejemplo "solver"
+     */
+    public String export(String prefix) {
+        StringBuilder out = new StringBuilder();
+        counter(out, prefix + "_iterations_total", iterations());
+        counter(out, prefix + "_solves_total", solves());
+        counter(out, prefix + "_converged_total", converged());
+        counter(out, prefix + "_not_converged_total", notConverged());
+        counter(out, prefix + "_pivot_swaps_total", pivotSwaps());
+        counter(out, prefix + "_small_pivots_total", smallPivots());
+        counter(out, prefix + "_decompositions_total", decompositions());
+        iterationSeconds.export(out, prefix + "_iteration_seconds");
+        solveSeconds.export(out, prefix + "_solve_seconds");
+        iterationsPerSolve.export(out, prefix + "_iterations_per_solve");
+        finalError.export(out, prefix + "_final_error");
+        if (residual) {
+            finalResidual.export(out, prefix + "_final_residual");
+        }
+        return out.toString();
+    }
+
+    private static void counter(StringBuilder out, String name, long value) {
+        out.append("# TYPE ").append(name).append(" counter\n");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static String format(double value) {
+        return Double.toString(value);
+    }
+}
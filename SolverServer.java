@@ -0,0 +1,649 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Servidor de larga duración para resolver sistemas sin arrancar una JVM
+ * por cada uno: la JVM, el JIT (núcleos de VectorOps ya compilados) y las
+ * factorizaciones (LUCache y los handles de FACTOR) quedan calientes
+ * entre pedidos.
+ *
+ * Escucha en localhost (TCP) o en un socket de dominio Unix:
+ *
+ *   java SolverServer [puerto]              (por defecto 7070)
+ *   java SolverServer unix:/tmp/solver.sock
+ *
+ * Protocolo binario, little-endian como {@link MatrixIO}. Cada mensaje es
+ *   int  longitud (bytes que siguen)
+ *   long id       (lo elige el cliente; la respuesta lo repite)
+ *   int  op (pedido) o estado (respuesta)
+ *   contenido
+ *
+ * Pedidos:
+ *   LU_SOLVE      int n, double tol, A (n*n doubles por filas), b (n)  -> x
+ *   FACTOR        int n, double tol, A                                 -> long handle
+ *   SOLVE         long handle, b (int n, n doubles)                    -> x
+ *   RELEASE       long handle                                          -> (vacío)
+ *   GAUSS_SEIDEL  int n, int nnz, double tol, int maxIter,
+ *                 diag (n), values (nnz), rowPtr (n+1 ints), colIdx (nnz ints),
+ *                 b (n)                                                -> x
+ *   STATS         (vacío)                                              -> texto UTF-8
+ * Los vectores de respuesta van como int n + n doubles.
+ *
+ * Los handles de FACTOR son de la conexión que los creó: otra conexión
+ * no los ve, y al cerrarse la conexión se liberan los que no se
+ * liberaron con RELEASE.
+ *
+ * Estados: OK, ILL_CONDITIONED (er = -1 en la factorización) y ERROR
+ * (contenido = mensaje UTF-8).
+ *
+ * Pipelining: un cliente puede mandar muchos pedidos seguidos por la
+ * misma conexión sin esperar las respuestas. Cada pedido se resuelve en
+ * su propio hilo y las respuestas salen en el orden en que terminan (el
+ * id permite emparejarlas). Por conexión se aceptan hasta MAX_IN_FLIGHT
+ * pedidos y hasta maxInFlightBytes bytes de pedidos a la vez; después se
+ * deja de leer hasta que termine alguno. Un mensaje de más de maxFrame
+ * bytes se rechaza con ERROR antes de reservar memoria para él, y se
+ * cierra la conexión. Los dos límites se cambian con setLimits o con
+ * -Dsolver.maxFrame y -Dsolver.maxInFlightBytes.
+ *
+ * Con Java 21 o posterior los pedidos corren en hilos virtuales
+ * (se buscan por reflexión, como VectorOpsSimd); con Java 17, en un pool
+ * fijo con un hilo por procesador.
+ *
+ * Por cada tipo de pedido se registra la latencia (desde que se terminó
+ * de leer hasta que se escribió la respuesta); STATS y el cierre del
+ * servidor muestran los percentiles p50, p90, p99 y p99.9.
+ */
+public class SolverServer implements AutoCloseable {
+
+    // Operaciones
+    public static final int LU_SOLVE = 1;
+    public static final int FACTOR = 2;
+    public static final int SOLVE = 3;
+    public static final int RELEASE = 4;
+    public static final int GAUSS_SEIDEL = 5;
+    public static final int STATS = 6;
+
+    // Estados de respuesta
+    public static final int OK = 0;
+    public static final int ILL_CONDITIONED = 1;
+    public static final int ERROR = 2;
+
+    public static final int DEFAULT_PORT = 7070;
+
+    // Pedidos sin responder por conexión antes de dejar de leer
+    static final int MAX_IN_FLIGHT = 256;
+
+    // Tamaño máximo de un mensaje por defecto (64 MB: A densa de hasta
+    // ~2800 x 2800; para matrices más grandes conviene el modo archivo)
+    public static final int DEFAULT_MAX_FRAME = 64 << 20;
+
+    // Bytes de pedidos sin responder por conexión, por defecto
+    public static final int DEFAULT_MAX_IN_FLIGHT_BYTES = 256 << 20;
+
+    // Límite de mensaje que usan el cliente y, por defecto, el servidor
+    static final int MAX_FRAME = Integer.getInteger("solver.maxFrame", DEFAULT_MAX_FRAME);
+
+    private static final String[] OP_NAMES = {"", "lu_solve", "factor", "solve", "release", "gauss_seidel", "stats"};
+
+    /**
+     * Histograma de latencias con cubetas logarítmicas (8 por potencia de
+     * 2, error relativo menor al 12.5%), para estimar percentiles sin
+     * guardar cada valor. Seguro para varios hilos.
+     */
+    public static class LatencyHistogram {
+        private static final int SUB_BITS = 3;
+        private static final int SUB = 1 << SUB_BITS;
+        private final AtomicLongArray counts = new AtomicLongArray(SUB + (64 - SUB_BITS) * SUB);
+        private final AtomicLong max = new AtomicLong();
+
+        public void record(long nanos) {
+            long v = Math.max(0, nanos);
+            counts.incrementAndGet(index(v));
+            max.accumulateAndGet(v, Math::max);
+        }
+
+        static int index(long v) {
+            if (v < SUB) {
+                return (int) v;
+            }
+            int exp = 63 - Long.numberOfLeadingZeros(v);
+            int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB - 1);
+            return SUB + (exp - SUB_BITS) * SUB + sub;
+        }
+
+        // Mayor valor que cae en la cubeta i
+        static long upperBound(int i) {
+            if (i < SUB) {
+                return i;
+            }
+            int exp = (i - SUB) / SUB + SUB_BITS;
+            int sub = (i - SUB) % SUB;
+            return ((long) (SUB + sub + 1) << (exp - SUB_BITS)) - 1;
+        }
+
+        public long count() {
+            long total = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                total += counts.get(i);
+            }
+            return total;
+        }
+
+        /** Percentil q (0..1) en nanosegundos (cota superior de su cubeta). */
+        public long percentile(double q) {
+            long total = count();
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(q * total);
+            long seen = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                seen += counts.get(i);
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), max.get());
+                }
+            }
+            return max.get();
+        }
+
+        public long max() {
+            return max.get();
+        }
+    }
+
+    private final ServerSocketChannel server;
+    private final SocketAddress address;
+    private final ExecutorService connections;
+    private final ExecutorService workers;
+    private final LUCache cache;
+    private final AtomicLong storedHandles = new AtomicLong();   // handles vivos en todas las conexiones
+    private final AtomicLong nextHandle = new AtomicLong(1);
+    private final LatencyHistogram[] latency = new LatencyHistogram[OP_NAMES.length];
+    private final AtomicLong errors = new AtomicLong();
+    private volatile boolean closed;
+    private volatile int maxFrame = MAX_FRAME;
+    private volatile int maxInFlightBytes = Math.max(MAX_FRAME,
+            Integer.getInteger("solver.maxInFlightBytes", DEFAULT_MAX_IN_FLIGHT_BYTES));
+
+    private SolverServer(ServerSocketChannel server, SocketAddress address) {
+        this.server = server;
+        this.address = address;
+        this.connections = newExecutor(false);
+        this.workers = newExecutor(true);
+        this.cache = new LUCache(64, Runtime.getRuntime().maxMemory() / 4);
+        for (int op = 1; op < latency.length; op++) {
+            latency[op] = new LatencyHistogram();
+        }
+    }
+
+    /** Servidor TCP en la interfaz de loopback (puerto 0 = cualquiera libre). */
+    public static SolverServer tcp(int port) throws IOException {
+        ServerSocketChannel ch = ServerSocketChannel.open();
+        ch.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        return new SolverServer(ch, ch.getLocalAddress());
+    }
+
+    /** Servidor en un socket de dominio Unix (se reemplaza el archivo si existe). */
+    public static SolverServer unix(Path socket) throws IOException {
+        Files.deleteIfExists(socket);
+        UnixDomainSocketAddress addr = UnixDomainSocketAddress.of(socket);
+        ServerSocketChannel ch = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        ch.bind(addr);
+        return new SolverServer(ch, addr);
+    }
+
+    public SocketAddress address() {
+        return address;
+    }
+
+    // Hilos virtuales si la JVM los tiene (Java 21+); si no, un pool fijo
+    // (para los pedidos) o uno que crece según haga falta (para las conexiones).
+    private static ExecutorService newExecutor(boolean compute) {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            if (compute) {
+                return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+                    Thread t = new Thread(r, "solver-worker");
+                    t.setDaemon(true);
+                    return t;
+                });
+            }
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "solver-connection");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /**
+     * Cambia los límites de memoria por conexión (para las conexiones
+     * nuevas): tamaño máximo de un mensaje y bytes de pedidos sin responder.
+     */
+    public void setLimits(int maxFrame, int maxInFlightBytes) {
+        if (maxFrame < 12 || maxInFlightBytes < maxFrame) {
+            throw new IllegalArgumentException("Límites inválidos: mensaje " + maxFrame
+                    + " bytes, en vuelo " + maxInFlightBytes + " bytes");
+        }
+        this.maxFrame = maxFrame;
+        this.maxInFlightBytes = maxInFlightBytes;
+    }
+
+    /** true si los pedidos corren en hilos virtuales. */
+    public boolean usesVirtualThreads() {
+        return !(workers instanceof java.util.concurrent.ThreadPoolExecutor);
+    }
+
+    // ==========================
+    // Conexiones
+    // ==========================
+
+    /** Acepta conexiones hasta que se cierre el servidor (bloquea). */
+    public void serve() throws IOException {
+        while (!closed) {
+            SocketChannel client;
+            try {
+                client = server.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            }
+            connections.execute(() -> handleConnection(client));
+        }
+    }
+
+    private void handleConnection(SocketChannel client) {
+        int frameLimit = maxFrame;
+        int byteLimit = maxInFlightBytes;
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        Semaphore inFlightBytes = new Semaphore(byteLimit);
+        ConcurrentHashMap<Long, LUFactorization> handles = new ConcurrentHashMap<>();
+        try {
+            while (!closed) {
+                int length = readLength(client);
+                if (length < 0) {
+                    break; // el cliente cerró la conexión
+                }
+                if (length > frameLimit) {
+                    // No se reserva memoria para el contenido: se responde y se corta
+                    errors.incrementAndGet();
+                    ByteBuffer head = readBody(client, 12);
+                    writeFrame(client, message(head.getLong(), ERROR, "Mensaje de " + length
+                            + " bytes; el máximo es " + frameLimit));
+                    break;
+                }
+                // La memoria del pedido se reserva antes de leerlo
+                inFlight.acquire();
+                try {
+                    inFlightBytes.acquire(length);
+                } catch (InterruptedException e) {
+                    inFlight.release();
+                    throw e;
+                }
+                ByteBuffer frame;
+                try {
+                    frame = readBody(client, length);
+                } catch (IOException e) {
+                    inFlightBytes.release(length);
+                    inFlight.release();
+                    throw e;
+                }
+                long received = System.nanoTime();
+                workers.execute(() -> {
+                    try {
+                        handleRequest(client, handles, frame, received);
+                    } finally {
+                        inFlightBytes.release(length);
+                        inFlight.release();
+                    }
+                });
+            }
+        } catch (IOException e) {
+            errors.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Esperamos los pedidos pendientes antes de cerrar: un cliente
+            // puede mandar varios pedidos y cerrar su lado de escritura
+            // (shutdownOutput) esperando todavía las respuestas. Después
+            // liberamos las factorizaciones de la conexión.
+            inFlight.acquireUninterruptibly(MAX_IN_FLIGHT);
+            storedHandles.addAndGet(-handles.size());
+            handles.clear();
+            try {
+                client.close();
+            } catch (IOException e) {
+                errors.incrementAndGet();
+            }
+        }
+    }
+
+    private void handleRequest(SocketChannel client, ConcurrentHashMap<Long, LUFactorization> handles,
+                               ByteBuffer in, long received) {
+        long id = in.getLong();
+        int op = in.getInt();
+        ByteBuffer out;
+        try {
+            out = execute(id, op, in, handles);
+        } catch (Throwable e) {
+            // También OutOfMemoryError o StackOverflowError: el cliente siempre recibe respuesta
+            errors.incrementAndGet();
+            String message = e.getMessage() != null ? e.getMessage() : e.toString();
+            out = message(id, ERROR, message);
+        }
+        try {
+            writeFrame(client, out);
+        } catch (IOException e) {
+            errors.incrementAndGet();
+            return;
+        }
+        if (op > 0 && op < latency.length) {
+            latency[op].record(System.nanoTime() - received);
+        }
+    }
+
+    // ==========================
+    // Pedidos
+    // ==========================
+
+    private ByteBuffer execute(long id, int op, ByteBuffer in, ConcurrentHashMap<Long, LUFactorization> handles) {
+        switch (op) {
+            case LU_SOLVE: {
+                int n = in.getInt();
+                double tol = in.getDouble();
+                double[][] a = readRows(in, n);
+                double[] b = readDoubles(in, n);
+                LUFactorization lu = cache.get(a, n, tol);
+                return solveWith(id, lu, b);
+            }
+            case FACTOR: {
+                int n = in.getInt();
+                double tol = in.getDouble();
+                double[] a = readDoubles(in, n < 0 ? -1 : (long) n * n);
+                LUFactorization lu = LUFactorization.factor(a, n, tol);
+                if (lu.error() == -1) {
+                    return header(id, ILL_CONDITIONED, 0);
+                }
+                long handle = nextHandle.getAndIncrement();
+                handles.put(handle, lu);
+                storedHandles.incrementAndGet();
+                ByteBuffer out = header(id, OK, 8);
+                out.putLong(handle);
+                return out;
+            }
+            case SOLVE: {
+                long handle = in.getLong();
+                double[] b = readVector(in);
+                LUFactorization lu = handles.get(handle);
+                if (lu == null) {
+                    throw new IllegalArgumentException("No existe la factorización " + handle);
+                }
+                if (b.length != lu.size()) {
+                    throw new IllegalArgumentException("b tiene " + b.length + " elementos; se esperaban " + lu.size());
+                }
+                return solveWith(id, lu, b);
+            }
+            case RELEASE: {
+                if (handles.remove(in.getLong()) != null) {
+                    storedHandles.decrementAndGet();
+                }
+                return header(id, OK, 0);
+            }
+            case GAUSS_SEIDEL: {
+                int n = in.getInt();
+                int nnz = in.getInt();
+                double tol = in.getDouble();
+                int maxIter = in.getInt();
+                double[] diag = readDoubles(in, n);
+                double[] values = readDoubles(in, nnz);
+                int[] rowPtr = readInts(in, n + 1L);
+                int[] colIdx = readInts(in, nnz);
+                double[] b = readDoubles(in, n);
+                SparseMatrix A = new SparseMatrix(n, diag, rowPtr, colIdx, values);
+                double[] x = GaussSeidelWithEquations.gaussSeidel(A, b, new double[n], tol, maxIter,
+                        SolverListener.SILENT);
+                return vector(id, OK, x);
+            }
+            case STATS:
+                return message(id, OK, stats());
+            default:
+                throw new IllegalArgumentException("Operación desconocida: " + op);
+        }
+    }
+
+    private static ByteBuffer solveWith(long id, LUFactorization lu, double[] b) {
+        if (lu.error() == -1) {
+            return header(id, ILL_CONDITIONED, 0);
+        }
+        double[] x = new double[b.length];
+        lu.solve(b, x);
+        return vector(id, OK, x);
+    }
+
+    /**
+     * Resumen de latencias por operación (en microsegundos) y estado de
+     * las factorizaciones guardadas.
+     */
+    public String stats() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-13s %9s %9s %9s %9s %9s %9s%n",
+                "operación", "pedidos", "p50 us", "p90 us", "p99 us", "p99.9 us", "máx us"));
+        for (int op = 1; op < latency.length; op++) {
+            LatencyHistogram h = latency[op];
+            long count = h.count();
+            if (count == 0) {
+                continue;
+            }
+            out.append(String.format("%-13s %9d %9.1f %9.1f %9.1f %9.1f %9.1f%n", OP_NAMES[op], count,
+                    h.percentile(0.50) / 1e3, h.percentile(0.90) / 1e3, h.percentile(0.99) / 1e3,
+                    h.percentile(0.999) / 1e3, h.max() / 1e3));
+        }
+        out.append("caché LU: ").append(cache.hits()).append(" aciertos, ").append(cache.misses())
+                .append(" fallos; factorizaciones guardadas: ").append(storedHandles.get())
+                .append("; errores: ").append(errors.get()).append('\n');
+        return out.toString();
+    }
+
+    /** Latencias de una operación (LU_SOLVE, FACTOR, ...). */
+    public LatencyHistogram latency(int op) {
+        return latency[op];
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        server.close();
+        connections.shutdownNow();
+        workers.shutdown();
+        if (address instanceof UnixDomainSocketAddress) {
+            Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+        }
+    }
+
+    // ==========================
+    // Mensajes (también los usa SolverClient)
+    // ==========================
+
+    // Lee un mensaje completo (sin el int de longitud) de hasta 'maxFrame'
+    // bytes; null si la conexión se cerró antes
+    static ByteBuffer readFrame(ByteChannel ch, int maxFrame) throws IOException {
+        int length = readLength(ch);
+        if (length < 0) {
+            return null;
+        }
+        if (length > maxFrame) {
+            throw new IOException("Mensaje de " + length + " bytes; el máximo es " + maxFrame);
+        }
+        return readBody(ch, length);
+    }
+
+    // Longitud del próximo mensaje; -1 si la conexión se cerró antes
+    static int readLength(ByteChannel ch) throws IOException {
+        ByteBuffer len = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+        if (!readFully(ch, len, true)) {
+            return -1;
+        }
+        int length = len.flip().getInt();
+        if (length < 12) {
+            throw new IOException("Longitud de mensaje inválida: " + length);
+        }
+        return length;
+    }
+
+    static ByteBuffer readBody(ByteChannel ch, int length) throws IOException {
+        ByteBuffer frame = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(ch, frame, false);
+        return frame.flip();
+    }
+
+    private static boolean readFully(ByteChannel ch, ByteBuffer buf, boolean eofAllowed) throws IOException {
+        while (buf.hasRemaining()) {
+            if (ch.read(buf) < 0) {
+                if (eofAllowed && buf.position() == 0) {
+                    return false;
+                }
+                throw new EOFException("Conexión cerrada en medio de un mensaje");
+            }
+        }
+        return true;
+    }
+
+    // Escribe un mensaje armado con header(); los hilos de una conexión no se mezclan
+    static void writeFrame(ByteChannel ch, ByteBuffer frame) throws IOException {
+        frame.flip();
+        synchronized (ch) {
+            while (frame.hasRemaining()) {
+                ch.write(frame);
+            }
+        }
+    }
+
+    // Mensaje con espacio para 'payload' bytes; ya tiene longitud, id y op/estado
+    static ByteBuffer header(long id, int code, int payload) {
+        ByteBuffer out = ByteBuffer.allocate(4 + 12 + payload).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(12 + payload).putLong(id).putInt(code);
+        return out;
+    }
+
+    static ByteBuffer vector(long id, int code, double[] v) {
+        ByteBuffer out = header(id, code, 4 + 8 * v.length);
+        putVector(out, v);
+        return out;
+    }
+
+    static ByteBuffer message(long id, int code, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer out = header(id, code, bytes.length);
+        out.put(bytes);
+        return out;
+    }
+
+    static void putVector(ByteBuffer out, double[] v) {
+        out.putInt(v.length);
+        putDoubles(out, v, v.length);
+    }
+
+    static void putDoubles(ByteBuffer out, double[] v, int len) {
+        out.asDoubleBuffer().put(v, 0, len);
+        out.position(out.position() + 8 * len);
+    }
+
+    static void putInts(ByteBuffer out, int[] v, int len) {
+        out.asIntBuffer().put(v, 0, len);
+        out.position(out.position() + 4 * len);
+    }
+
+    static double[] readVector(ByteBuffer in) {
+        return readDoubles(in, in.getInt());
+    }
+
+    // Los tamaños vienen del cliente: antes de reservar un arreglo se
+    // revisa que el mensaje tenga de verdad 'len' elementos de 'bytes'
+    // bytes (si no, un mensaje de pocos bytes podría pedir gigabytes)
+    static int checkLength(ByteBuffer in, long len, int bytes) {
+        if (len < 0 || len > in.remaining() / bytes) {
+            throw new IllegalArgumentException("El mensaje anuncia " + len + " elementos de " + bytes
+                    + " bytes, pero solo le quedan " + in.remaining() + " bytes");
+        }
+        return (int) len;
+    }
+
+    static double[] readDoubles(ByteBuffer in, long len) {
+        double[] v = new double[checkLength(in, len, 8)];
+        in.asDoubleBuffer().get(v);
+        in.position(in.position() + 8 * v.length);
+        return v;
+    }
+
+    static int[] readInts(ByteBuffer in, long len) {
+        int[] v = new int[checkLength(in, len, 4)];
+        in.asIntBuffer().get(v);
+        in.position(in.position() + 4 * v.length);
+        return v;
+    }
+
+    static double[][] readRows(ByteBuffer in, int n) {
+        checkLength(in, n < 0 ? -1 : (long) n * n, 8);
+        double[][] a = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            in.asDoubleBuffer().get(a[i]);
+            in.position(in.position() + 8 * n);
+        }
+        return a;
+    }
+
+    static String readText(ByteBuffer in) {
+        byte[] bytes = new byte[in.remaining()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ==========================
+    // main
+    // ==========================
+
+    public static void main(String[] args) throws IOException {
+        String where = args.length > 0 ? args[0] : String.valueOf(DEFAULT_PORT);
+        SolverServer server = where.startsWith("unix:")
+                ? unix(Path.of(where.substring("unix:".length())))
+                : tcp(Integer.parseInt(where));
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.println("\nLatencias por pedido:");
+            System.out.print(server.stats());
+            try {
+                server.close();
+            } catch (IOException e) {
+                // ya se está cerrando
+            }
+        }));
+
+        System.out.println("Servidor de sistemas escuchando en " + server.address()
+                + (server.usesVirtualThreads() ? " (hilos virtuales)" : " (pool de hilos)")
+                + "; núcleos " + VectorOps.describe() + ". Ctrl+C para terminar.");
+        server.serve();
+    }
+}
@@ -0,0 +1,757 @@
+import java.util.Arrays;
+
+public class SparseLU {
+
+    // ----------------------------------------------------------
+    // Factorización LU dispersa: P A Q = L U, con tiempo y memoria que
+    // dependen del relleno (no ceros de L y U), no de n^2.
+    //
+    // Tres pasos:
+    //  1. Ordenamiento (Q): se permutan las columnas (y, preferentemente,
+    //     las filas igual) para reducir el relleno, mirando el grafo de
+    //     A + A^T:
+    //      - MINIMUM_DEGREE: en cada paso se elimina la incógnita con menos
+    //        vecinos en el grafo de eliminación (bueno en general: mallas
+    //        2-D/3-D, circuitos).
+    //      - RCM (Cuthill-McKee inverso): recorrido en anchura desde un
+    //        nodo periférico; reduce el ancho de banda (bueno para
+    //        problemas casi 1-D).
+    //  2. Análisis simbólico (analyze): ordenamiento, árbol de eliminación
+    //     y conteo de no ceros por columna de L y U suponiendo pivotes en
+    //     la diagonal, más el patrón por columnas de A. No mira los
+    //     valores, así que se puede reusar para todas las matrices con el
+    //     mismo patrón de no ceros (pasos de tiempo, Newton...).
+    //  3. Factorización numérica (factor): LU por columnas "left-looking"
+    //     (Gilbert-Peierls). Cada columna sale de resolver L x = A(:, q(k))
+    //     visitando solo los no ceros alcanzables. Pivoteo parcial escalado
+    //     (como LUProgram.Pivot) con umbral: se queda con el pivote de la
+    //     diagonal si |a_ik| / s_i >= threshold * (máximo de la columna),
+    //     así se respeta el ordenamiento salvo que haga falta estabilidad.
+    //
+    // La matriz es un SparseMatrix (CSR con la diagonal aparte); ni A ni
+    // el análisis se modifican.
+    // ----------------------------------------------------------
+
+    // Ordenamientos
+    public static final int NATURAL = 0;
+    public static final int RCM = 1;
+    public static final int MINIMUM_DEGREE = 2;
+
+    // Umbral de pivoteo: 1.0 = pivoteo parcial clásico, valores chicos
+    // priorizan la diagonal (menos relleno)
+    public static final double DEFAULT_THRESHOLD = 0.1;
+
+    final int n;
+    final int[] q;      // q[k] = columna de A que se eliminó en el paso k
+    final int[] pinv;   // pinv[i] = paso en el que la fila i fue pivote
+    final int[] lp;     // L por columnas (diagonal unitaria primero)
+    final int[] li;
+    final double[] lx;
+    final int[] up;     // U por columnas (pivote al final de cada columna)
+    final int[] ui;
+    final double[] ux;
+    final int er;       // 0 = OK, -1 = mal condicionado
+    final int offDiagonalPivots;
+
+    private SparseLU(int n, int[] q, int[] pinv, int[] lp, int[] li, double[] lx,
+                     int[] up, int[] ui, double[] ux, int er, int offDiagonalPivots) {
+        this.n = n;
+        this.q = q;
+        this.pinv = pinv;
+        this.lp = lp;
+        this.li = li;
+        this.lx = lx;
+        this.up = up;
+        this.ui = ui;
+        this.ux = ux;
+        this.er = er;
+        this.offDiagonalPivots = offDiagonalPivots;
+    }
+
+    // ----------------------------------------------------------
+    // Resultado del análisis simbólico. Se puede usar con cualquier
+    // SparseMatrix que tenga exactamente el mismo patrón de no ceros.
+    // ----------------------------------------------------------
+    public static class Symbolic {
+        final int n;
+        final int ordering;
+        final int[] q;        // ordenamiento de las columnas
+        final int[] parent;   // árbol de eliminación de A + A^T permutada
+        final long lnz;       // no ceros previstos de L (con pivotes en la diagonal)
+        final long unz;       // no ceros previstos de U
+
+        // Patrón de A por columnas (CSC, diagonal incluida) y, para cada
+        // posición CSR de A, su posición en el CSC (para copiar los valores)
+        final int[] colPtr;
+        final int[] rowIdx;
+        final int[] diagPos;
+        final int[] offPos;
+
+        // Patrón CSR con el que se hizo el análisis (para comprobar que coincide)
+        private final int[] rowPtr;
+        private final int[] colIdx;
+
+        Symbolic(int n, int ordering, int[] q, int[] parent, long lnz, long unz, int[] colPtr,
+                 int[] rowIdx, int[] diagPos, int[] offPos, int[] rowPtr, int[] colIdx) {
+            this.n = n;
+            this.ordering = ordering;
+            this.q = q;
+            this.parent = parent;
+            this.lnz = lnz;
+            this.unz = unz;
+            this.colPtr = colPtr;
+            this.rowIdx = rowIdx;
+            this.diagPos = diagPos;
+            this.offPos = offPos;
+            this.rowPtr = rowPtr;
+            this.colIdx = colIdx;
+        }
+
+        // true si 'A' tiene el mismo patrón de no ceros que la matriz analizada
+        public boolean matches(SparseMatrix A) {
+            int nnz = rowPtr[n];
+            return A.n == n
+                    && Arrays.equals(A.rowPtr, 0, n + 1, rowPtr, 0, n + 1)
+                    && Arrays.equals(A.colIdx, 0, nnz, colIdx, 0, nnz);
+        }
+
+        public int size() {
+            return n;
+        }
+
+        // No ceros previstos de L + U (sin contar la diagonal unitaria de L)
+        public long predictedNonZeros() {
+            return lnz + unz - n;
+        }
+
+        // Columna de A eliminada en el paso k
+        public int column(int k) {
+            return q[k];
+        }
+
+        public String describe() {
+            String name = ordering == RCM ? "RCM" : ordering == MINIMUM_DEGREE ? "grado mínimo" : "natural";
+            return "orden " + name + ", relleno previsto " + predictedNonZeros() + " no ceros (A tiene "
+                    + colPtr[n] + ")";
+        }
+    }
+
+    // ----------------------------------------------------------
+    // SUB analyze(A, ordering)
+    //
+    // Ordenamiento y análisis simbólico de A (solo mira el patrón).
+    // ----------------------------------------------------------
+    public static Symbolic analyze(SparseMatrix A, int ordering) {
+        int n = A.n;
+        int nnzOff = A.rowPtr[n];
+
+        // Patrón simétrico de A + A^T (sin la diagonal)
+        int[][] adj = symmetricPattern(A);
+
+        int[] q;
+        switch (ordering) {
+            case NATURAL:
+                q = new int[n];
+                for (int k = 0; k < n; k++) {
+                    q[k] = k;
+                }
+                break;
+            case RCM:
+                q = reverseCuthillMcKee(adj, n);
+                break;
+            case MINIMUM_DEGREE:
+                q = minimumDegree(adj, n);
+                break;
+            default:
+                throw new IllegalArgumentException("Ordenamiento desconocido: " + ordering);
+        }
+
+        // Árbol de eliminación y conteo de no ceros por columna de L
+        // (= por fila de U) para A + A^T permutada con q en filas y columnas
+        int[] qinv = new int[n];
+        for (int k = 0; k < n; k++) {
+            qinv[q[k]] = k;
+        }
+        int[] parent = new int[n];
+        int[] mark = new int[n];
+        long[] count = new long[n];
+        Arrays.fill(mark, -1);
+        for (int k = 0; k < n; k++) {
+            parent[k] = -1;
+            mark[k] = k;
+            count[k]++; // diagonal
+            for (int v : adj[q[k]]) {
+                int j = qinv[v];
+                if (j >= k) {
+                    continue;
+                }
+                // Fila k de L: subimos por el árbol desde j hasta algo ya visitado en
+                // esta fila; las raíces que se alcanzan pasan a ser hijas de k
+                for (int i = j; mark[i] != k; i = parent[i]) {
+                    mark[i] = k;
+                    count[i]++;
+                    if (parent[i] == -1) {
+                        parent[i] = k;
+                    }
+                }
+            }
+        }
+        long lnz = 0;
+        for (int k = 0; k < n; k++) {
+            lnz += count[k];
+        }
+
+        // Patrón de A por columnas, con la diagonal al principio de cada columna
+        int[] colPtr = new int[n + 1];
+        for (int j = 0; j < n; j++) {
+            colPtr[j + 1] = 1;
+        }
+        for (int p = 0; p < nnzOff; p++) {
+            colPtr[A.colIdx[p] + 1]++;
+        }
+        for (int j = 0; j < n; j++) {
+            colPtr[j + 1] += colPtr[j];
+        }
+        int[] rowIdx = new int[colPtr[n]];
+        int[] next = Arrays.copyOf(colPtr, n);
+        int[] diagPos = new int[n];
+        int[] offPos = new int[nnzOff];
+        for (int j = 0; j < n; j++) {
+            diagPos[j] = next[j];
+            rowIdx[next[j]++] = j;
+        }
+        for (int i = 0; i < n; i++) {
+            for (int p = A.rowPtr[i]; p < A.rowPtr[i + 1]; p++) {
+                int pos = next[A.colIdx[p]]++;
+                rowIdx[pos] = i;
+                offPos[p] = pos;
+            }
+        }
+
+        return new Symbolic(n, ordering, q, parent, lnz, lnz, colPtr, rowIdx, diagPos, offPos,
+                Arrays.copyOf(A.rowPtr, n + 1), Arrays.copyOf(A.colIdx, nnzOff));
+    }
+
+    // ----------------------------------------------------------
+    // SUB factor(A, tol)
+    //
+    // Análisis con MINIMUM_DEGREE y factorización con DEFAULT_THRESHOLD.
+    // ----------------------------------------------------------
+    public static SparseLU factor(SparseMatrix A, double tol) {
+        return factor(A, analyze(A, MINIMUM_DEGREE), tol, DEFAULT_THRESHOLD);
+    }
+
+    // ----------------------------------------------------------
+    // SUB factor(A, symbolic, tol, threshold)
+    //
+    // Factorización numérica de A con un análisis ya hecho. 'tol' es la
+    // misma tolerancia de LUProgram.Decompose: si el mejor pivote escalado
+    // de una columna es menor que tol, er = -1.
+    // ----------------------------------------------------------
+    public static SparseLU factor(SparseMatrix A, Symbolic S, double tol, double threshold) {
+        if (!S.matches(A)) {
+            throw new IllegalArgumentException("El patrón de no ceros de A no coincide con el del análisis.");
+        }
+        if (!(threshold > 0.0 && threshold <= 1.0)) {
+            throw new IllegalArgumentException("El umbral de pivoteo debe estar en (0, 1]: " + threshold);
+        }
+        int n = S.n;
+        int[] q = S.q;
+        int[] ap = S.colPtr;
+        int[] ai = S.rowIdx;
+
+        // Valores de A por columnas y vector de escala (máximo |A(i,j)| de cada fila)
+        double[] ax = new double[ap[n]];
+        double[] s = new double[n];
+        for (int i = 0; i < n; i++) {
+            ax[S.diagPos[i]] = A.diag[i];
+            double big = Math.abs(A.diag[i]);
+            for (int p = A.rowPtr[i]; p < A.rowPtr[i + 1]; p++) {
+                ax[S.offPos[p]] = A.values[p];
+                big = Math.max(big, Math.abs(A.values[p]));
+            }
+            s[i] = big;
+        }
+
+        // Espacio inicial según el análisis; crece si el pivoteo agrega relleno
+        int lcap = (int) Math.min(Integer.MAX_VALUE - 8, S.lnz + n);
+        int ucap = (int) Math.min(Integer.MAX_VALUE - 8, S.unz + n);
+        int[] lp = new int[n + 1];
+        int[] li = new int[lcap];
+        double[] lx = new double[lcap];
+        int[] up = new int[n + 1];
+        int[] ui = new int[ucap];
+        double[] ux = new double[ucap];
+
+        int[] pinv = new int[n];
+        Arrays.fill(pinv, -1);
+        double[] x = new double[n];
+        int[] xi = new int[n];       // patrón de la columna (pila de la búsqueda)
+        int[] stack = new int[n];    // posición en la columna de L de cada nodo de la pila
+        int[] mark = new int[n];
+        Arrays.fill(mark, -1);
+
+        int lnz = 0;
+        int unz = 0;
+        int offDiagonal = 0;
+
+        for (int k = 0; k < n; k++) {
+            lp[k] = lnz;
+            up[k] = unz;
+            if (lnz + n > li.length) {
+                int cap = (int) Math.min(Integer.MAX_VALUE - 8, 2L * li.length + n);
+                li = Arrays.copyOf(li, cap);
+                lx = Arrays.copyOf(lx, cap);
+            }
+            if (unz + n > ui.length) {
+                int cap = (int) Math.min(Integer.MAX_VALUE - 8, 2L * ui.length + n);
+                ui = Arrays.copyOf(ui, cap);
+                ux = Arrays.copyOf(ux, cap);
+            }
+
+            // x = L \ A(:, col), solo sobre los no ceros alcanzables
+            int col = q[k];
+            int top = reach(lp, li, ap, ai, col, xi, stack, mark, pinv, k, n);
+            for (int p = top; p < n; p++) {
+                x[xi[p]] = 0.0;
+            }
+            for (int p = ap[col]; p < ap[col + 1]; p++) {
+                x[ai[p]] = ax[p];
+            }
+            for (int p = top; p < n; p++) {
+                int j = xi[p];
+                int jk = pinv[j];
+                if (jk < 0) {
+                    continue;
+                }
+                double xj = x[j];
+                for (int t = lp[jk] + 1; t < lp[jk + 1]; t++) {
+                    x[li[t]] -= lx[t] * xj;
+                }
+            }
+
+            // Pivote: máximo |x_i| / s_i entre las filas que todavía no fueron pivote;
+            // las que ya lo fueron van a U
+            int ipiv = -1;
+            double big = -1.0;
+            for (int p = top; p < n; p++) {
+                int i = xi[p];
+                if (pinv[i] < 0) {
+                    double dummy = Math.abs(x[i]) / s[i];
+                    if (dummy > big) {
+                        big = dummy;
+                        ipiv = i;
+                    }
+                } else {
+                    ui[unz] = pinv[i];
+                    ux[unz++] = x[i];
+                }
+            }
+            if (!(big >= tol)) { // también atrapa filas nulas (0/0)
+                lp[k + 1] = lnz;
+                up[k + 1] = unz;
+                return new SparseLU(n, q, pinv, lp, li, lx, up, ui, ux, -1, offDiagonal);
+            }
+            // Se prefiere la diagonal si no es mucho peor (respeta el ordenamiento)
+            if (pinv[col] < 0 && mark[col] == k && Math.abs(x[col]) / s[col] >= threshold * big) {
+                ipiv = col;
+            }
+            if (ipiv != col) {
+                offDiagonal++;
+            }
+
+            double pivot = x[ipiv];
+            ui[unz] = k;
+            ux[unz++] = pivot;
+            pinv[ipiv] = k;
+            li[lnz] = ipiv;
+            lx[lnz++] = 1.0;
+            for (int p = top; p < n; p++) {
+                int i = xi[p];
+                if (pinv[i] < 0) {
+                    li[lnz] = i;
+                    lx[lnz++] = x[i] / pivot;
+                }
+                x[i] = 0.0;
+            }
+        }
+        lp[n] = lnz;
+        up[n] = unz;
+
+        // Las filas de L pasan a numerarse por paso de eliminación
+        for (int p = 0; p < lnz; p++) {
+            li[p] = pinv[li[p]];
+        }
+        return new SparseLU(n, q, pinv, lp, Arrays.copyOf(li, lnz), Arrays.copyOf(lx, lnz),
+                up, Arrays.copyOf(ui, unz), Arrays.copyOf(ux, unz), 0, offDiagonal);
+    }
+
+    // Patrón de L \ A(:, col): búsqueda en profundidad en el grafo de L desde
+    // cada no cero de la columna. Deja los nodos en xi[top..n-1] en orden
+    // topológico y los marca con 'k' (como cs_reach, sin recursión).
+    private static int reach(int[] lp, int[] li, int[] ap, int[] ai, int col, int[] xi, int[] stack,
+                             int[] mark, int[] pinv, int k, int n) {
+        int top = n;
+        for (int p = ap[col]; p < ap[col + 1]; p++) {
+            int start = ai[p];
+            if (mark[start] == k) {
+                continue;
+            }
+            // xi[0..head] es la pila; los nodos terminados se apilan desde arriba en xi[top..]
+            int head = 0;
+            xi[0] = start;
+            while (head >= 0) {
+                int j = xi[head];
+                int jk = pinv[j];
+                if (mark[j] != k) {
+                    mark[j] = k;
+                    stack[head] = jk < 0 ? 0 : lp[jk] + 1;
+                }
+                boolean done = true;
+                int end = jk < 0 ? 0 : lp[jk + 1];
+                for (int t = stack[head]; t < end; t++) {
+                    int i = li[t];
+                    if (mark[i] == k) {
+                        continue;
+                    }
+                    stack[head] = t + 1;
+                    xi[++head] = i;
+                    done = false;
+                    break;
+                }
+                if (done) {
+                    head--;
+                    xi[--top] = j;
+                }
+            }
+        }
+        return top;
+    }
+
+    // ----------------------------------------------------------
+    // SUB solve(b, x)
+    //
+    // Resuelve A x = b con los factores: x = Q U^{-1} L^{-1} P b.
+    // Cuesta O(no ceros de L + U). b no se modifica.
+    // ----------------------------------------------------------
+    public void solve(double[] b, double[] x) {
+        if (er == -1) {
+            throw new ArithmeticException("La matriz está mal condicionada; no se puede resolver.");
+        }
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            y[pinv[i]] = b[i];
+        }
+
+        // 1) L y = P b  (por columnas; el primer elemento de cada columna es el 1 de la diagonal)
+        for (int k = 0; k < n; k++) {
+            double yk = y[k];
+            if (yk == 0.0) {
+                continue;
+            }
+            for (int p = lp[k] + 1; p < lp[k + 1]; p++) {
+                y[li[p]] -= lx[p] * yk;
+            }
+        }
+
+        // 2) U z = y  (por columnas; el pivote es el último elemento de cada columna)
+        for (int k = n - 1; k >= 0; k--) {
+            int last = up[k + 1] - 1;
+            double zk = y[k] / ux[last];
+            y[k] = zk;
+            if (zk == 0.0) {
+                continue;
+            }
+            for (int p = up[k]; p < last; p++) {
+                y[ui[p]] -= ux[p] * zk;
+            }
+        }
+
+        // 3) x = Q z
+        for (int k = 0; k < n; k++) {
+            x[q[k]] = y[k];
+        }
+    }
+
+    public int size() {
+        return n;
+    }
+
+    // Código de error de la factorización (0 = OK, -1 = mal condicionado)
+    public int error() {
+        return er;
+    }
+
+    // No ceros de L (con la diagonal unitaria) y de U
+    public long nonZeros() {
+        return (long) lp[n] + up[n];
+    }
+
+    // Columnas en las que el pivote no fue el de la diagonal (estabilidad)
+    public int offDiagonalPivots() {
+        return offDiagonalPivots;
+    }
+
+    // Memoria que ocupan los factores (en bytes)
+    public long bytes() {
+        return 12L * nonZeros() + 4L * (4 * n + 2);
+    }
+
+    // ==========================
+    // Ordenamientos
+    // ==========================
+
+    // Vecinos de cada incógnita en el grafo de A + A^T, sin la diagonal ni repetidos
+    static int[][] symmetricPattern(SparseMatrix A) {
+        int n = A.n;
+        int[] degree = new int[n];
+        for (int i = 0; i < n; i++) {
+            for (int p = A.rowPtr[i]; p < A.rowPtr[i + 1]; p++) {
+                int j = A.colIdx[p];
+                if (j != i) {
+                    degree[i]++;
+                    degree[j]++;
+                }
+            }
+        }
+        int[][] adj = new int[n][];
+        for (int i = 0; i < n; i++) {
+            adj[i] = new int[degree[i]];
+        }
+        int[] fill = new int[n];
+        for (int i = 0; i < n; i++) {
+            for (int p = A.rowPtr[i]; p < A.rowPtr[i + 1]; p++) {
+                int j = A.colIdx[p];
+                if (j != i) {
+                    adj[i][fill[i]++] = j;
+                    adj[j][fill[j]++] = i;
+                }
+            }
+        }
+        // Quitamos repetidos (A(i,j) y A(j,i) distintos de cero)
+        int[] mark = new int[n];
+        Arrays.fill(mark, -1);
+        for (int i = 0; i < n; i++) {
+            int[] row = adj[i];
+            int len = 0;
+            for (int v : row) {
+                if (mark[v] != i) {
+                    mark[v] = i;
+                    row[len++] = v;
+                }
+            }
+            if (len < row.length) {
+                adj[i] = Arrays.copyOf(row, len);
+            }
+        }
+        return adj;
+    }
+
+    // ----------------------------------------------------------
+    // SUB reverseCuthillMcKee(adj, n)
+    //
+    // Por cada componente conexa: se busca un nodo casi periférico
+    // (repitiendo recorridos en anchura desde el nodo más lejano), se
+    // recorre en anchura visitando los vecinos de menor a mayor grado y
+    // al final se invierte el orden.
+    // ----------------------------------------------------------
+    static int[] reverseCuthillMcKee(int[][] adj, int n) {
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        int[] level = new int[n];
+        int[] queue = new int[n];
+        int count = 0;
+        Arrays.fill(level, -1); // peripheralNode usa level = -1 como "no visitado"
+
+        for (int seed = 0; seed < n; seed++) {
+            if (visited[seed]) {
+                continue;
+            }
+            int start = peripheralNode(adj, seed, visited, level, queue);
+
+            int head = count;
+            order[count++] = start;
+            visited[start] = true;
+            while (head < count) {
+                int v = order[head++];
+                int first = count;
+                for (int u : adj[v]) {
+                    if (!visited[u]) {
+                        visited[u] = true;
+                        order[count++] = u;
+                    }
+                }
+                // Vecinos nuevos de menor a mayor grado (inserción: suelen ser pocos)
+                for (int a = first + 1; a < count; a++) {
+                    int u = order[a];
+                    int b = a - 1;
+                    while (b >= first && adj[order[b]].length > adj[u].length) {
+                        order[b + 1] = order[b];
+                        b--;
+                    }
+                    order[b + 1] = u;
+                }
+            }
+        }
+
+        for (int a = 0, b = n - 1; a < b; a++, b--) {
+            int temp = order[a];
+            order[a] = order[b];
+            order[b] = temp;
+        }
+        return order;
+    }
+
+    // Nodo casi periférico de la componente de 'seed' (George-Liu): se avanza
+    // al nodo de menor grado del último nivel mientras aumente la excentricidad
+    private static int peripheralNode(int[][] adj, int seed, boolean[] visited, int[] level, int[] queue) {
+        int node = seed;
+        int depth = -1;
+        while (true) {
+            // Recorrido en anchura desde 'node' (visited no se toca: level = -1 marca lo no visitado)
+            int count = 0;
+            queue[count++] = node;
+            level[node] = 0;
+            int maxLevel = 0;
+            for (int head = 0; head < count; head++) {
+                int v = queue[head];
+                for (int u : adj[v]) {
+                    if (!visited[u] && level[u] < 0) {
+                        level[u] = level[v] + 1;
+                        maxLevel = level[u];
+                        queue[count++] = u;
+                    }
+                }
+            }
+            int best = node;
+            for (int a = count - 1; a >= 0 && level[queue[a]] == maxLevel; a--) {
+                if (adj[queue[a]].length < adj[best].length || best == node) {
+                    best = queue[a];
+                }
+            }
+            for (int a = 0; a < count; a++) {
+                level[queue[a]] = -1;
+            }
+            if (maxLevel <= depth) {
+                return node;
+            }
+            depth = maxLevel;
+            node = best;
+        }
+    }
+
+    // ----------------------------------------------------------
+    // SUB minimumDegree(adj, n)
+    //
+    // Grado mínimo sobre el grafo de eliminación: se elimina la incógnita
+    // de menor grado; sus vecinos quedan conectados entre sí (ese es el
+    // relleno) y se actualizan sus grados. Los grados se guardan en
+    // listas por grado para encontrar el mínimo en O(1).
+    //
+    // Es el algoritmo clásico con el grafo explícito (no el grafo
+    // cociente de AMD): la memoria crece con el relleno, que es justamente
+    // lo que ocupará L.
+    // ----------------------------------------------------------
+    static int[] minimumDegree(int[][] adj0, int n) {
+        int[][] adj = new int[n][];
+        int[] degree = new int[n]; // vecinos sin eliminar: adj[i][0..degree[i]-1]
+        for (int i = 0; i < n; i++) {
+            adj[i] = adj0[i].clone();
+            degree[i] = adj[i].length;
+        }
+
+        // Listas doblemente enlazadas por grado
+        int[] head = new int[n];
+        int[] next = new int[n];
+        int[] prev = new int[n];
+        Arrays.fill(head, -1);
+        for (int i = n - 1; i >= 0; i--) {
+            link(i, degree[i], head, next, prev);
+        }
+
+        boolean[] eliminated = new boolean[n];
+        int[] mark = new int[n];
+        int tag = 0;
+        int[] order = new int[n];
+        int minDegree = 0;
+
+        for (int k = 0; k < n; k++) {
+            while (head[minDegree] == -1) {
+                minDegree++;
+            }
+            int v = head[minDegree];
+            unlink(v, degree[v], head, next, prev);
+            eliminated[v] = true;
+            order[k] = v;
+
+            // Vecinos de v todavía sin eliminar
+            int[] nv = adj[v];
+            int len = 0;
+            for (int a = 0; a < degree[v]; a++) {
+                if (!eliminated[nv[a]]) {
+                    nv[len++] = nv[a];
+                }
+            }
+
+            // Cada vecino u queda conectado con los demás vecinos de v
+            for (int a = 0; a < len; a++) {
+                if (tag == Integer.MAX_VALUE) {
+                    Arrays.fill(mark, 0);
+                    tag = 0;
+                }
+                tag++;
+                int u = nv[a];
+                int[] nu = adj[u];
+                int du = 0;
+                mark[u] = tag;
+                for (int b = 0; b < degree[u]; b++) {
+                    int w = nu[b];
+                    if (!eliminated[w] && mark[w] != tag) {
+                        mark[w] = tag;
+                        nu[du++] = w;
+                    }
+                }
+                for (int b = 0; b < len; b++) {
+                    int w = nv[b];
+                    if (mark[w] != tag) {
+                        if (du == nu.length) {
+                            nu = Arrays.copyOf(nu, Math.max(4, du + (du >> 1) + len - b));
+                            adj[u] = nu;
+                        }
+                        mark[w] = tag;
+                        nu[du++] = w;
+                    }
+                }
+
+                unlink(u, degree[u], head, next, prev);
+                degree[u] = du;
+                link(u, du, head, next, prev);
+                if (du < minDegree) {
+                    minDegree = du;
+                }
+            }
+            adj[v] = null;
+        }
+        return order;
+    }
+
+    private static void link(int i, int d, int[] head, int[] next, int[] prev) {
+        next[i] = head[d];
+        prev[i] = -1;
+        if (head[d] != -1) {
+            prev[head[d]] = i;
+        }
+        head[d] = i;
+    }
+
+    private static void unlink(int i, int d, int[] head, int[] next, int[] prev) {
+        if (prev[i] != -1) {
+            next[prev[i]] = next[i];
+        } else {
+            head[d] = next[i];
+        }
+        if (next[i] != -1) {
+            prev[next[i]] = prev[i];
+        }
+    }
+}
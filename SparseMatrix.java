@@ -0,0 +1,141 @@
+import java.util.Arrays;
+
+/**
+ * Matriz cuadrada dispersa en formato CSR (compressed sparse row).
+ *
+ * Solo se guardan los coeficientes distintos de cero fuera de la diagonal:
+ *  - rowPtr[i]..rowPtr[i+1]-1 son las posiciones de la fila i en colIdx/values
+ *  - colIdx[p] es la columna del coeficiente values[p]
+ *  - diag[i] es el coeficiente A[i][i], guardado aparte porque Gauss-Seidel
+ *    lo usa como divisor y así el barrido no necesita el "if (j != i)".
+ *
+ * La matriz se llena fila por fila, en orden, con {@link #add(int, double)}
+ * y {@link #endRow()}, que es justo como la va leyendo el parser de ecuaciones.
+ */
+public class SparseMatrix {
+
+    final int n;
+    final double[] diag;
+    final int[] rowPtr;
+    int[] colIdx;
+    double[] values;
+
+    private int nnz;        // coeficientes fuera de la diagonal guardados hasta ahora
+    private int currentRow; // fila que se está llenando
+
+    /**
+     * Crea una matriz n x n vacía.
+     *
+     * @param n        Número de filas/columnas
+     * @param nnzHint  Estimación de coeficientes fuera de la diagonal (para reservar memoria)
+     */
+    public SparseMatrix(int n, int nnzHint) {
+        this.n = n;
+        this.diag = new double[n];
+        this.rowPtr = new int[n + 1];
+        this.colIdx = new int[Math.max(nnzHint, 4)];
+        this.values = new double[Math.max(nnzHint, 4)];
+    }
+
+    /**
+     * Crea una matriz ya completa a partir de sus arreglos CSR (sin copiarlos).
+     */
+    SparseMatrix(int n, double[] diag, int[] rowPtr, int[] colIdx, double[] values) {
+        this.n = n;
+        this.diag = diag;
+        this.rowPtr = rowPtr;
+        this.colIdx = colIdx;
+        this.values = values;
+        this.nnz = rowPtr[n];
+        this.currentRow = n;
+    }
+
+    /**
+     * Agrega el coeficiente (fila actual, col) = value. Los ceros se ignoran.
+     * Cada columna debe aparecer una sola vez por fila.
+     */
+    public void add(int col, double value) {
+        if (currentRow >= n) {
+            throw new IllegalStateException("La matriz ya tiene sus " + n + " filas.");
+        }
+        if (value == 0.0) {
+            return;
+        }
+        if (col == currentRow) {
+            diag[col] = value;
+            return;
+        }
+        if (nnz == colIdx.length) {
+            int capacity = colIdx.length * 2;
+            colIdx = Arrays.copyOf(colIdx, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        colIdx[nnz] = col;
+        values[nnz] = value;
+        nnz++;
+    }
+
+    /**
+     * Cierra la fila actual y pasa a la siguiente.
+     */
+    public void endRow() {
+        currentRow++;
+        rowPtr[currentRow] = nnz;
+    }
+
+    /**
+     * Construye la versión CSR de una matriz densa.
+     */
+    public static SparseMatrix fromDense(double[][] A) {
+        int n = A.length;
+        SparseMatrix m = new SparseMatrix(n, 8 * n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                m.add(j, A[i][j]);
+            }
+            m.endRow();
+        }
+        return m;
+    }
+
+    /** Número de filas/columnas. */
+    public int size() {
+        return n;
+    }
+
+    /** Número de coeficientes guardados fuera de la diagonal. */
+    public int offDiagonalCount() {
+        return nnz;
+    }
+
+    /**
+     * Devuelve A[i][j] (búsqueda lineal en la fila; pensado para mostrar la matriz).
+     */
+    public double get(int i, int j) {
+        if (i == j) {
+            return diag[i];
+        }
+        for (int p = rowPtr[i]; p < rowPtr[i + 1]; p++) {
+            if (colIdx[p] == j) {
+                return values[p];
+            }
+        }
+        return 0.0;
+    }
+
+    /**
+     * Comprueba si la matriz es diagonalmente dominante, recorriendo solo los no ceros.
+     */
+    public boolean isDiagonallyDominant() {
+        for (int i = 0; i < n; i++) {
+            double sumRow = 0.0;
+            for (int p = rowPtr[i]; p < rowPtr[i + 1]; p++) {
+                sumRow += Math.abs(values[p]);
+            }
+            if (Math.abs(diag[i]) < sumRow) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,315 @@
+import java.util.Arrays;
+
+public class UpdatableLU {
+
+    // ----------------------------------------------------------
+    // Factorización LU que se puede actualizar cuando cambian pocas filas
+    // o columnas de A, sin volver a factorizar (O(n^3)) en cada cambio.
+    //
+    // Se guarda la LU de una matriz base A0 y los cambios acumulados como
+    // A = A0 + U V^T  (U y V de n x k, una columna por cada cambio de
+    // rango uno). Con la fórmula de Sherman-Morrison-Woodbury:
+    //
+    //   A^{-1} b = y - Z C^{-1} V^T y,   y = A0^{-1} b,  Z = A0^{-1} U,
+    //                                    C = I + V^T Z   (k x k)
+    //
+    // Cada cambio de rango uno cuesta una sustitución O(n^2) (la nueva
+    // columna de Z) más O(n k) para C; cada solve, O(n^2 + n k).
+    //  - cambiar la fila i:     u = e_i, v = fila nueva - fila vieja
+    //  - cambiar la columna j:  u = columna nueva - columna vieja, v = e_j
+    //
+    // Control de deriva: se vuelve a factorizar A completa (y k vuelve a 0)
+    //  - cuando k llega a maxRank (los solves ya cuestan demasiado),
+    //  - cuando C tiene un pivote demasiado pequeño (la fórmula pierde
+    //    precisión: A está cerca de ser singular o muy lejos de A0),
+    //  - cuando el error hacia atrás de un solve,
+    //      |b - A x| / (|A| |x| + |b|)   (norma infinito),
+    //    supera 'drift'; en ese caso se refactoriza y se repite el solve.
+    //
+    // Se guarda una copia de A (contigua por filas) con los cambios
+    // aplicados, para los residuos y las refactorizaciones.
+    // ----------------------------------------------------------
+
+    // Cambios de rango uno acumulados antes de refactorizar
+    public static final int DEFAULT_MAX_RANK = 16;
+
+    // Error hacia atrás máximo de un solve antes de refactorizar
+    public static final double DEFAULT_DRIFT = 1e-10;
+
+    final int n;
+    final double tol;
+    final double[] a;        // A actual, contigua por filas
+    final double[] rowSum;   // suma de |A(i,j)| por fila (para |A|_inf)
+
+    private final int maxRank;
+    private final double drift;
+
+    private LUFactorization base; // LU de A0
+    private final double[][] z;   // z[r] = A0^{-1} u_r
+    private final double[][] v;   // v[r]
+    private int rank;
+
+    private final double[] c;     // C = I + V^T Z, maxRank x maxRank (se usan k x k)
+    private double[] cLU;         // LU de C (k x k)
+    private final int[] co;
+    private final double[] cs;
+
+    private final double[] work;  // vector de trabajo (n)
+    private final double[] w;     // V^T y, y luego C^{-1} V^T y
+    private final double[] t;
+
+    private int checkInterval = 1;
+    private int solvesSinceCheck;
+    private double lastResidual = Double.NaN;
+    private int refactorizations;
+
+    private UpdatableLU(double[] a, int n, double tol, int maxRank, double drift) {
+        this.n = n;
+        this.tol = tol;
+        this.a = a;
+        this.maxRank = maxRank;
+        this.drift = drift;
+        this.rowSum = new double[n];
+        this.z = new double[maxRank][];
+        this.v = new double[maxRank][];
+        this.c = new double[maxRank * maxRank];
+        this.co = new int[maxRank];
+        this.cs = new double[maxRank];
+        this.work = new double[n];
+        this.w = new double[maxRank];
+        this.t = new double[maxRank];
+        for (int i = 0; i < n; i++) {
+            updateRowSum(i);
+        }
+    }
+
+    // ----------------------------------------------------------
+    // SUB factor(a, n, tol)
+    //
+    // Factoriza una copia de A, con DEFAULT_MAX_RANK y DEFAULT_DRIFT.
+    // ----------------------------------------------------------
+    public static UpdatableLU factor(double[][] a, int n, double tol) {
+        return factor(a, n, tol, DEFAULT_MAX_RANK, DEFAULT_DRIFT);
+    }
+
+    public static UpdatableLU factor(double[][] a, int n, double tol, int maxRank, double drift) {
+        if (maxRank < 1) {
+            throw new IllegalArgumentException("maxRank debe ser positivo: " + maxRank);
+        }
+        UpdatableLU lu = new UpdatableLU(BlockedLU.toRowMajor(a, n), n, tol, maxRank, drift);
+        lu.base = LUFactorization.factor(lu.a, n, tol);
+        return lu;
+    }
+
+    // ----------------------------------------------------------
+    // SUB updateRow(i, row)
+    //
+    // Reemplaza la fila i de A por 'row'.
+    // ----------------------------------------------------------
+    public void updateRow(int i, double[] row) {
+        double[] d = new double[n];
+        int base = i * n;
+        for (int j = 0; j < n; j++) {
+            d[j] = row[j] - a[base + j];
+            a[base + j] = row[j];
+        }
+        updateRowSum(i);
+
+        Arrays.fill(work, 0.0);
+        work[i] = 1.0;
+        addRankOne(work, d);
+    }
+
+    // ----------------------------------------------------------
+    // SUB updateColumn(j, column)
+    //
+    // Reemplaza la columna j de A por 'column'.
+    // ----------------------------------------------------------
+    public void updateColumn(int j, double[] column) {
+        double[] d = new double[n];
+        for (int i = 0; i < n; i++) {
+            int ij = i * n + j;
+            d[i] = column[i] - a[ij];
+            rowSum[i] += Math.abs(column[i]) - Math.abs(a[ij]);
+            a[ij] = column[i];
+        }
+
+        double[] e = new double[n];
+        e[j] = 1.0;
+        addRankOne(d, e);
+    }
+
+    // ----------------------------------------------------------
+    // SUB update(u, v)
+    //
+    // Cambio general de rango uno: A = A + u v^T. Para un cambio de
+    // rango k, llamar k veces (cada una cuesta O(n^2)).
+    // ----------------------------------------------------------
+    public void update(double[] u, double[] vr) {
+        for (int i = 0; i < n; i++) {
+            VectorOps.eliminate(a, i * n, -u[i], vr, 0, n);
+            updateRowSum(i);
+        }
+        addRankOne(u.clone(), vr.clone());
+    }
+
+    // Agrega u v^T a los cambios acumulados (A ya está actualizada)
+    private void addRankOne(double[] u, double[] vr) {
+        if (rank == maxRank || base.error() == -1) {
+            refactor();
+            return;
+        }
+
+        // z = A0^{-1} u
+        double[] zr = new double[n];
+        base.solve(u, zr);
+        z[rank] = zr;
+        v[rank] = vr;
+        int k = rank + 1;
+
+        // Nueva fila y columna de C = I + V^T Z
+        for (int r = 0; r < k; r++) {
+            c[rank * maxRank + r] = VectorOps.dotAdd(0.0, vr, 0, z[r], 0, n);
+            c[r * maxRank + rank] = VectorOps.dotAdd(0.0, v[r], 0, zr, 0, n);
+        }
+        c[rank * maxRank + rank] += 1.0;
+        rank = k;
+
+        if (!factorCapacitance()) {
+            refactor();
+        }
+    }
+
+    // LU de C (k x k) con el mismo pivoteo; false si un pivote es demasiado pequeño
+    private boolean factorCapacitance() {
+        int k = rank;
+        cLU = new double[k * k];
+        for (int i = 0; i < k; i++) {
+            System.arraycopy(c, i * maxRank, cLU, i * k, k);
+        }
+        int[] er = new int[1];
+        BlockedLU.Decompose(cLU, k, tol, cs, co, er, BlockedLU.DEFAULT_BLOCK, SolverListener.SILENT);
+        return er[0] == 0;
+    }
+
+    // ----------------------------------------------------------
+    // SUB refactor()
+    //
+    // Factoriza la A actual desde cero y descarta los cambios acumulados.
+    // ----------------------------------------------------------
+    public void refactor() {
+        base = LUFactorization.factor(a, n, tol);
+        Arrays.fill(z, null);
+        Arrays.fill(v, null);
+        rank = 0;
+        cLU = null;
+        solvesSinceCheck = 0;
+        refactorizations++;
+    }
+
+    // ----------------------------------------------------------
+    // SUB solve(b, x)
+    //
+    // Resuelve A x = b con la A actual (b no se modifica). Cada
+    // checkInterval solves se calcula el error hacia atrás y, si pasa de
+    // 'drift', se refactoriza y se resuelve de nuevo.
+    // ----------------------------------------------------------
+    public void solve(double[] b, double[] x) {
+        if (base.error() == -1) {
+            throw new ArithmeticException("La matriz está mal condicionada; no se puede resolver.");
+        }
+        solveWoodbury(b, x);
+
+        if (rank > 0 && ++solvesSinceCheck >= checkInterval) {
+            solvesSinceCheck = 0;
+            lastResidual = backwardError(b, x);
+            if (!(lastResidual <= drift)) {
+                refactor();
+                solve(b, x);
+            }
+        }
+    }
+
+    private void solveWoodbury(double[] b, double[] x) {
+        // y = A0^{-1} b
+        base.solve(b, x);
+        if (rank == 0) {
+            return;
+        }
+
+        // t = C^{-1} V^T y
+        int k = rank;
+        for (int r = 0; r < k; r++) {
+            w[r] = VectorOps.dotAdd(0.0, v[r], 0, x, 0, n);
+        }
+        BlockedLU.Substitute(cLU, co, k, w, t);
+
+        // x = y - Z t
+        for (int r = 0; r < k; r++) {
+            VectorOps.eliminate(x, 0, t[r], z[r], 0, n);
+        }
+    }
+
+    // |b - A x|_inf / (|A|_inf |x|_inf + |b|_inf)
+    private double backwardError(double[] b, double[] x) {
+        double rNorm = 0.0;
+        double bNorm = 0.0;
+        double xNorm = 0.0;
+        double aNorm = 0.0;
+        for (int i = 0; i < n; i++) {
+            double r = VectorOps.dotSubtract(b[i], a, i * n, x, 0, n);
+            rNorm = Math.max(rNorm, Math.abs(r));
+            bNorm = Math.max(bNorm, Math.abs(b[i]));
+            xNorm = Math.max(xNorm, Math.abs(x[i]));
+            aNorm = Math.max(aNorm, rowSum[i]);
+        }
+        double scale = aNorm * xNorm + bNorm;
+        return scale == 0.0 ? 0.0 : rNorm / scale;
+    }
+
+    private void updateRowSum(int i) {
+        double sum = 0.0;
+        int base = i * n;
+        for (int j = 0; j < n; j++) {
+            sum += Math.abs(a[base + j]);
+        }
+        rowSum[i] = sum;
+    }
+
+    // Cada cuántos solves se revisa el error hacia atrás (1 = siempre, O(n^2) extra)
+    public void setCheckInterval(int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("El intervalo debe ser positivo: " + interval);
+        }
+        this.checkInterval = interval;
+    }
+
+    // Cambios de rango uno acumulados desde la última factorización
+    public int rank() {
+        return rank;
+    }
+
+    // Refactorizaciones hechas por el control de deriva (o por refactor())
+    public int refactorizations() {
+        return refactorizations;
+    }
+
+    // Error hacia atrás de la última revisión (NaN si no hubo ninguna)
+    public double lastResidual() {
+        return lastResidual;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    // Código de error de la última factorización completa (0 = OK, -1 = mal condicionado)
+    public int error() {
+        return base.error();
+    }
+
+    // Memoria aproximada (A, factores y columnas de Z y V)
+    public long bytes() {
+        return 8L * n * n + base.bytes() + 16L * n * rank + 8L * maxRank * maxRank;
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * Núcleos de los bucles internos de Decompose, Substitute y Gauss-Seidel:
+ *  - eliminate:   y[j] = y[j] - factor * x[j]       (resta de una fila escalada)
+ *  - dotAdd:      sum + a[0]*x[0] + a[1]*x[1] + ...
+ *  - dotSubtract: sum - a[0]*x[0] - a[1]*x[1] - ...
+ *  - multiplySubtract: y[j] = y[j] - u[j] * v[j]
+ *
+ * Si la JVM se arrancó con --add-modules jdk.incubator.vector y el
+ * procesador tiene registros SIMD de más de un double, se usa
+ * {@code VectorOpsSimd} (Vector API). Si no, la versión escalar, que hace
+ * exactamente las mismas operaciones, en el mismo orden, que los bucles
+ * originales.
+ *
+ * eliminate da el mismo resultado bit a bit en las dos versiones (cada
+ * elemento es una multiplicación y una resta independientes). En los
+ * productos punto la versión SIMD suma por carriles, así que el resultado
+ * puede diferir en el redondeo.
+ *
+ * multiplySubtract es la versión elemento a elemento de eliminate (un
+ * factor distinto por posición); la usa BatchLU, que recorre muchos
+ * sistemas a la vez.
+ *
+ * eliminate y dotSubtract también existen en float (LU de precisión
+ * mixta); ahí cada vector lleva el doble de elementos.
+ *
+ * Con -Dvector.ops=scalar se fuerza la versión escalar.
+ */
+public final class VectorOps {
+
+    /** Implementación de los núcleos (escalar o SIMD). */
+    interface Kernels {
+        void eliminate(double[] y, int yOff, double factor, double[] x, int xOff, int len);
+
+        double dotAdd(double sum, double[] a, int aOff, double[] x, int xOff, int len);
+
+        double dotSubtract(double sum, double[] a, int aOff, double[] x, int xOff, int len);
+
+        void multiplySubtract(double[] y, int yOff, double[] u, int uOff, double[] v, int vOff, int len);
+
+        void eliminate(float[] y, int yOff, float factor, float[] x, int xOff, int len);
+
+        float dotSubtract(float sum, float[] a, int aOff, float[] x, int xOff, int len);
+
+        /** Número de doubles por operación (1 = escalar). */
+        int lanes();
+    }
+
+    static final Kernels SCALAR = new Scalar();
+
+    // static final: el JIT la trata como constante y puede inlinear la implementación elegida
+    private static final Kernels KERNELS = select();
+
+    private VectorOps() {
+    }
+
+    // ----------------------------------------------------------
+    // y[yOff + j] = y[yOff + j] - factor * x[xOff + j], j = 0..len-1
+    // ----------------------------------------------------------
+    public static void eliminate(double[] y, int yOff, double factor, double[] x, int xOff, int len) {
+        KERNELS.eliminate(y, yOff, factor, x, xOff, len);
+    }
+
+    // ----------------------------------------------------------
+    // sum + suma de a[aOff + j] * x[xOff + j], j = 0..len-1
+    // ----------------------------------------------------------
+    public static double dotAdd(double sum, double[] a, int aOff, double[] x, int xOff, int len) {
+        return KERNELS.dotAdd(sum, a, aOff, x, xOff, len);
+    }
+
+    // ----------------------------------------------------------
+    // sum - suma de a[aOff + j] * x[xOff + j], j = 0..len-1
+    // ----------------------------------------------------------
+    public static double dotSubtract(double sum, double[] a, int aOff, double[] x, int xOff, int len) {
+        return KERNELS.dotSubtract(sum, a, aOff, x, xOff, len);
+    }
+
+    // ----------------------------------------------------------
+    // y[yOff + j] = y[yOff + j] - u[uOff + j] * v[vOff + j], j = 0..len-1
+    // ----------------------------------------------------------
+    public static void multiplySubtract(double[] y, int yOff, double[] u, int uOff, double[] v, int vOff, int len) {
+        KERNELS.multiplySubtract(y, yOff, u, uOff, v, vOff, len);
+    }
+
+    // Versiones en float (mismas operaciones)
+    public static void eliminate(float[] y, int yOff, float factor, float[] x, int xOff, int len) {
+        KERNELS.eliminate(y, yOff, factor, x, xOff, len);
+    }
+
+    public static float dotSubtract(float sum, float[] a, int aOff, float[] x, int xOff, int len) {
+        return KERNELS.dotSubtract(sum, a, aOff, x, xOff, len);
+    }
+
+    /** true si se está usando la Vector API. */
+    public static boolean isVectorized() {
+        return KERNELS.lanes() > 1;
+    }
+
+    /** Descripción de la implementación elegida, por ejemplo "SIMD (4 doubles)". */
+    public static String describe() {
+        return isVectorized() ? "SIMD (" + KERNELS.lanes() + " doubles)" : "escalar";
+    }
+
+    // La clase SIMD se carga por reflexión: si el módulo jdk.incubator.vector
+    // no está disponible, falla al inicializarse y se usa la escalar.
+    private static Kernels select() {
+        if ("scalar".equals(System.getProperty("vector.ops"))) {
+            return SCALAR;
+        }
+        try {
+            Kernels simd = (Kernels) Class.forName("VectorOpsSimd").getDeclaredConstructor().newInstance();
+            return simd.lanes() > 1 ? simd : SCALAR;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return SCALAR;
+        }
+    }
+
+    // ==========================
+    // Versión escalar
+    // ==========================
+
+    static final class Scalar implements Kernels {
+        @Override
+        public void eliminate(double[] y, int yOff, double factor, double[] x, int xOff, int len) {
+            for (int j = 0; j < len; j++) {
+                y[yOff + j] = y[yOff + j] - factor * x[xOff + j];
+            }
+        }
+
+        @Override
+        public double dotAdd(double sum, double[] a, int aOff, double[] x, int xOff, int len) {
+            for (int j = 0; j < len; j++) {
+                sum += a[aOff + j] * x[xOff + j];
+            }
+            return sum;
+        }
+
+        @Override
+        public double dotSubtract(double sum, double[] a, int aOff, double[] x, int xOff, int len) {
+            for (int j = 0; j < len; j++) {
+                sum -= a[aOff + j] * x[xOff + j];
+            }
+            return sum;
+        }
+
+        @Override
+        public void multiplySubtract(double[] y, int yOff, double[] u, int uOff, double[] v, int vOff, int len) {
+            for (int j = 0; j < len; j++) {
+                y[yOff + j] = y[yOff + j] - u[uOff + j] * v[vOff + j];
+            }
+        }
+
+        @Override
+        public void eliminate(float[] y, int yOff, float factor, float[] x, int xOff, int len) {
+            for (int j = 0; j < len; j++) {
+                y[yOff + j] = y[yOff + j] - factor * x[xOff + j];
+            }
+        }
+
+        @Override
+        public float dotSubtract(float sum, float[] a, int aOff, float[] x, int xOff, int len) {
+            for (int j = 0; j < len; j++) {
+                sum -= a[aOff + j] * x[xOff + j];
+            }
+            return sum;
+        }
+
+        @Override
+        public int lanes() {
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Núcleos de {@link VectorOps} con la Vector API (jdk.incubator.vector).
+ *
+ * Se procesa de a SPECIES.length() doubles; la cola (len no múltiplo del
+ * ancho) se termina con el mismo bucle escalar. Si len es menor que el
+ * ancho no se entra al bucle vectorial.
+ *
+ * Solo se carga desde VectorOps.select(), así que el resto del programa
+ * funciona aunque la JVM no tenga el módulo.
+ */
+final class VectorOpsSimd implements VectorOps.Kernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Float> FLOAT_SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public void eliminate(double[] y, int yOff, double factor, double[] x, int xOff, int len) {
+        int upper = SPECIES.loopBound(len);
+        int j = 0;
+        if (upper > 0) {
+            DoubleVector f = DoubleVector.broadcast(SPECIES, factor);
+            for (; j < upper; j += SPECIES.length()) {
+                DoubleVector vy = DoubleVector.fromArray(SPECIES, y, yOff + j);
+                DoubleVector vx = DoubleVector.fromArray(SPECIES, x, xOff + j);
+                // mul y sub por separado (sin fma) para que coincida bit a bit con la escalar
+                vy.sub(vx.mul(f)).intoArray(y, yOff + j);
+            }
+        }
+        for (; j < len; j++) {
+            y[yOff + j] = y[yOff + j] - factor * x[xOff + j];
+        }
+    }
+
+    // Si no alcanza para un vector se usa el bucle escalar tal cual,
+    // así los productos cortos (primeras filas de L, etc.) dan lo mismo que antes.
+
+    @Override
+    public double dotAdd(double sum, double[] a, int aOff, double[] x, int xOff, int len) {
+        if (len < SPECIES.length()) {
+            return VectorOps.SCALAR.dotAdd(sum, a, aOff, x, xOff, len);
+        }
+        return sum + dot(a, aOff, x, xOff, len);
+    }
+
+    @Override
+    public double dotSubtract(double sum, double[] a, int aOff, double[] x, int xOff, int len) {
+        if (len < SPECIES.length()) {
+            return VectorOps.SCALAR.dotSubtract(sum, a, aOff, x, xOff, len);
+        }
+        return sum - dot(a, aOff, x, xOff, len);
+    }
+
+    private static double dot(double[] a, int aOff, double[] x, int xOff, int len) {
+        int upper = SPECIES.loopBound(len);
+        DoubleVector acc = DoubleVector.zero(SPECIES);
+        int j = 0;
+        for (; j < upper; j += SPECIES.length()) {
+            DoubleVector va = DoubleVector.fromArray(SPECIES, a, aOff + j);
+            DoubleVector vx = DoubleVector.fromArray(SPECIES, x, xOff + j);
+            acc = acc.add(va.mul(vx));
+        }
+        double sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; j < len; j++) {
+            sum += a[aOff + j] * x[xOff + j];
+        }
+        return sum;
+    }
+
+    @Override
+    public void multiplySubtract(double[] y, int yOff, double[] u, int uOff, double[] v, int vOff, int len) {
+        int upper = SPECIES.loopBound(len);
+        int j = 0;
+        for (; j < upper; j += SPECIES.length()) {
+            DoubleVector vy = DoubleVector.fromArray(SPECIES, y, yOff + j);
+            DoubleVector vu = DoubleVector.fromArray(SPECIES, u, uOff + j);
+            DoubleVector vv = DoubleVector.fromArray(SPECIES, v, vOff + j);
+            vy.sub(vu.mul(vv)).intoArray(y, yOff + j);
+        }
+        for (; j < len; j++) {
+            y[yOff + j] = y[yOff + j] - u[uOff + j] * v[vOff + j];
+        }
+    }
+
+    // ==========================
+    // float
+    // ==========================
+
+    @Override
+    public void eliminate(float[] y, int yOff, float factor, float[] x, int xOff, int len) {
+        int upper = FLOAT_SPECIES.loopBound(len);
+        int j = 0;
+        if (upper > 0) {
+            FloatVector f = FloatVector.broadcast(FLOAT_SPECIES, factor);
+            for (; j < upper; j += FLOAT_SPECIES.length()) {
+                FloatVector vy = FloatVector.fromArray(FLOAT_SPECIES, y, yOff + j);
+                FloatVector vx = FloatVector.fromArray(FLOAT_SPECIES, x, xOff + j);
+                vy.sub(vx.mul(f)).intoArray(y, yOff + j);
+            }
+        }
+        for (; j < len; j++) {
+            y[yOff + j] = y[yOff + j] - factor * x[xOff + j];
+        }
+    }
+
+    @Override
+    public float dotSubtract(float sum, float[] a, int aOff, float[] x, int xOff, int len) {
+        if (len < FLOAT_SPECIES.length()) {
+            return VectorOps.SCALAR.dotSubtract(sum, a, aOff, x, xOff, len);
+        }
+        int upper = FLOAT_SPECIES.loopBound(len);
+        FloatVector acc = FloatVector.zero(FLOAT_SPECIES);
+        int j = 0;
+        for (; j < upper; j += FLOAT_SPECIES.length()) {
+            FloatVector va = FloatVector.fromArray(FLOAT_SPECIES, a, aOff + j);
+            FloatVector vx = FloatVector.fromArray(FLOAT_SPECIES, x, xOff + j);
+            acc = acc.add(va.mul(vx));
+        }
+        float dot = acc.reduceLanes(VectorOperators.ADD);
+        for (; j < len; j++) {
+            dot += a[aOff + j] * x[xOff + j];
+        }
+        return sum - dot;
+    }
+
+    @Override
+    public int lanes() {
+        return SPECIES.length();
+    }
+}
@@ -0,0 +1,107 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lotes de sistemas chicos: BatchLU.solve contra un bucle de
+ * LUProgram.Decompose + Substitute, un sistema a la vez.
+ *
+ * Los resultados son por sistema (OperationsPerInvocation = COUNT). Ambas
+ * versiones copian primero los datos originales, porque trabajan en el lugar.
+ * El parámetro threads solo afecta a batch.
+ *
+ *   java -jar benchmarks/target/benchmarks.jar BatchBenchmark -p threads=1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class BatchBenchmark {
+
+    static final int COUNT = 100_000;
+
+    @Param({"3", "4", "6", "8"})
+    public int n;
+
+    // "1" = en el hilo del benchmark, "all" = pool común
+    @Param({"1", "all"})
+    public String threads;
+
+    private double[] a0, b0, a, b, x;
+    private int[] er;
+    private double[][][] systems;
+    private double[][][] work;
+    private double[][] rhs;
+    private double[] s, bb, y;
+    private int[] er1;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        a0 = new double[n * n * COUNT];
+        b0 = new double[n * COUNT];
+        systems = new double[COUNT][n][n];
+        work = new double[COUNT][n][n];
+        rhs = new double[COUNT][n];
+        for (int p = 0; p < COUNT; p++) {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    systems[p][i][j] = random.nextDouble() - 0.5;
+                    a0[(i * n + j) * COUNT + p] = systems[p][i][j];
+                }
+                rhs[p][i] = random.nextDouble();
+                b0[i * COUNT + p] = rhs[p][i];
+            }
+        }
+        a = new double[a0.length];
+        b = new double[b0.length];
+        x = new double[b0.length];
+        er = new int[COUNT];
+        s = new double[n];
+        bb = new double[n];
+        y = new double[n];
+        er1 = new int[1];
+        pool = "all".equals(threads) ? ForkJoinPool.commonPool() : null;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public double[] batch() {
+        System.arraycopy(a0, 0, a, 0, a0.length);
+        System.arraycopy(b0, 0, b, 0, b0.length);
+        Kernels.batchSolve(n, COUNT, a, b, x, er, 0.0, pool);
+        return x;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public double[] loop() {
+        for (int p = 0; p < COUNT; p++) {
+            double[][] m = work[p];
+            Matrices.copy(systems[p], m);
+            Kernels.decompose(m, n, 0.0, s, er1);
+            System.arraycopy(rhs[p], 0, bb, 0, n); // Substitute sobreescribe b con y
+            Kernels.substitute(m, n, bb, y);
+        }
+        return y;
+    }
+}
@@ -0,0 +1,23 @@
+package bench;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Contador auxiliar de operaciones de punto flotante. En modo Throughput
+ * JMH lo reporta como "flops" por segundo; dividido por 1e9 da GFLOP/s.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class Flops {
+
+    public long flops;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        flops = 0;
+    }
+}
@@ -0,0 +1,69 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks de gaussSeidel: versión densa (double[][]) y dispersa (CSR).
+ *
+ * Cada operación hace un número fijo de barridos (tolerancia 0) para medir
+ * el costo por barrido y no la velocidad de convergencia.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class GaussSeidelBenchmark {
+
+    private static final int SWEEPS = 10;
+
+    @Param({"16", "64", "256", "1024", "4096"})
+    public int n;
+
+    @Param({"dense", "sparse"})
+    public String structure;
+
+    @Param({"well", "ill"})
+    public String conditioning;
+
+    private double[][] dense;
+    private Object sparse;
+    private long sparseNonZeros;
+    private double[] b;
+    private double[] x0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dense = Matrices.generate(n, structure, conditioning, 42);
+        sparse = Kernels.sparseFromDense(dense);
+        sparseNonZeros = Kernels.offDiagonalCount(sparse) + n;
+        b = Matrices.vector(n, 7);
+        x0 = new double[n];
+    }
+
+    @Benchmark
+    public double[] gaussSeidelDense(Flops flops) {
+        flops.flops += 2L * n * n * SWEEPS;
+        return Kernels.gaussSeidel(dense, b, x0, 0.0, SWEEPS);
+    }
+
+    @Benchmark
+    public double[] gaussSeidelSparse(Flops flops) {
+        flops.flops += 2L * sparseNonZeros * SWEEPS;
+        return Kernels.gaussSeidelSparse(sparse, b, x0, 0.0, SWEEPS);
+    }
+}
@@ -0,0 +1,204 @@
+package bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Acceso a los núcleos numéricos desde el paquete de benchmarks.
+ *
+ * Los programas están en el paquete por defecto, que no se puede importar
+ * desde un paquete con nombre (y JMH exige uno). Por eso se llaman a través
+ * de MethodHandles guardados en campos static final: el JIT los trata como
+ * constantes y la llamada queda igual de directa que una invocación normal.
+ *
+ * Decompose y gaussSeidel se llaman con SolverListener.SILENT, para medir
+ * la aritmética y no la impresión por consola.
+ */
+final class Kernels {
+
+    static final Class<?> SPARSE_MATRIX = load("SparseMatrix");
+    static final Class<?> EQUATION_PARSER = load("EquationParser");
+    static final Class<?> SOLVER_LISTENER = load("SolverListener");
+    private static final Object SILENT = silentListener();
+
+    private static final MethodHandle DECOMPOSE = MethodHandles.insertArguments(find("LUProgram", "Decompose",
+            MethodType.methodType(void.class, double[][].class, int.class, double.class, double[].class, int[].class,
+                    SOLVER_LISTENER)), 5, SILENT);
+    private static final MethodHandle SUBSTITUTE = find("LUProgram", "Substitute",
+            MethodType.methodType(void.class, double[][].class, int.class, int.class, double[].class, double[].class));
+    private static final MethodHandle PIVOT = find("LUProgram", "Pivot",
+            MethodType.methodType(void.class, double[][].class, double[].class, int.class, int.class));
+    private static final MethodHandle BATCH_SOLVE = find("BatchLU", "solve",
+            MethodType.methodType(void.class, int.class, int.class, double[].class, double[].class, double[].class,
+                    int[].class, double.class, ForkJoinPool.class));
+    private static final MethodHandle GAUSS_SEIDEL_DENSE = MethodHandles.insertArguments(find("GaussSeidelWithEquations",
+            "gaussSeidel", MethodType.methodType(double[].class, double[][].class, double[].class, double[].class,
+                    double.class, int.class, SOLVER_LISTENER)), 5, SILENT);
+    private static final MethodHandle GAUSS_SEIDEL_SPARSE = MethodHandles.insertArguments(find("GaussSeidelWithEquations",
+            "gaussSeidel", MethodType.methodType(double[].class, SPARSE_MATRIX, double[].class, double[].class,
+                    double.class, int.class, SOLVER_LISTENER)), 5, SILENT)
+            .asType(MethodType.methodType(double[].class, Object.class, double[].class, double[].class, double.class, int.class));
+    private static final MethodHandle FROM_DENSE = find("SparseMatrix", "fromDense",
+            MethodType.methodType(SPARSE_MATRIX, double[][].class))
+            .asType(MethodType.methodType(Object.class, double[][].class));
+    private static final MethodHandle OFF_DIAGONAL_COUNT = virtual(SPARSE_MATRIX, "offDiagonalCount",
+            MethodType.methodType(int.class))
+            .asType(MethodType.methodType(int.class, Object.class));
+    private static final MethodHandle NEW_SPARSE = constructor(SPARSE_MATRIX,
+            MethodType.methodType(void.class, int.class, int.class))
+            .asType(MethodType.methodType(Object.class, int.class, int.class));
+    private static final MethodHandle NEW_PARSER = constructor(EQUATION_PARSER,
+            MethodType.methodType(void.class, String[].class))
+            .asType(MethodType.methodType(Object.class, String[].class));
+    private static final MethodHandle PARSE_ROW = virtual(EQUATION_PARSER, "parseEquationToRow",
+            MethodType.methodType(void.class, CharSequence.class, SPARSE_MATRIX, double[].class, int.class))
+            .asType(MethodType.methodType(void.class, Object.class, CharSequence.class, Object.class, double[].class, int.class));
+
+    private Kernels() {
+    }
+
+    static void decompose(double[][] a, int n, double tol, double[] s, int[] er) {
+        try {
+            DECOMPOSE.invokeExact(a, n, tol, s, er);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void substitute(double[][] a, int n, double[] b, double[] x) {
+        try {
+            SUBSTITUTE.invokeExact(a, 0, n, b, x);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void pivot(double[][] a, double[] s, int n, int k) {
+        try {
+            PIVOT.invokeExact(a, s, n, k);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void batchSolve(int n, int count, double[] a, double[] b, double[] x, int[] er, double tol,
+                           ForkJoinPool pool) {
+        try {
+            BATCH_SOLVE.invokeExact(n, count, a, b, x, er, tol, pool);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static double[] gaussSeidel(double[][] A, double[] b, double[] x0, double tolerance, int maxIter) {
+        try {
+            return (double[]) GAUSS_SEIDEL_DENSE.invokeExact(A, b, x0, tolerance, maxIter);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static double[] gaussSeidelSparse(Object A, double[] b, double[] x0, double tolerance, int maxIter) {
+        try {
+            return (double[]) GAUSS_SEIDEL_SPARSE.invokeExact(A, b, x0, tolerance, maxIter);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object sparseFromDense(double[][] A) {
+        try {
+            return (Object) FROM_DENSE.invokeExact(A);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int offDiagonalCount(Object sparse) {
+        try {
+            return (int) OFF_DIAGONAL_COUNT.invokeExact(sparse);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object newSparseMatrix(int n, int nnzHint) {
+        try {
+            return (Object) NEW_SPARSE.invokeExact(n, nnzHint);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object newEquationParser(String[] variables) {
+        try {
+            return (Object) NEW_PARSER.invokeExact(variables);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void parseEquationToRow(Object parser, CharSequence equation, Object A, double[] b, int row) {
+        try {
+            PARSE_ROW.invokeExact(parser, equation, A, b, row);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    // ==========================
+    // Búsqueda de métodos
+    // ==========================
+
+    private static Class<?> load(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("No se encontró la clase " + name + " en el classpath", e);
+        }
+    }
+
+    private static Object silentListener() {
+        try {
+            return SOLVER_LISTENER.getField("SILENT").get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se encontró SolverListener.SILENT", e);
+        }
+    }
+
+    private static MethodHandle find(String className, String method, MethodType type) {
+        try {
+            return MethodHandles.publicLookup().findStatic(load(className), method, type);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se encontró " + className + "." + method, e);
+        }
+    }
+
+    private static MethodHandle virtual(Class<?> owner, String method, MethodType type) {
+        try {
+            return MethodHandles.publicLookup().findVirtual(owner, method, type);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se encontró " + owner.getName() + "." + method, e);
+        }
+    }
+
+    private static MethodHandle constructor(Class<?> owner, MethodType type) {
+        try {
+            return MethodHandles.publicLookup().findConstructor(owner, type);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se encontró el constructor de " + owner.getName(), e);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return new IllegalStateException(t);
+    }
+}
@@ -0,0 +1,109 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks de LUProgram: Decompose, Substitute y Pivot.
+ *
+ * Decompose trabaja en el lugar, así que cada operación copia primero la
+ * matriz original (O(n^2), despreciable frente a 2n^3/3 salvo para n muy chico).
+ * Se usa tol = 0 para que las matrices mal condicionadas también se factoricen
+ * completas y se mida siempre el mismo trabajo.
+ *
+ *   java -jar benchmarks/target/benchmarks.jar LUBenchmark -prof gc
+ *
+ * Los forks se arrancan con el módulo de la Vector API, así que se miden
+ * los núcleos SIMD de VectorOps; para comparar con la versión escalar:
+ *
+ *   java -jar benchmarks/target/benchmarks.jar LUBenchmark -jvmArgsAppend -Dvector.ops=scalar
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class LUBenchmark {
+
+    @Param({"16", "64", "256", "1024", "4096"})
+    public int n;
+
+    @Param({"dense", "sparse"})
+    public String structure;
+
+    @Param({"well", "ill"})
+    public String conditioning;
+
+    private double[][] original;
+    private double[][] work;
+    private double[][] factored;
+    private double[] s;
+    private int[] er;
+    private double[] b;
+    private double[] rhs;
+    private double[] x;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        original = Matrices.generate(n, structure, conditioning, 42);
+        work = new double[n][n];
+        factored = new double[n][n];
+        s = new double[n];
+        er = new int[1];
+        Matrices.copy(original, factored);
+        Kernels.decompose(factored, n, 0.0, new double[n], new int[1]);
+        b = Matrices.vector(n, 7);
+        rhs = new double[n];
+        x = new double[n];
+    }
+
+    @Benchmark
+    public double[][] decompose(Flops flops) {
+        Matrices.copy(original, work);
+        Kernels.decompose(work, n, 0.0, s, er);
+        flops.flops += 2L * n * n * n / 3;
+        return work;
+    }
+
+    @Benchmark
+    public double[] substitute(Flops flops) {
+        // Substitute sobreescribe b con y
+        System.arraycopy(b, 0, rhs, 0, n);
+        Kernels.substitute(factored, n, rhs, x);
+        flops.flops += 2L * n * n;
+        return x;
+    }
+
+    @Benchmark
+    public void pivot(Blackhole bh) {
+        // Busca el pivote de la primera columna (n divisiones) y a lo sumo intercambia dos filas
+        Kernels.pivot(work, s, n, 0);
+        bh.consume(work);
+    }
+
+    @Setup(Level.Iteration)
+    public void preparePivot() {
+        Matrices.copy(original, work);
+        for (int i = 0; i < n; i++) {
+            double big = 0.0;
+            for (int j = 0; j < n; j++) {
+                big = Math.max(big, Math.abs(work[i][j]));
+            }
+            s[i] = big;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package bench;
+
+import java.util.Random;
+
+/**
+ * Generadores de matrices de prueba para los benchmarks.
+ *
+ * structure:
+ *   dense  - todos los coeficientes distintos de cero
+ *   sparse - patrón de 5 puntos (diferencias finitas en una malla de lado ~sqrt(n))
+ *
+ * conditioning:
+ *   well - diagonalmente dominante (bien condicionada; Gauss-Seidel converge rápido)
+ *   ill  - dense: tipo Hilbert; sparse: diagonal apenas dominante (convergencia lenta)
+ */
+final class Matrices {
+
+    private Matrices() {
+    }
+
+    static double[][] generate(int n, String structure, String conditioning, long seed) {
+        Random random = new Random(seed);
+        double[][] a = new double[n][n];
+        boolean ill = "ill".equals(conditioning);
+
+        if ("sparse".equals(structure)) {
+            int side = Math.max(1, (int) Math.sqrt(n));
+            int[] offsets = {-side, -1, 1, side};
+            for (int i = 0; i < n; i++) {
+                double sum = 0.0;
+                for (int off : offsets) {
+                    int j = i + off;
+                    if (j >= 0 && j < n) {
+                        a[i][j] = -(0.5 + random.nextDouble());
+                        sum += Math.abs(a[i][j]);
+                    }
+                }
+                a[i][i] = ill ? sum * (1.0 + 1e-6) : 2.0 * sum + 1.0;
+            }
+            return a;
+        }
+
+        for (int i = 0; i < n; i++) {
+            double sum = 0.0;
+            for (int j = 0; j < n; j++) {
+                a[i][j] = ill ? 1.0 / (i + j + 1) : random.nextDouble() - 0.5;
+                sum += Math.abs(a[i][j]);
+            }
+            if (!ill) {
+                a[i][i] = sum + 1.0;
+            }
+        }
+        return a;
+    }
+
+    static double[] vector(int n, long seed) {
+        Random random = new Random(seed);
+        double[] v = new double[n];
+        for (int i = 0; i < n; i++) {
+            v[i] = random.nextDouble();
+        }
+        return v;
+    }
+
+    static void copy(double[][] src, double[][] dst) {
+        for (int i = 0; i < src.length; i++) {
+            System.arraycopy(src[i], 0, dst[i], 0, src[i].length);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package bench;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark del parser de ecuaciones (EquationParser, que reemplazó a
+ * parseSide): cada operación parsea un sistema completo de n ecuaciones
+ * con unos 7 términos cada una, del estilo "3.5x12 - x13 + 2*x40 = -7".
+ *
+ * Con -prof gc se ve la asignación de memoria por ecuación.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"16", "64", "256", "1024", "4096"})
+    public int n;
+
+    private String[] variables;
+    private String[] equations;
+    private double[] b;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        variables = new String[n];
+        for (int i = 0; i < n; i++) {
+            variables[i] = "x" + (i + 1);
+        }
+        equations = new String[n];
+        for (int i = 0; i < n; i++) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(4 + random.nextInt(5)).append(variables[i]);
+            for (int t = 0; t < 6; t++) {
+                int j = random.nextInt(n);
+                sb.append(random.nextBoolean() ? " - " : " + ");
+                sb.append(String.format(Locale.ROOT, "%.3f", random.nextDouble())).append(t % 2 == 0 ? "*" : "");
+                sb.append(variables[j]);
+            }
+            sb.append(" = ").append(random.nextInt(100) - 50);
+            equations[i] = sb.toString();
+        }
+        b = new double[n];
+    }
+
+    @Benchmark
+    public Object parseSystem() {
+        Object parser = Kernels.newEquationParser(variables);
+        Object A = Kernels.newSparseMatrix(n, 8 * n);
+        for (int i = 0; i < n; i++) {
+            Kernels.parseEquationToRow(parser, equations[i], A, b, i);
+        }
+        return A;
+    }
+}
@@ -0,0 +1,81 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class BatchLUTest {
+
+    @Test
+    void everySizeMatchesLUFactorization() {
+        Random random = new Random(5);
+        int count = 3 * BatchLU.CHUNK + 17; // varios bloques y uno incompleto
+        for (int n = 1; n <= 8; n++) {
+            double[][][] systems = new double[count][n][n];
+            double[][] rhs = new double[count][n];
+            for (int p = 0; p < count; p++) {
+                for (int i = 0; i < n; i++) {
+                    for (int j = 0; j < n; j++) {
+                        systems[p][i][j] = random.nextDouble() - 0.5;
+                    }
+                    rhs[p][i] = random.nextDouble();
+                }
+            }
+            systems[7][n - 1] = new double[n]; // fila nula: mal condicionado
+
+            double[] a = new double[n * n * count];
+            double[] b = new double[n * count];
+            double[] x = new double[n * count];
+            int[] er = new int[count];
+            BatchLU.pack(systems, rhs, a, b);
+            BatchLU.solve(n, count, a, b, x, er, 1e-12, null);
+
+            for (int p = 0; p < count; p++) {
+                if (p == 7) {
+                    assertEquals(-1, er[p], "n = " + n);
+                    assertTrue(Double.isNaN(x[p]));
+                    continue;
+                }
+                assertEquals(0, er[p], "n = " + n + ", sistema " + p);
+                double[] expected = new double[n];
+                LUFactorization.factor(systems[p], n, 1e-12).solve(rhs[p], expected);
+                for (int i = 0; i < n; i++) {
+                    double xi = x[i * count + p];
+                    assertEquals(expected[i], xi, 1e-9 * Math.max(1.0, Math.abs(expected[i])),
+                            "n = " + n + ", sistema " + p + ", x" + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    void poolGivesSameResultAsCallerThread() {
+        Random random = new Random(9);
+        int count = 20 * BatchLU.CHUNK + 3;
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            for (int n : new int[]{3, 6, 8}) {
+                double[] a = new double[n * n * count];
+                double[] b = new double[n * count];
+                for (int k = 0; k < a.length; k++) {
+                    a[k] = random.nextDouble() - 0.5;
+                }
+                for (int k = 0; k < b.length; k++) {
+                    b[k] = random.nextDouble();
+                }
+                double[] x1 = new double[n * count];
+                double[] x2 = new double[n * count];
+                int[] er1 = new int[count];
+                int[] er2 = new int[count];
+                BatchLU.solve(n, count, a.clone(), b.clone(), x1, er1, 1e-12, null);
+                BatchLU.solve(n, count, a.clone(), b.clone(), x2, er2, 1e-12, pool);
+                assertArrayEquals(er1, er2);
+                assertArrayEquals(x1, x2);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
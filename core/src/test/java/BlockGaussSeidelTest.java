@@ -0,0 +1,93 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class BlockGaussSeidelTest {
+
+    // Guarda las iteraciones hechas y si convergió
+    private static class Recorder implements SolverListener {
+        int iterations = -1;
+        boolean converged;
+
+        @Override
+        public void finished(int iterations, boolean converged, long elapsedNanos) {
+            this.iterations = iterations;
+            this.converged = converged;
+        }
+    }
+
+    // Cada incógnita i está acoplada con su compañera del mismo nodo (i ^ 1)
+    // con peso 'coupling' y con algunas vecinas al azar con peso chico
+    private static double[][] coupledPairs(int nodes, double coupling, Random random) {
+        int n = 2 * nodes;
+        double[][] a = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            a[i][i] = 4.0;
+            a[i][i ^ 1] = -coupling;
+            for (int t = 0; t < 3; t++) {
+                int j = random.nextInt(n);
+                if (j != i && j != (i ^ 1)) {
+                    a[i][j] -= 0.3;
+                }
+            }
+        }
+        return a;
+    }
+
+    private static double[] rhs(int n, Random random) {
+        double[] b = new double[n];
+        for (int i = 0; i < n; i++) {
+            b[i] = random.nextDouble() - 0.5;
+        }
+        return b;
+    }
+
+    @Test
+    void blockSizeOneEqualsPointGaussSeidel() {
+        Random random = new Random(31);
+        SparseMatrix A = SparseMatrix.fromDense(coupledPairs(60, 1.0, random));
+        int n = A.n;
+        double[] b = rhs(n, random);
+        double[] x0 = rhs(n, random);
+
+        Recorder point = new Recorder();
+        Recorder block = new Recorder();
+        double[] expected = GaussSeidelWithEquations.gaussSeidel(A, b, x0, 1e-10, 500, point);
+        BlockGaussSeidel solver = BlockGaussSeidel.bySize(A, 1, 1e-12);
+        double[] x = solver.solve(b, x0, 1e-10, 500, block);
+
+        assertEquals(n, solver.numBlocks());
+        assertTrue(point.converged);
+        assertEquals(point.iterations, block.iterations);
+        // Solo cambia el orden de las restas de los coeficientes fuera de la diagonal
+        assertArrayEquals(expected, x, 1e-12);
+    }
+
+    @Test
+    void coupledBlocksNeedFewerIterations() {
+        Random random = new Random(32);
+        double[][] a = coupledPairs(200, 3.5, random);
+        SparseMatrix A = SparseMatrix.fromDense(a);
+        int n = A.n;
+        double[] b = rhs(n, random);
+        String[] variables = new String[n];
+        for (int i = 0; i < n; i++) {
+            variables[i] = "n" + (i / 2) + (i % 2 == 0 ? "_T" : "_p");
+        }
+
+        Recorder point = new Recorder();
+        Recorder block = new Recorder();
+        double[] expected = GaussSeidelWithEquations.gaussSeidel(A, b, new double[n], 1e-10, 5000, point);
+        BlockGaussSeidel solver = BlockGaussSeidel.byPrefix(A, variables, 1e-12);
+        double[] x = solver.solve(b, new double[n], 1e-10, 5000, block);
+
+        assertEquals(200, solver.numBlocks());
+        assertEquals(2, solver.largestBlock());
+        assertTrue(point.converged && block.converged);
+        assertTrue(block.iterations < point.iterations, block.iterations + " >= " + point.iterations);
+        assertArrayEquals(expected, x, 1e-8);
+    }
+}
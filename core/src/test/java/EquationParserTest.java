@@ -0,0 +1,88 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class EquationParserTest {
+
+    private static final String[] XYZ = {"x", "y", "z"};
+
+    // Parsea una ecuación como fila 0 de una matriz 3 x 3
+    private static double[] row(String equation) {
+        SparseMatrix A = new SparseMatrix(3, 8);
+        double[] b = new double[3];
+        new EquationParser(XYZ).parseEquationToRow(equation, A, b, 0);
+        return new double[]{A.get(0, 0), A.get(0, 1), A.get(0, 2), b[0]};
+    }
+
+    private static String error(String equation) {
+        return assertThrows(IllegalArgumentException.class, () -> row(equation)).getMessage();
+    }
+
+    @Test
+    void parsesSignedTermsOnBothSides() {
+        double[] r = row("4x - y + 2*z - 3 = 7 - z");
+        assertEquals(4.0, r[0]);
+        assertEquals(-1.0, r[1]);
+        assertEquals(3.0, r[2]);
+        assertEquals(10.0, r[3]);
+
+        double[] s = row("- -2x = -y + 1e1");
+        assertEquals(2.0, s[0]);
+        assertEquals(1.0, s[1]);
+        assertEquals(10.0, s[3]);
+    }
+
+    @Test
+    void rejectsTermsWithoutOperator() {
+        String m = error("4x y = 7");
+        assertTrue(m.contains("columna 4"), m);
+
+        m = error("2 3 = x - y");
+        assertTrue(m.contains("columna 3"), m);
+
+        m = error("x + y = z 2");
+        assertTrue(m.contains("columna 11"), m);
+
+        // El coeficiente puede ir separado de su variable: es un solo término
+        assertEquals(7.0, row("7 z = 0")[2]);
+    }
+
+    @Test
+    void reportsLineOfFileErrors(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("sistema.txt");
+        Files.write(file, String.join("\n",
+                "x y z",
+                "# comentario",
+                "x + y + z = 6",
+                "",
+                "2x y = 3",
+                "z = 1").getBytes(StandardCharsets.UTF_8));
+
+        for (int parallelism : new int[]{1, 4}) {
+            String m = assertThrows(IllegalArgumentException.class,
+                    () -> EquationParser.parseFile(file, parallelism)).getMessage();
+            assertTrue(m.startsWith("Línea 5:"), m);
+            assertTrue(m.contains("columna 4"), m);
+        }
+    }
+
+    @Test
+    void parserIsReusableAfterError() {
+        EquationParser parser = new EquationParser(XYZ);
+        SparseMatrix A = new SparseMatrix(3, 8);
+        double[] b = new double[3];
+        assertThrows(IllegalArgumentException.class, () -> parser.parseEquationToRow("5x + 2y 3 = 1", A, b, 0));
+        parser.parseEquationToRow("z = 2", A, b, 0);
+        assertEquals(0.0, A.get(0, 0));
+        assertEquals(0.0, A.get(0, 1));
+        assertEquals(1.0, A.get(0, 2));
+        assertEquals(2.0, b[0]);
+    }
+}
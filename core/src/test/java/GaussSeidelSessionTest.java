@@ -0,0 +1,92 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class GaussSeidelSessionTest {
+
+    private static final int N = 60;
+
+    // Tridiagonal (-1, 3, -1) más un acople lejano por fila: diagonal dominante
+    private static double[][] matrix() {
+        double[][] a = new double[N][N];
+        for (int i = 0; i < N; i++) {
+            a[i][i] = 3.0;
+            if (i > 0) {
+                a[i][i - 1] = -1.0;
+            }
+            if (i < N - 1) {
+                a[i][i + 1] = -1.0;
+            }
+            a[i][(i + N / 2) % N] = 0.5;
+        }
+        return a;
+    }
+
+    private static double[] rhs(double t) {
+        double[] b = new double[N];
+        for (int i = 0; i < N; i++) {
+            b[i] = Math.sin(0.1 * i + t);
+        }
+        return b;
+    }
+
+    @Test
+    void warmStartNeedsFewerIterations() {
+        GaussSeidelSession session = new GaussSeidelSession(matrix(), SolverListener.SILENT);
+        int cold = session.solve(rhs(0.0), 1e-12, 1000);
+        assertTrue(session.converged());
+
+        // El siguiente "paso de tiempo" cambia b muy poco
+        double[] b = rhs(0.01);
+        int warm = session.solve(b, 1e-12, 1000);
+        assertTrue(session.converged());
+        assertTrue(warm < cold, "warm = " + warm + ", cold = " + cold);
+
+        session.reset();
+        assertEquals(cold, session.solve(rhs(0.0), 1e-12, 1000));
+        assertEquals(2 * cold + warm, session.totalIterations());
+        assertEquals(3, session.solves());
+    }
+
+    @Test
+    void matchesGaussSeidelFromTheSameStart() {
+        double[][] a = matrix();
+        SparseMatrix A = SparseMatrix.fromDense(a);
+        double[] b = rhs(0.3);
+        double[] x0 = rhs(1.0);
+
+        double[] expected = GaussSeidelWithEquations.gaussSeidel(A, b, x0, 1e-10, 1000, SolverListener.SILENT);
+        GaussSeidelSession session = new GaussSeidelSession(A, SolverListener.SILENT);
+        session.setInitialGuess(x0);
+        session.solve(b, 1e-10, 1000);
+        assertArrayEquals(expected, session.solution());
+
+        // Con un coeficiente cambiado, igual que gaussSeidel sobre la matriz nueva
+        a[5][5 + N / 2] = -0.25;
+        a[7][7] = 4.0;
+        session.setCoefficient(5, 5 + N / 2, -0.25);
+        session.setCoefficient(7, 7, 4.0);
+        session.setInitialGuess(x0);
+        session.solve(b, 1e-10, 1000);
+        expected = GaussSeidelWithEquations.gaussSeidel(SparseMatrix.fromDense(a), b, x0, 1e-10, 1000,
+                SolverListener.SILENT);
+        assertArrayEquals(expected, session.solution());
+    }
+
+    @Test
+    void rejectsPositionsOutsideThePatternAndWrongLengths() {
+        GaussSeidelSession session = new GaussSeidelSession(matrix(), SolverListener.SILENT);
+        assertThrows(IllegalArgumentException.class, () -> session.setCoefficient(0, 5, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> session.setCoefficient(-1, 0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> session.setCoefficient(0, N, 1.0));
+        assertThrows(ArithmeticException.class, () -> session.setCoefficient(3, 3, 0.0));
+
+        assertThrows(IllegalArgumentException.class, () -> session.setInitialGuess(new double[N - 1]));
+        assertThrows(IllegalArgumentException.class, () -> session.setInitialGuess(new double[N + 1]));
+        assertThrows(IllegalArgumentException.class, () -> session.solve(new double[N + 1], 1e-10, 10));
+        assertEquals(0, session.solves());
+    }
+}
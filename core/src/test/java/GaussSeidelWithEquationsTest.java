@@ -0,0 +1,52 @@
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class GaussSeidelWithEquationsTest {
+
+    // Laplaciano 1-D (tridiagonal 2, -1): simétrico y definido positivo
+    private static SparseMatrix laplacian(int n) {
+        double[][] a = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            a[i][i] = 2.0;
+            if (i > 0) {
+                a[i][i - 1] = -1.0;
+            }
+            if (i < n - 1) {
+                a[i][i + 1] = -1.0;
+            }
+        }
+        return SparseMatrix.fromDense(a);
+    }
+
+    private static double[] ones(int n) {
+        double[] v = new double[n];
+        Arrays.fill(v, 1.0);
+        return v;
+    }
+
+    @Test
+    void sorRejectsOmegaOfTwoOrMore() {
+        SparseMatrix A = laplacian(10);
+        double[] b = ones(10);
+        for (double omega : new double[]{2.0, 2.5, Double.NaN}) {
+            assertThrows(IllegalArgumentException.class, () -> GaussSeidelWithEquations.sor(A, b, new double[10],
+                    omega, 1e-10, 100, SolverListener.SILENT));
+            assertThrows(IllegalArgumentException.class, () -> GaussSeidelWithEquations.ssor(A, b, new double[10],
+                    omega, 1e-10, 100, SolverListener.SILENT));
+        }
+    }
+
+    @Test
+    void sorConvergesBelowTwo() {
+        int n = 30;
+        SparseMatrix A = laplacian(n);
+        double[] b = ones(n);
+        for (double omega : new double[]{0.0, 1.0, 1.8}) {
+            double[] x = GaussSeidelWithEquations.sor(A, b, new double[n], omega, 1e-12, 20000, SolverListener.SILENT);
+            assertTrue(GaussSeidelWithEquations.residualNorm(A, b, x) < 1e-8, "omega = " + omega);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class KrylovSolverTest {
+
+    private static final int[] PRECONDITIONERS = {
+            KrylovSolver.NONE, KrylovSolver.JACOBI, KrylovSolver.SYMMETRIC_GAUSS_SEIDEL};
+
+    // Guarda el resultado final y los mensajes del solver
+    private static class Recorder implements SolverListener {
+        int iterations = -1;
+        boolean converged;
+        final List<String> messages = new ArrayList<>();
+        final List<Double> residuals = new ArrayList<>();
+
+        @Override
+        public boolean wantsResidual() {
+            return true;
+        }
+
+        @Override
+        public void iteration(int iter, double maxError, double residual, long elapsedNanos) {
+            residuals.add(residual);
+        }
+
+        @Override
+        public void finished(int iterations, boolean converged, long elapsedNanos) {
+            this.iterations = iterations;
+            this.converged = converged;
+        }
+
+        @Override
+        public void info(String message) {
+            messages.add(message);
+        }
+    }
+
+    // Laplaciano 2D de 5 puntos en una malla m x m (simétrica definida positiva)
+    private static double[][] laplacian2D(int m) {
+        int n = m * m;
+        double[][] a = new double[n][n];
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < m; j++) {
+                int k = i * m + j;
+                a[k][k] = 4.0;
+                if (i > 0) {
+                    a[k][k - m] = -1.0;
+                }
+                if (i < m - 1) {
+                    a[k][k + m] = -1.0;
+                }
+                if (j > 0) {
+                    a[k][k - 1] = -1.0;
+                }
+                if (j < m - 1) {
+                    a[k][k + 1] = -1.0;
+                }
+            }
+        }
+        return a;
+    }
+
+    // Convección-difusión 1D con diferencias centradas (no simétrica)
+    private static double[][] convectionDiffusion(int n, double peclet) {
+        double[][] a = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            a[i][i] = 2.0;
+            if (i > 0) {
+                a[i][i - 1] = -1.0 - peclet;
+            }
+            if (i < n - 1) {
+                a[i][i + 1] = -1.0 + peclet;
+            }
+        }
+        return a;
+    }
+
+    private static double[] times(double[][] a, double[] x) {
+        double[] y = new double[x.length];
+        for (int i = 0; i < x.length; i++) {
+            for (int j = 0; j < x.length; j++) {
+                y[i] += a[i][j] * x[j];
+            }
+        }
+        return y;
+    }
+
+    // |b - A x|_2 / |b|_2
+    private static double relativeResidual(double[][] a, double[] x, double[] b) {
+        double[] ax = times(a, x);
+        double r = 0.0;
+        double nb = 0.0;
+        for (int i = 0; i < b.length; i++) {
+            r += (b[i] - ax[i]) * (b[i] - ax[i]);
+            nb += b[i] * b[i];
+        }
+        return Math.sqrt(r / nb);
+    }
+
+    private static double[] solution(int n) {
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = Math.sin(0.3 * i) + 1.0;
+        }
+        return x;
+    }
+
+    private static void assertConverges(double[][] a, int method, double tolerance) {
+        int n = a.length;
+        double[] b = times(a, solution(n));
+        for (int preconditioner : PRECONDITIONERS) {
+            Recorder dense = new Recorder();
+            double[] x = KrylovSolver.solve(a, b, new double[n], method, preconditioner, tolerance, 10 * n, dense);
+            assertTrue(dense.converged, "precondicionador " + preconditioner);
+            assertTrue(relativeResidual(a, x, b) < 10 * tolerance, "precondicionador " + preconditioner);
+
+            Recorder sparse = new Recorder();
+            double[] y = KrylovSolver.solve(SparseMatrix.fromDense(a), b, new double[n], method, preconditioner,
+                    tolerance, 10 * n, sparse);
+            assertTrue(sparse.converged, "precondicionador " + preconditioner);
+            assertTrue(relativeResidual(a, y, b) < 10 * tolerance, "precondicionador " + preconditioner);
+        }
+    }
+
+    @Test
+    void cgConvergesOnSpdSystem() {
+        double[][] a = laplacian2D(12);
+        assertEquals(KrylovSolver.CG, KrylovSolver.choose(a));
+        assertEquals(KrylovSolver.CG, KrylovSolver.choose(SparseMatrix.fromDense(a)));
+        assertConverges(a, KrylovSolver.CG, 1e-10);
+    }
+
+    @Test
+    void gmresConvergesOnSpdSystem() {
+        assertConverges(laplacian2D(12), KrylovSolver.GMRES, 1e-10);
+    }
+
+    @Test
+    void gmresConvergesOnNonSymmetricSystem() {
+        double[][] a = convectionDiffusion(150, 0.4);
+        assertEquals(KrylovSolver.GMRES, KrylovSolver.choose(a));
+        assertConverges(a, KrylovSolver.GMRES, 1e-10);
+    }
+
+    @Test
+    void preconditioningReducesCgIterations() {
+        double[][] a = laplacian2D(16);
+        double[] b = times(a, solution(a.length));
+        Recorder plain = new Recorder();
+        Recorder sgs = new Recorder();
+        KrylovSolver.solve(a, b, new double[a.length], KrylovSolver.CG, KrylovSolver.NONE, 1e-10, 1000, plain);
+        KrylovSolver.solve(a, b, new double[a.length], KrylovSolver.CG, KrylovSolver.SYMMETRIC_GAUSS_SEIDEL,
+                1e-10, 1000, sgs);
+        assertTrue(plain.converged && sgs.converged);
+        assertTrue(sgs.iterations < plain.iterations, sgs.iterations + " >= " + plain.iterations);
+    }
+
+    @Test
+    void autoFallsBackToGmresWhenNotPositiveDefinite() {
+        // Simétrica con diagonal positiva pero indefinida (autovalores -1 y 3)
+        double[][] a = {{1.0, 2.0}, {2.0, 1.0}};
+        double[] b = {1.0, -1.0};
+        assertEquals(KrylovSolver.CG, KrylovSolver.choose(a));
+
+        Recorder events = new Recorder();
+        double[] x = KrylovSolver.solve(a, b, new double[2], KrylovSolver.AUTO, KrylovSolver.NONE, 1e-12, 20, events);
+        assertTrue(events.converged);
+        assertTrue(events.messages.contains("A no es definida positiva; se continúa con GMRES."), events.messages.toString());
+        assertEquals(-1.0, x[0], 1e-12);
+        assertEquals(1.0, x[1], 1e-12);
+    }
+
+    @Test
+    void gmresReportsItsResidualEstimate() {
+        double[][] a = convectionDiffusion(60, 0.4);
+        double[] b = times(a, solution(60));
+        Recorder events = new Recorder();
+        double[] x = KrylovSolver.solve(a, b, new double[60], KrylovSolver.GMRES, KrylovSolver.NONE, 1e-10, 600,
+                events);
+        assertTrue(events.converged);
+        assertEquals(events.iterations, events.residuals.size());
+        for (int i = 1; i < events.residuals.size(); i++) {
+            assertTrue(Double.isFinite(events.residuals.get(i)));
+            // GMRES minimiza el residuo: dentro de un ciclo no sube
+            if (i % KrylovSolver.DEFAULT_RESTART != 0) {
+                assertTrue(events.residuals.get(i) <= events.residuals.get(i - 1) * (1 + 1e-12), "iteración " + i);
+            }
+        }
+        // La última estimación coincide con el residuo verdadero
+        double last = events.residuals.get(events.residuals.size() - 1);
+        double bNorm = Math.sqrt(Arrays.stream(b).map(v -> v * v).sum());
+        assertEquals(relativeResidual(a, x, b), last / bNorm, 1e-12);
+    }
+
+    @Test
+    void gmresStopsOnSingularHessenberg() {
+        // A = diag(1, 1, 0, 0) y b = (1, 1, 1, 1): A V[1] = A V[0], así que en la
+        // segunda iteración la Hessenberg rotada tiene un cero en la diagonal
+        // (los valores de este caso son exactos en binario)
+        double[][] a = {{1, 0, 0, 0}, {0, 1, 0, 0}, {0, 0, 0, 0}, {0, 0, 0, 0}};
+        double[] b = {1.0, 1.0, 1.0, 1.0};
+        Recorder events = new Recorder();
+        double[] x = KrylovSolver.solve(a, b, new double[4], KrylovSolver.GMRES, KrylovSolver.NONE, 1e-12, 20,
+                events);
+
+        assertFalse(events.converged);
+        assertEquals(2, events.iterations);
+        assertTrue(events.messages.contains("GMRES se detuvo: la Hessenberg es singular (A es singular)."),
+                events.messages.toString());
+        // x minimiza el residuo en el primer vector de Krylov: x = b, r = (0, 0, 1, 1)
+        for (double xi : x) {
+            assertEquals(1.0, xi, 1e-12);
+        }
+        assertEquals(Math.sqrt(2.0), events.residuals.get(1), 1e-12);
+
+        // Ya en la primera iteración: A b = 0
+        double[][] zero = {{1.0, 0.0}, {0.0, 0.0}};
+        Recorder first = new Recorder();
+        x = KrylovSolver.solve(zero, new double[]{0.0, 1.0}, new double[2], KrylovSolver.GMRES, KrylovSolver.NONE,
+                1e-12, 20, first);
+        assertFalse(first.converged);
+        assertEquals(1, first.iterations);
+        assertEquals(0.0, x[0]);
+        assertEquals(0.0, x[1]);
+    }
+}
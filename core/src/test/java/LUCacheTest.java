@@ -0,0 +1,165 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LUCacheTest {
+
+    private static final double TOL = 1e-12;
+
+    private static double[][] matrix(int n, long seed) {
+        Random random = new Random(seed);
+        double[][] a = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                a[i][j] = random.nextDouble() - 0.5;
+            }
+            a[i][i] += n;
+        }
+        return a;
+    }
+
+    // Memoria de una entrada: copia de A (n^2 doubles) y factores
+    private static long entryBytes(int n) {
+        return 8L * n * n + LUFactorization.factor(matrix(n, 0), n, TOL).bytes();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        int n = 6;
+        double[][] a = matrix(n, 1);
+        double[][] b = matrix(n, 2);
+        double[][] c = matrix(n, 3);
+        LUCache cache = new LUCache(2, Long.MAX_VALUE);
+
+        LUFactorization luA = cache.get(a, n, TOL);
+        cache.get(b, n, TOL);
+        assertSame(luA, cache.get(a, n, TOL)); // A pasa a ser la más usada
+        cache.get(c, n, TOL);                  // sale B
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictions());
+        assertSame(luA, cache.get(a, n, TOL));
+        assertEquals(2, cache.hits());
+        assertEquals(3, cache.misses());
+
+        cache.get(b, n, TOL);                  // B otra vez es un fallo; sale C
+        assertEquals(4, cache.misses());
+        assertEquals(2, cache.evictions());
+        cache.get(a, n, TOL);
+        assertEquals(3, cache.hits());
+    }
+
+    @Test
+    void respectsByteBudget() {
+        int n = 8;
+        long entry = entryBytes(n);
+        assertEquals(2 * 8L * n * n + 12L * n, entry); // unos 2 n^2 doubles por entrada
+
+        LUCache cache = new LUCache(100, 2 * entry + entry / 2);
+        cache.get(matrix(n, 1), n, TOL);
+        cache.get(matrix(n, 2), n, TOL);
+        assertEquals(2 * entry, cache.bytesUsed());
+        cache.get(matrix(n, 3), n, TOL);
+        assertEquals(2, cache.size());
+        assertEquals(2 * entry, cache.bytesUsed());
+        assertEquals(1, cache.evictions());
+
+        // Una entrada que no entra sola no se guarda (ni desaloja a las demás)
+        LUCache small = new LUCache(100, entry - 1);
+        small.get(matrix(n, 1), n, TOL);
+        assertEquals(0, small.size());
+        assertEquals(0, small.bytesUsed());
+        assertEquals(0, small.evictions());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.bytesUsed());
+    }
+
+    @Test
+    void tolIsPartOfTheKey() {
+        int n = 5;
+        double[][] a = matrix(n, 4);
+        LUCache cache = new LUCache(10, Long.MAX_VALUE);
+        LUFactorization strict = cache.get(a, n, 1e-12);
+        LUFactorization loose = cache.get(a, n, 1e-6);
+        assertNotSame(strict, loose);
+        assertEquals(2, cache.misses());
+        assertSame(strict, cache.get(a, n, 1e-12));
+    }
+
+    @Test
+    void hashCollisionDoesNotReturnAnotherMatrix() {
+        // Dos matrices 2 x 2 que difieren en A[0][0] y A[1][1] con el mismo
+        // hash: el último valor se elige para que el estado antes del último
+        // paso de LUCache.mix coincida
+        int n = 2;
+        double[][] a = {{3.0, 1.0}, {1.0, 2.0}};
+        long seed = 0x9E3779B97F4A7C15L ^ n ^ Double.doubleToLongBits(TOL); // como contentHash
+        long stateA = LUCache.mix(LUCache.mix(LUCache.mix(seed, a[0][0]), a[0][1]), a[1][0]);
+        double[][] b = null;
+        for (double b00 = 4.0; b == null; b00 += 1.0) {
+            long stateB = LUCache.mix(LUCache.mix(LUCache.mix(seed, b00), a[0][1]), a[1][0]);
+            double b11 = Double.longBitsToDouble(stateA ^ stateB ^ Double.doubleToLongBits(a[1][1]));
+            if (Double.isFinite(b11) && Math.abs(b11) > 1e-3 && Math.abs(b11) < 1e3) {
+                b = new double[][]{{b00, 1.0}, {1.0, b11}};
+            }
+        }
+        assertEquals(LUCache.contentHash(a, n, TOL), LUCache.contentHash(b, n, TOL));
+
+        LUCache cache = new LUCache(10, Long.MAX_VALUE);
+        LUFactorization luA = cache.get(a, n, TOL);
+        LUFactorization luB = cache.get(b, n, TOL);
+        assertNotSame(luA, luB);
+        assertEquals(0, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(1, cache.size()); // B reemplazó a A en la misma clave
+        assertSame(luB, cache.get(b, n, TOL));
+
+        double[] rhs = {1.0, 1.0};
+        double[] x = new double[n];
+        double[] expected = new double[n];
+        int[] er = new int[1];
+        cache.solve(b, rhs, n, TOL, x, er);
+        LUFactorization.factor(b, n, TOL).solve(rhs, expected);
+        assertEquals(0, er[0]);
+        assertArrayEquals(expected, x);
+    }
+
+    @Test
+    void solveMatchesLUdecompAndLeavesAUntouched() {
+        int n = 7;
+        double[][] a = matrix(n, 5);
+        double[] b = new double[n];
+        for (int i = 0; i < n; i++) {
+            b[i] = i - 3.0;
+        }
+        double[][] copy = new double[n][];
+        for (int i = 0; i < n; i++) {
+            copy[i] = a[i].clone();
+        }
+
+        LUCache cache = new LUCache(4, Long.MAX_VALUE);
+        double[] x1 = new double[n];
+        double[] x2 = new double[n];
+        int[] er = new int[1];
+        LUProgram.LUdecomp(cache, a, b, n, TOL, x1, er);
+        LUProgram.LUdecomp(cache, a, b, n, TOL, x2, er);
+        assertEquals(0, er[0]);
+        assertEquals(1, cache.hits());
+        assertArrayEquals(x1, x2);
+        for (int i = 0; i < n; i++) {
+            assertArrayEquals(copy[i], a[i]);
+        }
+
+        double[] expected = new double[n];
+        int[] o = new int[n];
+        LUProgram.Decompose(copy, n, TOL, o, new double[n], new int[1], SolverListener.SILENT);
+        LUProgram.Substitute(copy, o, n, b, expected);
+        assertArrayEquals(expected, x1, 1e-12);
+    }
+}
@@ -0,0 +1,237 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LUProgramTest {
+
+    // Guarda los eventos de la factorización como texto, para compararlos
+    private static class Recorder implements SolverListener {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void pivotSwap(int k, int row) {
+            events.add("swap " + k + " " + row);
+        }
+
+        @Override
+        public void smallPivot(int k, double ratio) {
+            events.add("small " + k);
+        }
+
+        @Override
+        public void decomposed(double[][] a) {
+            events.add("decomposed");
+        }
+    }
+
+    // Banda kl/ku con escalas de fila muy distintas y una diagonal que no
+    // siempre domina, para que haya intercambios
+    private static double[][] banded(int n, int kl, int ku, Random random) {
+        double[][] a = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            double scale = Math.pow(10.0, random.nextInt(5) - 2);
+            for (int j = Math.max(0, i - kl); j <= Math.min(n - 1, i + ku); j++) {
+                a[i][j] = scale * (random.nextDouble() - 0.5);
+            }
+            a[i][i] += scale * (random.nextBoolean() ? 0.6 : -0.6);
+        }
+        return a;
+    }
+
+    private static double[][] copy(double[][] a) {
+        double[][] c = new double[a.length][];
+        for (int i = 0; i < a.length; i++) {
+            c[i] = a[i].clone();
+        }
+        return c;
+    }
+
+    private static double[] times(double[][] a, double[] x) {
+        double[] y = new double[x.length];
+        for (int i = 0; i < x.length; i++) {
+            for (int j = 0; j < x.length; j++) {
+                y[i] += a[i][j] * x[j];
+            }
+        }
+        return y;
+    }
+
+    private static double maxAbs(double[] v) {
+        double m = 0.0;
+        for (double value : v) {
+            m = Math.max(m, Math.abs(value));
+        }
+        return m;
+    }
+
+    private static double maxDiff(double[] u, double[] v) {
+        double d = 0.0;
+        for (int i = 0; i < u.length; i++) {
+            d = Math.max(d, Math.abs(u[i] - v[i]));
+        }
+        return d;
+    }
+
+    // Salida por consola de 'action'
+    private static String console(Runnable action) {
+        PrintStream saved = System.out;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+        try {
+            action.run();
+        } finally {
+            System.setOut(saved);
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void bandedDecomposeMatchesDense() {
+        Random random = new Random(7);
+        int[][] widths = {{1, 1}, {2, 3}, {4, 1}, {3, 0}};
+        for (int[] w : widths) {
+            int n = 120;
+            double[][] a = banded(n, w[0], w[1], random);
+            double[][] dense = copy(a);
+            double[][] band = copy(a);
+            int[] oDense = new int[n];
+            int[] oBand = new int[n];
+            int[] erDense = new int[1];
+            int[] erBand = new int[1];
+            Recorder eventsDense = new Recorder();
+            Recorder eventsBand = new Recorder();
+
+            LUProgram.Decompose(dense, n, 1e-12, oDense, new double[n], erDense, eventsDense);
+            LUProgram.DecomposeBanded(band, n, w[0], w[1], 1e-12, oBand, new double[n], erBand, eventsBand);
+
+            assertEquals(erDense[0], erBand[0]);
+            assertEquals(eventsDense.events, eventsBand.events);
+            assertTrue(eventsBand.events.size() > 1, "se esperaban intercambios de filas");
+            assertArrayEquals(oDense, oBand);
+            for (int i = 0; i < n; i++) {
+                assertArrayEquals(dense[i], band[i], 1e-12, "fila " + i);
+            }
+
+            double[] b = new double[n];
+            for (int i = 0; i < n; i++) {
+                b[i] = random.nextDouble();
+            }
+            double[] xDense = new double[n];
+            double[] xBand = new double[n];
+            LUProgram.Substitute(dense, oDense, n, b, xDense);
+            LUProgram.SubstituteBanded(band, oBand, n, w[0], w[1], b, xBand);
+            // Solo cambia el orden de las sumas (los términos que faltan son ceros)
+            double scale = Math.max(1.0, maxAbs(xBand));
+            assertTrue(maxDiff(xDense, xBand) < 1e-10 * scale);
+            assertTrue(maxDiff(times(a, xBand), b) < 1e-10 * 100 * scale);
+        }
+    }
+
+    @Test
+    void bandwidthFindsBothWidthsAndGivesUpOnWideMatrices() {
+        int n = 50;
+        double[][] a = banded(n, 2, 3, new Random(17));
+        a[40][36] = 1.0; // un solo elemento más lejos por debajo
+        assertArrayEquals(new int[]{4, 3}, LUProgram.bandwidth(a, n, 16));
+        assertArrayEquals(new int[]{4, 3}, LUProgram.bandwidth(a, n, 7));
+        assertNull(LUProgram.bandwidth(a, n, 6));
+
+        a[0][n - 1] = 1.0;
+        assertNull(LUProgram.bandwidth(a, n, 16));
+    }
+
+    @Test
+    void luDecompBandPathKeepsConsoleOutputAndFactor() {
+        int n = LUProgram.BAND_MIN_N + 16;
+        double[][] a = banded(n, 2, 2, new Random(3));
+        double[] expected = new double[n];
+        for (int i = 0; i < n; i++) {
+            expected[i] = i + 1.0;
+        }
+        double[] b = times(a, expected);
+
+        double[][] viaLUdecomp = copy(a);
+        double[] x = new double[n];
+        int[] er = new int[1];
+        String bandOutput = console(() -> LUProgram.LUdecomp(viaLUdecomp, b.clone(), n, 1e-12, x, er));
+
+        double[][] viaDecompose = copy(a);
+        String denseOutput = console(() -> LUProgram.Decompose(viaDecompose, n, 1e-12, new int[n], new double[n],
+                new int[1], SolverListener.CONSOLE));
+
+        // La versión densa guarda 0 / pivote en los multiplicadores fuera de la
+        // banda, que con pivote negativo es -0.0
+        assertEquals(0, er[0]);
+        assertEquals(denseOutput.replace("-0.000000", " 0.000000"), bandOutput.replace("-0.000000", " 0.000000"));
+        for (int i = 0; i < n; i++) {
+            assertArrayEquals(viaDecompose[i], viaLUdecomp[i], 1e-12, "fila " + i);
+        }
+        assertTrue(maxDiff(x, expected) < 1e-8);
+    }
+
+    @Test
+    void luDecompAppliesPivotOrder() {
+        // Sin la permutación de b este sistema da una solución incorrecta
+        double[][] a = {{1e-3, 2.0, 1.0}, {3.0, 1.0, -1.0}, {1.0, -2.0, 4.0}};
+        double[] expected = {1.0, -2.0, 3.0};
+        double[] b = times(a, expected);
+        double[] x = new double[3];
+        int[] er = new int[1];
+        console(() -> LUProgram.LUdecomp(copy(a), b, 3, 1e-12, x, er));
+        assertEquals(0, er[0]);
+        assertTrue(maxDiff(x, expected) < 1e-12);
+    }
+
+    @Test
+    void blockedDecomposeReportsLikeUnblocked() {
+        int n = LUProgram.BLOCKED_THRESHOLD + 44;
+
+        // Solo falla el último pivote: la fila n-1 menos la fila 0 deja 1e-20 en la diagonal
+        double[][] lastFails = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            lastFails[i][i] = 1.0;
+        }
+        lastFails[n - 1][0] = 1.0;
+        lastFails[n - 1][n - 1] = 1e-20;
+
+        // Falla en el medio: la columna 100 es nula
+        double[][] middleFails = banded(n, 3, 3, new Random(13));
+        for (int i = 0; i < n; i++) {
+            middleFails[i][100] = 0.0;
+        }
+
+        for (double[][] a : new double[][][]{lastFails, middleFails}) {
+            Recorder blocked = new Recorder();
+            Recorder unblocked = new Recorder();
+            int[] erBlocked = new int[1];
+            int[] erUnblocked = new int[1];
+            LUProgram.Decompose(copy(a), n, 1e-12, new int[n], new double[n], erBlocked, blocked);
+            LUProgram.DecomposeParallel(copy(a), n, 1e-12, new double[n], erUnblocked, 2, unblocked);
+            assertEquals(-1, erUnblocked[0]);
+            assertEquals(erUnblocked[0], erBlocked[0]);
+            assertEquals(unblocked.events, blocked.events);
+        }
+    }
+
+    @Test
+    void bandedSingularMatrixReportsSmallPivot() {
+        int n = 80;
+        // Triangular superior con un cero en la diagonal: no hay fila para pivotear
+        double[][] a = banded(n, 0, 2, new Random(11));
+        a[40][40] = 0.0;
+        Recorder events = new Recorder();
+        int[] er = new int[1];
+        LUProgram.DecomposeBanded(a, n, 0, 2, 1e-12, new int[n], new double[n], er, events);
+        assertEquals(-1, er[0]);
+        assertTrue(events.events.get(events.events.size() - 1).startsWith("small"));
+    }
+}
@@ -0,0 +1,232 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MatrixIOTest {
+
+    // Ventanas de 13 doubles: las filas y los bloques del archivo quedan
+    // partidos entre ventanas
+    private static final long SMALL_WINDOW = 8 * 13;
+
+    @TempDir
+    Path dir;
+
+    private final long savedWindow = MatrixIO.windowBytes;
+
+    @AfterEach
+    void restoreWindow() {
+        MatrixIO.windowBytes = savedWindow;
+    }
+
+    private static double[][] dense(int n, Random random) {
+        double[][] a = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                a[i][j] = random.nextDouble() - 0.5;
+            }
+        }
+        return a;
+    }
+
+    // Dispersa con unos pocos no ceros por fila (y alguna fila vacía)
+    private static double[][] sparse(int n, Random random) {
+        double[][] a = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            a[i][i] = 4.0 + random.nextDouble();
+            if (i % 5 == 3) {
+                continue;
+            }
+            for (int t = 0; t < 3; t++) {
+                a[i][random.nextInt(n)] = random.nextDouble() - 0.5;
+            }
+        }
+        return a;
+    }
+
+    // Sobrescribe un int del archivo en la posición 'offset' (bytes)
+    private static void patchInt(Path file, long offset, int value) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer buf = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(value);
+            ch.write(buf.flip(), offset);
+        }
+    }
+
+    private static void patchLong(Path file, long offset, long value) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer buf = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(value);
+            ch.write(buf.flip(), offset);
+        }
+    }
+
+    @Test
+    void denseRoundTripAcrossWindows() throws IOException {
+        MatrixIO.windowBytes = SMALL_WINDOW;
+        int n = 11;
+        double[][] a = dense(n, new Random(1));
+        Path file = dir.resolve("A.bin");
+        MatrixIO.writeDense(file, a);
+
+        assertTrue(MatrixIO.isBinary(file));
+        MatrixIO.Header h = MatrixIO.readHeader(file);
+        assertEquals(MatrixIO.DENSE, h.kind);
+        assertEquals(n, h.n);
+        double[][] back = MatrixIO.readDense(file);
+        for (int i = 0; i < n; i++) {
+            assertArrayEquals(a[i], back[i]);
+        }
+        assertArrayEquals(BlockedLU.toRowMajor(a, n), MatrixIO.readDenseRowMajor(file));
+
+        // La versión contigua escribe el mismo archivo
+        Path flat = dir.resolve("flat.bin");
+        MatrixIO.writeDense(flat, BlockedLU.toRowMajor(a, n), n);
+        assertArrayEquals(Files.readAllBytes(file), Files.readAllBytes(flat));
+    }
+
+    @Test
+    void vectorRoundTrip() throws IOException {
+        MatrixIO.windowBytes = SMALL_WINDOW;
+        double[] v = new double[40];
+        for (int i = 0; i < v.length; i++) {
+            v[i] = Math.sqrt(i) - 3.0;
+        }
+        Path file = dir.resolve("b.bin");
+        MatrixIO.writeVector(file, v);
+        assertEquals(MatrixIO.VECTOR, MatrixIO.readHeader(file).kind);
+        assertArrayEquals(v, MatrixIO.readVector(file));
+    }
+
+    @Test
+    void sparseRoundTripAcrossWindows() throws IOException {
+        MatrixIO.windowBytes = SMALL_WINDOW;
+        int n = 30;
+        double[][] a = sparse(n, new Random(2));
+        SparseMatrix A = SparseMatrix.fromDense(a);
+        Path file = dir.resolve("S.bin");
+        MatrixIO.writeSparse(file, A);
+
+        MatrixIO.Header h = MatrixIO.readHeader(file);
+        assertEquals(MatrixIO.SPARSE, h.kind);
+        assertEquals(A.offDiagonalCount(), h.nnz);
+        SparseMatrix back = MatrixIO.readSparse(file);
+        assertEquals(A.offDiagonalCount(), back.offDiagonalCount());
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                assertEquals(a[i][j], back.get(i, j), "A[" + i + "][" + j + "]");
+            }
+        }
+
+        // Un archivo denso también se lee como disperso
+        Path denseFile = dir.resolve("D.bin");
+        MatrixIO.writeDense(denseFile, a);
+        assertEquals(A.offDiagonalCount(), MatrixIO.readSparse(denseFile).offDiagonalCount());
+    }
+
+    @Test
+    void mapDoublesSeesWhatTheWindowedWriterWrote() throws IOException {
+        MatrixIO.windowBytes = SMALL_WINDOW;
+        int n = 9; // 81 doubles: 6 ventanas completas y una parcial
+        double[][] a = dense(n, new Random(3));
+        Path file = dir.resolve("A.bin");
+        MatrixIO.writeDense(file, a);
+
+        DoubleBuffer view = MatrixIO.mapDoubles(file);
+        assertEquals(n * n, view.remaining());
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                assertEquals(a[i][j], view.get(i * n + j));
+            }
+        }
+
+        Path sparseFile = dir.resolve("S.bin");
+        MatrixIO.writeSparse(sparseFile, SparseMatrix.fromDense(a));
+        assertThrows(IOException.class, () -> MatrixIO.mapDoubles(sparseFile));
+    }
+
+    @Test
+    void rejectsMalformedHeaders() throws IOException {
+        Path file = dir.resolve("A.bin");
+        MatrixIO.writeDense(file, dense(4, new Random(4)));
+
+        Path shortFile = dir.resolve("short.bin");
+        Files.write(shortFile, new byte[MatrixIO.HEADER_BYTES - 1]);
+        assertThrows(IOException.class, () -> MatrixIO.readHeader(shortFile));
+        assertFalse(MatrixIO.isBinary(shortFile));
+
+        Path badMagic = dir.resolve("magic.bin");
+        Files.copy(file, badMagic);
+        patchInt(badMagic, 0, 0x12345678);
+        assertThrows(IOException.class, () -> MatrixIO.readHeader(badMagic));
+
+        Path badKind = dir.resolve("kind.bin");
+        Files.copy(file, badKind);
+        patchInt(badKind, 4, 7);
+        assertThrows(IOException.class, () -> MatrixIO.readHeader(badKind));
+
+        Path negative = dir.resolve("negative.bin");
+        Files.copy(file, negative);
+        patchLong(negative, 8, -4L);
+        assertThrows(IOException.class, () -> MatrixIO.readDense(negative));
+
+        Path huge = dir.resolve("huge.bin");
+        Files.copy(file, huge);
+        patchLong(huge, 8, 1L << 40);
+        assertThrows(IOException.class, () -> MatrixIO.readDense(huge));
+
+        // Tipo equivocado
+        assertThrows(IOException.class, () -> MatrixIO.readVector(file));
+    }
+
+    @Test
+    void rejectsCorruptSparseStructure() throws IOException {
+        int n = 12;
+        SparseMatrix A = SparseMatrix.fromDense(sparse(n, new Random(5)));
+        int nnz = A.offDiagonalCount();
+        Path file = dir.resolve("S.bin");
+        MatrixIO.writeSparse(file, A);
+        long rowPtrAt = MatrixIO.HEADER_BYTES + 8L * (n + nnz);
+        long colIdxAt = rowPtrAt + 4L * (n + 1);
+
+        Path column = dir.resolve("column.bin");
+        Files.copy(file, column);
+        patchInt(column, colIdxAt + 4L * (nnz - 1), n);
+        String m = assertThrows(IOException.class, () -> MatrixIO.readSparse(column)).getMessage();
+        assertTrue(m.contains("columna " + n), m);
+
+        Path negativeColumn = dir.resolve("negativeColumn.bin");
+        Files.copy(file, negativeColumn);
+        patchInt(negativeColumn, colIdxAt, -1);
+        assertThrows(IOException.class, () -> MatrixIO.readSparse(negativeColumn));
+
+        // La fila 0 termina más allá de donde empieza la fila 1
+        Path order = dir.resolve("order.bin");
+        Files.copy(file, order);
+        patchInt(order, rowPtrAt + 4L, nnz);
+        m = assertThrows(IOException.class, () -> MatrixIO.readSparse(order)).getMessage();
+        assertTrue(m.contains("rowPtr decrece"), m);
+
+        Path first = dir.resolve("first.bin");
+        Files.copy(file, first);
+        patchInt(first, rowPtrAt, 1);
+        assertThrows(IOException.class, () -> MatrixIO.readSparse(first));
+
+        Path truncated = dir.resolve("truncated.bin");
+        Files.write(truncated, Arrays.copyOf(Files.readAllBytes(file), (int) colIdxAt));
+        assertThrows(IOException.class, () -> MatrixIO.readSparse(truncated));
+    }
+}
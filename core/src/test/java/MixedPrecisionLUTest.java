@@ -0,0 +1,109 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class MixedPrecisionLUTest {
+
+    private static final double EPS = Math.ulp(1.0);
+
+    private static double[] times(double[][] a, double[] x) {
+        double[] y = new double[x.length];
+        for (int i = 0; i < x.length; i++) {
+            for (int j = 0; j < x.length; j++) {
+                y[i] += a[i][j] * x[j];
+            }
+        }
+        return y;
+    }
+
+    private static double normInf(double[] v) {
+        double m = 0.0;
+        for (double value : v) {
+            m = Math.max(m, Math.abs(value));
+        }
+        return m;
+    }
+
+    private static double normInf(double[][] a) {
+        double m = 0.0;
+        for (double[] row : a) {
+            double sum = 0.0;
+            for (double value : row) {
+                sum += Math.abs(value);
+            }
+            m = Math.max(m, sum);
+        }
+        return m;
+    }
+
+    // |b - A x| / (|A| |x|), en norma infinito
+    private static double relativeResidual(double[][] a, double[] x, double[] b) {
+        double[] ax = times(a, x);
+        double[] r = new double[b.length];
+        for (int i = 0; i < b.length; i++) {
+            r[i] = b[i] - ax[i];
+        }
+        return normInf(r) / (normInf(a) * normInf(x));
+    }
+
+    @Test
+    void refinementReachesDoubleAccuracy() {
+        int n = 150;
+        Random random = new Random(31);
+        double[][] a = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                a[i][j] = random.nextDouble() - 0.5;
+            }
+            a[i][i] += 10.0;
+        }
+        double[] expected = new double[n];
+        for (int i = 0; i < n; i++) {
+            expected[i] = Math.sin(i + 1.0);
+        }
+        double[] b = times(a, expected);
+
+        MixedPrecisionLU lu = MixedPrecisionLU.factor(a, n, 1e-12);
+        double[] x = new double[n];
+        int steps = lu.solve(b, x);
+
+        assertEquals(0, lu.error());
+        assertFalse(lu.fellBack());
+        assertTrue(steps > 0, "la LU en float sola no llega a precisión double");
+        assertTrue(relativeResidual(a, x, b) <= Math.sqrt(n) * EPS);
+
+        // Igual de cerca de la solución que la LU en double
+        double[] xDouble = new double[n];
+        LUFactorization.factor(a, n, 1e-12).solve(b, xDouble);
+        for (int i = 0; i < n; i++) {
+            assertEquals(xDouble[i], x[i], 1e-13, "x" + i);
+        }
+    }
+
+    @Test
+    void hilbertFallsBackToDouble() {
+        int n = 12; // cond(H12) ~ 1e16: demasiado para refinar con factores en float
+        double[][] h = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                h[i][j] = 1.0 / (i + j + 1);
+            }
+        }
+        double[] b = times(h, new double[]{1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1});
+
+        MixedPrecisionLU lu = MixedPrecisionLU.factor(h, n, 1e-15);
+        double[] x = new double[n];
+        lu.solve(b, x);
+        assertTrue(lu.fellBack());
+
+        // El resultado es el de la LU en double
+        double[] xDouble = new double[n];
+        LUFactorization.factor(h, n, 1e-15).solve(b, xDouble);
+        assertArrayEquals(xDouble, x);
+        assertTrue(relativeResidual(h, x, b) <= Math.sqrt(n) * EPS);
+    }
+}
@@ -0,0 +1,123 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class MulticolorOrderingTest {
+
+    // Patrón no simétrico: cada fila usa unas pocas columnas al azar
+    private static SparseMatrix randomPattern(int n, Random random) {
+        SparseMatrix A = new SparseMatrix(n, 4 * n);
+        for (int i = 0; i < n; i++) {
+            boolean[] used = new boolean[n];
+            used[i] = true;
+            A.add(i, 10.0);
+            for (int t = 0; t < 3; t++) {
+                int j = random.nextInt(n);
+                if (!used[j]) {
+                    used[j] = true;
+                    A.add(j, random.nextDouble() - 0.5);
+                }
+            }
+            A.endRow();
+        }
+        return A;
+    }
+
+    // Malla m x m de 5 puntos con diagonal 5 (diagonal dominante estricta)
+    private static SparseMatrix grid(int m) {
+        int n = m * m;
+        SparseMatrix A = new SparseMatrix(n, 4 * n);
+        for (int r = 0; r < m; r++) {
+            for (int c = 0; c < m; c++) {
+                int i = r * m + c;
+                if (r > 0) {
+                    A.add(i - m, -1.0);
+                }
+                if (c > 0) {
+                    A.add(i - 1, -1.0);
+                }
+                A.add(i, 5.0);
+                if (c < m - 1) {
+                    A.add(i + 1, -1.0);
+                }
+                if (r < m - 1) {
+                    A.add(i + m, -1.0);
+                }
+                A.endRow();
+            }
+        }
+        return A;
+    }
+
+    // Ningún par acoplado en A + A^T tiene el mismo color, y 'order' agrupa por color
+    private static void assertValidColoring(SparseMatrix A, MulticolorOrdering coloring) {
+        int n = A.n;
+        for (int i = 0; i < n; i++) {
+            for (int p = A.rowPtr[i]; p < A.rowPtr[i + 1]; p++) {
+                int j = A.colIdx[p];
+                assertNotEquals(coloring.colorOf(i), coloring.colorOf(j), "A[" + i + "][" + j + "]");
+            }
+        }
+
+        assertEquals(0, coloring.colorPtr[0]);
+        assertEquals(n, coloring.colorPtr[coloring.numColors()]);
+        boolean[] seen = new boolean[n];
+        for (int c = 0; c < coloring.numColors(); c++) {
+            assertTrue(coloring.colorPtr[c + 1] > coloring.colorPtr[c], "color " + c + " vacío");
+            for (int k = coloring.colorPtr[c]; k < coloring.colorPtr[c + 1]; k++) {
+                int i = coloring.order[k];
+                assertEquals(c, coloring.colorOf(i));
+                assertFalse(seen[i], "incógnita " + i + " repetida");
+                seen[i] = true;
+            }
+        }
+    }
+
+    @Test
+    void greedyColoringSeparatesCoupledUnknowns() {
+        Random random = new Random(51);
+        for (int n : new int[]{1, 2, 17, 300}) {
+            SparseMatrix A = randomPattern(n, random);
+            assertValidColoring(A, MulticolorOrdering.greedy(A));
+        }
+
+        // La malla es bipartita: el voraz da el red-black
+        SparseMatrix G = grid(10);
+        MulticolorOrdering redBlack = MulticolorOrdering.greedy(G);
+        assertValidColoring(G, redBlack);
+        assertEquals(2, redBlack.numColors());
+        assertEquals(50, redBlack.largestColor());
+    }
+
+    @Test
+    void parallelMulticolorMatchesSequential() {
+        // 2 colores de 3200 incógnitas: más que COLOR_GRAIN, así que cada
+        // color se reparte entre los hilos
+        int m = 80;
+        int n = m * m;
+        SparseMatrix A = grid(m);
+        double[] b = new double[n];
+        for (int i = 0; i < n; i++) {
+            b[i] = Math.sin(0.01 * i);
+        }
+
+        double[] sequential = GaussSeidelWithEquations.gaussSeidel(A, b, new double[n], 1e-13, 1000,
+                SolverListener.SILENT);
+        double[] parallel = GaussSeidelWithEquations.gaussSeidelMulticolor(A, b, new double[n], 1e-13, 1000, 4,
+                SolverListener.SILENT);
+        double[] oneThread = GaussSeidelWithEquations.gaussSeidelMulticolor(A, b, new double[n], 1e-13, 1000, 1,
+                SolverListener.SILENT);
+
+        // Otro orden de incógnitas, la misma solución
+        assertTrue(GaussSeidelWithEquations.residualNorm(A, b, parallel) < 1e-10);
+        assertArrayEquals(sequential, parallel, 1e-11);
+        // Dentro de un color las actualizaciones son independientes: no
+        // importa cuántos hilos haya
+        assertArrayEquals(oneThread, parallel);
+    }
+}
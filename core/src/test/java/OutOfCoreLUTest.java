@@ -0,0 +1,107 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OutOfCoreLUTest {
+
+    private static final int N = 200; // los primeros paneles dejan A22 de más de 128 x 128: se usa el pool
+    private static final int NB = 32;
+
+    @TempDir
+    Path dir;
+
+    private final long savedWindow = MatrixIO.windowBytes;
+
+    @AfterEach
+    void restoreWindow() {
+        MatrixIO.windowBytes = savedWindow;
+    }
+
+    // Sin diagonal dominante y con escalas de fila distintas, para que haya
+    // intercambios dentro y entre paneles
+    private static double[][] matrix(Random random) {
+        double[][] a = new double[N][N];
+        for (int i = 0; i < N; i++) {
+            double scale = Math.pow(10.0, random.nextInt(5) - 2);
+            for (int j = 0; j < N; j++) {
+                a[i][j] = scale * (random.nextDouble() - 0.5);
+            }
+        }
+        return a;
+    }
+
+    // Factoriza y resuelve con OutOfCoreLU y compara con BlockedLU (mismo nb)
+    private static void assertMatchesBlocked(OffHeapMatrix m, double[][] a, int parallelism) {
+        double[] flat = BlockedLU.toRowMajor(a, N);
+        int[] oBlocked = new int[N];
+        int[] erBlocked = new int[1];
+        BlockedLU.Decompose(flat, N, 1e-12, new double[N], oBlocked, erBlocked, NB, SolverListener.SILENT);
+
+        m.load(a);
+        int[] o = new int[N];
+        int[] er = new int[1];
+        OutOfCoreLU.Decompose(m, 1e-12, o, new double[N], er, NB, parallelism, SolverListener.SILENT);
+
+        assertEquals(0, erBlocked[0]);
+        assertEquals(erBlocked[0], er[0]);
+        assertArrayEquals(oBlocked, o);
+        // La fila física o[i] tiene la fila i de L\U, idéntica bit a bit
+        double[] row = new double[N];
+        double[] expected = new double[N];
+        for (int i = 0; i < N; i++) {
+            m.getRow(o[i], 0, row, 0, N);
+            System.arraycopy(flat, i * N, expected, 0, N);
+            assertArrayEquals(expected, row, "fila " + i);
+        }
+
+        double[] b = new double[N];
+        for (int i = 0; i < N; i++) {
+            b[i] = Math.cos(i);
+        }
+        double[] xBlocked = new double[N];
+        double[] x = new double[N];
+        BlockedLU.Substitute(flat, oBlocked, N, b, xBlocked);
+        OutOfCoreLU.Substitute(m, o, b, x);
+        assertArrayEquals(xBlocked, x);
+    }
+
+    @Test
+    void directMemoryMatchesBlockedLU() throws IOException {
+        MatrixIO.windowBytes = 8L * N * 3; // 3 filas por trozo
+        try (OffHeapMatrix m = OffHeapMatrix.allocate(N)) {
+            assertTrue(m.chunks.length > 1);
+            assertMatchesBlocked(m, matrix(new Random(41)), 1);
+            assertMatchesBlocked(m, matrix(new Random(42)), 4);
+        }
+    }
+
+    @Test
+    void mappedFileMatchesBlockedLU() throws IOException {
+        MatrixIO.windowBytes = 8L * N * 7 + 8; // el trozo no es múltiplo de filas: 7 filas por trozo
+        Path file = dir.resolve("A.bin");
+        double[][] a = matrix(new Random(43));
+        try (OffHeapMatrix m = OffHeapMatrix.create(file, N)) {
+            assertEquals(29, m.chunks.length);
+            assertMatchesBlocked(m, a, 2);
+        }
+
+        // La L\U quedó en el archivo
+        try (OffHeapMatrix m = OffHeapMatrix.map(file)) {
+            double[] flat = BlockedLU.toRowMajor(a, N);
+            int[] o = new int[N];
+            BlockedLU.Decompose(flat, N, 1e-12, new double[N], o, new int[1], NB, SolverListener.SILENT);
+            double[] row = new double[N];
+            for (int i = 0; i < N; i++) {
+                m.getRow(o[i], 0, row, 0, N);
+                assertEquals(flat[i * N + i], row[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class SparseLUTest {
+
+    // Matriz con el patrón de un grafo (aristas i-j) y una diagonal dominante
+    private static SparseMatrix fromEdges(int n, int[][] edges, Random random) {
+        double[][] a = new double[n][n];
+        for (int[] e : edges) {
+            a[e[0]][e[1]] = -1.0 - random.nextDouble();
+            a[e[1]][e[0]] = -1.0 + 0.5 * random.nextDouble();
+        }
+        for (int i = 0; i < n; i++) {
+            a[i][i] = 8.0;
+        }
+        return SparseMatrix.fromDense(a);
+    }
+
+    private static int[] shuffled(int n, Random random) {
+        int[] p = new int[n];
+        for (int i = 0; i < n; i++) {
+            p[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = p[i];
+            p[i] = p[j];
+            p[j] = t;
+        }
+        return p;
+    }
+
+    // Ancho de banda de A con filas y columnas en el orden q
+    private static int bandwidth(SparseMatrix A, int[] q) {
+        int n = A.size();
+        int[] qinv = new int[n];
+        for (int k = 0; k < n; k++) {
+            qinv[q[k]] = k;
+        }
+        int band = 0;
+        for (int i = 0; i < n; i++) {
+            for (int p = A.rowPtr[i]; p < A.rowPtr[i + 1]; p++) {
+                band = Math.max(band, Math.abs(qinv[i] - qinv[A.colIdx[p]]));
+            }
+        }
+        return band;
+    }
+
+    private static int[] rcm(SparseMatrix A) {
+        return SparseLU.reverseCuthillMcKee(SparseLU.symmetricPattern(A), A.size());
+    }
+
+    @Test
+    void rcmRecoversPathFromMiddleNode() {
+        // Camino 4-3-2-1-0-5-6-7-8: el nodo 0 está en el medio
+        int[][] edges = {{4, 3}, {3, 2}, {2, 1}, {1, 0}, {0, 5}, {5, 6}, {6, 7}, {7, 8}};
+        SparseMatrix A = fromEdges(9, edges, new Random(1));
+        assertEquals(1, bandwidth(A, rcm(A)));
+    }
+
+    @Test
+    void rcmRecoversScrambledPath() {
+        Random random = new Random(2);
+        int n = 200;
+        int[] label = shuffled(n, random);
+        int[][] edges = new int[n - 1][];
+        for (int i = 0; i + 1 < n; i++) {
+            edges[i] = new int[]{label[i], label[i + 1]};
+        }
+        SparseMatrix A = fromEdges(n, edges, random);
+        assertEquals(1, bandwidth(A, rcm(A)));
+    }
+
+    @Test
+    void rcmNarrowsScrambledGrid() {
+        Random random = new Random(3);
+        int m = 20;
+        int n = m * m;
+        int[] label = shuffled(n, random);
+        int[][] edges = new int[2 * m * (m - 1)][];
+        int e = 0;
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < m; j++) {
+                if (j + 1 < m) {
+                    edges[e++] = new int[]{label[i * m + j], label[i * m + j + 1]};
+                }
+                if (i + 1 < m) {
+                    edges[e++] = new int[]{label[i * m + j], label[(i + 1) * m + j]};
+                }
+            }
+        }
+        SparseMatrix A = fromEdges(n, edges, random);
+        int[] natural = new int[n];
+        for (int k = 0; k < n; k++) {
+            natural[k] = k;
+        }
+        assertTrue(bandwidth(A, natural) > 10 * m);
+        assertTrue(bandwidth(A, rcm(A)) <= 2 * m, "ancho de banda RCM: " + bandwidth(A, rcm(A)));
+    }
+
+    // Matriz dispersa no simétrica con algunos ceros en la diagonal (obliga a
+    // pivotear); cada cero queda en un bloque [[0, 3], [3, d]] no singular
+    private static double[][] randomSparse(int n, Random random) {
+        double[][] a = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int t = 0; t < 3; t++) {
+                int j = random.nextInt(n);
+                if (j != i) {
+                    a[i][j] = random.nextDouble() * 0.5 - 0.25;
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            a[i][i] = 4.0 + random.nextDouble();
+        }
+        for (int i = 2; i + 1 < n; i += 5) {
+            a[i][i] = 0.0;
+            a[i][i + 1] = 3.0;
+            a[i + 1][i] = 3.0;
+        }
+        return a;
+    }
+
+    @Test
+    void solveMatchesDenseLU() {
+        Random random = new Random(4);
+        int n = 150;
+        double[][] a = randomSparse(n, random);
+        double[] b = new double[n];
+        for (int i = 0; i < n; i++) {
+            b[i] = random.nextDouble();
+        }
+        SparseMatrix A = SparseMatrix.fromDense(a);
+
+        LUFactorization dense = LUFactorization.factor(a, n, 1e-12);
+        assertEquals(0, dense.error());
+        double[] expected = new double[n];
+        dense.solve(b, expected);
+        double denseResidual = GaussSeidelWithEquations.residualNorm(a, b, expected);
+
+        for (int ordering : new int[]{SparseLU.NATURAL, SparseLU.RCM, SparseLU.MINIMUM_DEGREE}) {
+            SparseLU lu = SparseLU.factor(A, SparseLU.analyze(A, ordering), 1e-12, SparseLU.DEFAULT_THRESHOLD);
+            assertEquals(0, lu.error());
+            assertTrue(lu.offDiagonalPivots() > 0);
+            double[] x = new double[n];
+            lu.solve(b, x);
+            double residual = GaussSeidelWithEquations.residualNorm(a, b, x);
+            assertTrue(residual <= Math.max(1e-12, 100 * denseResidual), "residuo " + residual);
+            for (int i = 0; i < n; i++) {
+                assertEquals(expected[i], x[i], 1e-9 * Math.max(1.0, Math.abs(expected[i])));
+            }
+        }
+    }
+
+    @Test
+    void symbolicPredictsFillWithDiagonalPivots() {
+        Random random = new Random(5);
+        int m = 15;
+        int n = m * m;
+        double[][] a = new double[n][n];
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < m; j++) {
+                int k = i * m + j;
+                a[k][k] = 4.5;
+                if (j + 1 < m) {
+                    a[k][k + 1] = -1.0;
+                    a[k + 1][k] = -1.0 + 0.1 * random.nextDouble();
+                }
+                if (i + 1 < m) {
+                    a[k][k + m] = -1.0;
+                    a[k + m][k] = -1.0 + 0.1 * random.nextDouble();
+                }
+            }
+        }
+        SparseMatrix A = SparseMatrix.fromDense(a);
+        SparseLU.Symbolic natural = SparseLU.analyze(A, SparseLU.NATURAL);
+        SparseLU.Symbolic md = SparseLU.analyze(A, SparseLU.MINIMUM_DEGREE);
+        assertTrue(md.predictedNonZeros() < natural.predictedNonZeros());
+
+        SparseLU lu = SparseLU.factor(A, md, 1e-12, SparseLU.DEFAULT_THRESHOLD);
+        assertEquals(0, lu.offDiagonalPivots());
+        assertEquals(md.predictedNonZeros() + n, lu.nonZeros());
+    }
+
+    @Test
+    void symbolicIsReusedOnlyForSamePattern() {
+        Random random = new Random(6);
+        double[][] a = randomSparse(40, random);
+        SparseMatrix A = SparseMatrix.fromDense(a);
+        SparseLU.Symbolic S = SparseLU.analyze(A, SparseLU.MINIMUM_DEGREE);
+
+        // Mismos no ceros, otros valores
+        double[][] a2 = new double[40][40];
+        for (int i = 0; i < 40; i++) {
+            for (int j = 0; j < 40; j++) {
+                a2[i][j] = a[i][j] * (1.5 + random.nextDouble());
+            }
+        }
+        SparseMatrix A2 = SparseMatrix.fromDense(a2);
+        assertTrue(S.matches(A2));
+        SparseLU lu = SparseLU.factor(A2, S, 1e-12, SparseLU.DEFAULT_THRESHOLD);
+        double[] b = new double[40];
+        java.util.Arrays.fill(b, 1.0);
+        double[] x = new double[40];
+        lu.solve(b, x);
+        assertTrue(GaussSeidelWithEquations.residualNorm(a2, b, x) < 1e-12);
+
+        a2[0][39] = a2[0][39] == 0.0 ? 1.0 : 0.0;
+        SparseMatrix other = SparseMatrix.fromDense(a2);
+        assertFalse(S.matches(other));
+        assertThrows(IllegalArgumentException.class,
+                () -> SparseLU.factor(other, S, 1e-12, SparseLU.DEFAULT_THRESHOLD));
+    }
+
+    @Test
+    void singularMatrixReportsError() {
+        double[][] a = {{1, 2, 3}, {2, 4, 6}, {1, 0, 1}};
+        SparseLU lu = SparseLU.factor(SparseMatrix.fromDense(a), 1e-9);
+        assertEquals(-1, lu.error());
+        assertThrows(ArithmeticException.class, () -> lu.solve(new double[3], new double[3]));
+    }
+}
@@ -0,0 +1,120 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class UpdatableLUTest {
+
+    private static final int N = 40;
+
+    // Matriz con diagonal dominante (bien condicionada)
+    private static double[][] matrix(Random random) {
+        double[][] a = new double[N][N];
+        for (int i = 0; i < N; i++) {
+            for (int j = 0; j < N; j++) {
+                a[i][j] = random.nextDouble() - 0.5;
+            }
+            a[i][i] += N;
+        }
+        return a;
+    }
+
+    private static double[] vector(Random random) {
+        double[] v = new double[N];
+        for (int i = 0; i < N; i++) {
+            v[i] = random.nextDouble() - 0.5;
+        }
+        return v;
+    }
+
+    // Compara el solve de 'lu' con una LU nueva de la A actual
+    private static void assertSolvesLikeFresh(UpdatableLU lu, double[][] a, double[] b) {
+        double[] expected = new double[N];
+        LUFactorization.factor(a, N, 1e-12).solve(b, expected);
+        double[] x = new double[N];
+        lu.solve(b, x);
+        for (int i = 0; i < N; i++) {
+            assertEquals(expected[i], x[i], 1e-12 * Math.max(1.0, Math.abs(expected[i])), "x" + i);
+        }
+    }
+
+    @Test
+    void solveAfterUpdatesMatchesFreshFactorization() {
+        Random random = new Random(21);
+        double[][] a = matrix(random);
+        double[] b = vector(random);
+        UpdatableLU lu = UpdatableLU.factor(a, N, 1e-12);
+        assertSolvesLikeFresh(lu, a, b);
+
+        // Fila 3 nueva
+        double[] row = vector(random);
+        row[3] += N;
+        lu.updateRow(3, row);
+        a[3] = row.clone();
+        assertSolvesLikeFresh(lu, a, b);
+
+        // Columna 17 nueva
+        double[] column = vector(random);
+        column[17] += N;
+        lu.updateColumn(17, column);
+        for (int i = 0; i < N; i++) {
+            a[i][17] = column[i];
+        }
+        assertSolvesLikeFresh(lu, a, b);
+
+        // Cambio general A = A + u v^T
+        double[] u = vector(random);
+        double[] v = vector(random);
+        lu.update(u, v);
+        for (int i = 0; i < N; i++) {
+            for (int j = 0; j < N; j++) {
+                a[i][j] += u[i] * v[j];
+            }
+        }
+        assertSolvesLikeFresh(lu, a, b);
+
+        // Todo se resolvió con Woodbury, sin refactorizar
+        assertEquals(3, lu.rank());
+        assertEquals(0, lu.refactorizations());
+        assertTrue(lu.lastResidual() <= UpdatableLU.DEFAULT_DRIFT);
+    }
+
+    @Test
+    void driftCheckForcesRefactor() {
+        Random random = new Random(22);
+        double[][] a = matrix(random);
+        double[] b = vector(random);
+        // Con drift = 1e-30 ningún solve con cambios acumulados pasa la revisión
+        UpdatableLU lu = UpdatableLU.factor(a, N, 1e-12, UpdatableLU.DEFAULT_MAX_RANK, 1e-30);
+
+        double[] row = vector(random);
+        row[5] += N;
+        lu.updateRow(5, row);
+        a[5] = row.clone();
+        assertEquals(1, lu.rank());
+
+        assertSolvesLikeFresh(lu, a, b);
+        assertTrue(lu.lastResidual() > 1e-30);
+        assertEquals(1, lu.refactorizations());
+        assertEquals(0, lu.rank());
+    }
+
+    @Test
+    void reachingMaxRankRefactors() {
+        Random random = new Random(23);
+        double[][] a = matrix(random);
+        double[] b = vector(random);
+        UpdatableLU lu = UpdatableLU.factor(a, N, 1e-12, 2, UpdatableLU.DEFAULT_DRIFT);
+
+        for (int i = 0; i < 3; i++) {
+            double[] row = vector(random);
+            row[i] += N;
+            lu.updateRow(i, row);
+            a[i] = row.clone();
+        }
+        assertEquals(1, lu.refactorizations());
+        assertEquals(0, lu.rank());
+        assertSolvesLikeFresh(lu, a, b);
+    }
+}